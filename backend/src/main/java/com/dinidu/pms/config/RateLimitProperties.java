@@ -0,0 +1,47 @@
+package com.dinidu.pms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route token-bucket limits for {@link com.dinidu.pms.logging.RateLimitFilter}.
+ * Rules are matched in order; the first rule whose pattern (and method, if set) matches applies.
+ * Example:
+ * <pre>
+ * rate-limit.rules[0].pattern=/api/tasks/**
+ * rate-limit.rules[0].methods=GET
+ * rate-limit.rules[0].user-capacity=20
+ * rate-limit.rules[0].user-refill-per-second=5
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // how often full (idle) buckets are swept from memory
+    private long evictionIntervalSeconds = 60;
+
+    private List<Rule> rules = new ArrayList<>(List.of(defaultRule()));
+
+    @Data
+    public static class Rule {
+        private String pattern = "/api/**";
+        // empty = any method
+        private List<String> methods = new ArrayList<>();
+        private long userCapacity = 100;
+        private double userRefillPerSecond = 20;
+        private long ipCapacity = 200;
+        private double ipRefillPerSecond = 50;
+    }
+
+    private static Rule defaultRule() {
+        return new Rule();
+    }
+}
@@ -0,0 +1,58 @@
+package com.dinidu.pms.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a read-only transaction may use the replica. It may not while the current request
+ * writes (pinned to the primary for its duration), nor for a user within the sticky window after their
+ * own write, so people read what they just saved regardless of replication lag. Stickiness is per node.
+ */
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRouting(long stickyWindowMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(stickyWindowMillis);
+    }
+
+    public boolean useReplica() {
+        if (PINNED_TO_PRIMARY.get() != null) return false;
+        String user = currentUser();
+        if (user == null) return true;
+        Long until = stickyUntil.get(user);
+        if (until == null) return true;
+        if (System.nanoTime() - until < 0) return false;
+        stickyUntil.remove(user, until);
+        return true;
+    }
+
+    public void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public void recordWrite(String user) {
+        if (user == null || windowNanos <= 0) return;
+        long now = System.nanoTime();
+        stickyUntil.put(user, now + windowNanos);
+        if (stickyUntil.size() > PRUNE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> now - until >= 0);
+        }
+    }
+
+    static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
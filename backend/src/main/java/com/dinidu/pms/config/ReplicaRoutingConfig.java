@@ -0,0 +1,105 @@
+package com.dinidu.pms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write splitting, active when spring.datasource.replica.url is set.
+ * Read-only transactions ({@code @Transactional(readOnly = true)} service reads and Spring Data's finders) run on
+ * the replica pool, everything else on the primary. The choice is made when a transaction first touches the
+ * database; {@link ReplicaRouting} overrides it for writing requests and for read-your-writes.
+ * <pre>
+ * spring.datasource.replica.url=jdbc:mysql://replica:3306/pms
+ * spring.datasource.replica.username=...
+ * spring.datasource.replica.password=...
+ * spring.datasource.replica.hikari.maximum-pool-size=20
+ * datasource.routing.sticky-window-ms=5000
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return pool(properties, PRIMARY);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("spring.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("spring.datasource.replica is not configured"));
+        return pool(properties, REPLICA);
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Value("${datasource.routing.sticky-window-ms:5000}") long stickyWindowMillis) {
+        return new ReplicaRouting(stickyWindowMillis);
+    }
+
+    @Bean
+    public ReplicaRoutingFilter replicaRoutingFilter(ReplicaRouting replicaRouting) {
+        return new ReplicaRoutingFilter(replicaRouting);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting replicaRouting) {
+        return routingDataSource(primary, replica, replicaRouting);
+    }
+
+    // Transactions take their own connection, chosen per transaction, instead of holding the first one for
+    // the whole open-in-view session (which would pin a request to whichever side it touched first)
+    @Bean
+    public HibernatePropertiesCustomizer perTransactionConnections() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    static DataSource routingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && routing.useReplica()
+                        ? REPLICA : PRIMARY;
+            }
+        };
+        router.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        // defers the physical connection to the first statement, by which time the read-only flag is known
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
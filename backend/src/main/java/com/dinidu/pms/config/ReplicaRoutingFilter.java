@@ -0,0 +1,50 @@
+package com.dinidu.pms.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins requests that can write (anything but GET/HEAD/OPTIONS) to the primary, so the reads a write path
+ * makes see current rows, and starts the caller's read-your-writes window once such a request succeeds.
+ * Runs after the Spring Security chain so the principal is known.
+ */
+public class ReplicaRoutingFilter extends OncePerRequestFilter implements Ordered {
+
+    private final ReplicaRouting routing;
+
+    public ReplicaRoutingFilter(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public int getOrder() {
+        return SecurityProperties.DEFAULT_FILTER_ORDER + 2;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        routing.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            routing.unpin();
+            if (response.getStatus() < 400) {
+                routing.recordWrite(ReplicaRouting.currentUser());
+            }
+        }
+    }
+}
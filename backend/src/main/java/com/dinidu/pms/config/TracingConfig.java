@@ -0,0 +1,31 @@
+package com.dinidu.pms.config;
+
+import com.dinidu.pms.logging.SeededTraceIdGenerator;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.actuate.autoconfigure.tracing.SdkTracerProviderBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Span export. With management.otlp.tracing.endpoint set (e.g. http://localhost:8200/v1/traces for the
+ * APM server in docker-compose.yml) Spring Boot exports over OTLP/HTTP. For offline use, the
+ * {@code trace-file} profile adds an exporter writing OTLP JSON lines, which logback-spring.xml routes
+ * to ${tracing.file:logs/traces.jsonl}. Both can be active at once.
+ */
+@Configuration
+public class TracingConfig {
+
+    // root spans can take their trace ID from the caller's X-Correlation-Id
+    @Bean
+    public SdkTracerProviderBuilderCustomizer seededTraceIds() {
+        return builder -> builder.setIdGenerator(new SeededTraceIdGenerator());
+    }
+
+    @Bean
+    @Profile("trace-file")
+    public SpanExporter otlpJsonFileSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
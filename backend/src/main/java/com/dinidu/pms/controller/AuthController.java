@@ -3,12 +3,15 @@ package com.dinidu.pms.controller;
 
 import com.dinidu.pms.dto.AuthResponse;
 import com.dinidu.pms.dto.LoginRequest;
+import com.dinidu.pms.dto.RefreshTokenRequest;
 import com.dinidu.pms.dto.RegisterRequest;
 import com.dinidu.pms.entity.User;
+import com.dinidu.pms.security.AuthenticationBusyException;
 import com.dinidu.pms.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -32,6 +35,8 @@ public class AuthController {
             AuthResponse response = userService.register(request);
             logger.info("[AuthController] register success: {}", response.getUsername());
             return ResponseEntity.ok(response);
+        } catch (AuthenticationBusyException e) {
+            throw e; // 503 with Retry-After, see GlobalExceptionHandler
         } catch (RuntimeException e) {
             logger.error("[AuthController] register failed", e);
             return ResponseEntity.badRequest().build();
@@ -45,12 +50,37 @@ public class AuthController {
             AuthResponse response = userService.authenticate(request);
             logger.info("[AuthController] login success: {}", response.getUsername());
             return ResponseEntity.ok(response);
+        } catch (AuthenticationBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("[AuthController] login failed", e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            AuthResponse response = userService.refresh(request.getRefreshToken());
+            logger.debug("[AuthController] refresh success: {}", response.getUsername());
+            return ResponseEntity.ok(response);
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            logger.warn("[AuthController] refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (RuntimeException e) {
+            logger.error("[AuthController] refresh failed", e);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        userService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<AuthResponse> getCurrentUser(@AuthenticationPrincipal User user) {
     logger.debug("[AuthController] getCurrentUser called");
@@ -0,0 +1,31 @@
+package com.dinidu.pms.controller;
+
+import com.dinidu.pms.dto.BootstrapResponse;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.service.BootstrapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * One round-trip for the SPA's first paint, replacing the separate me/projects/tasks/teams/stats calls.
+ */
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    @GetMapping
+    public ResponseEntity<BootstrapResponse> bootstrap(@AuthenticationPrincipal User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(bootstrapService.load(user));
+    }
+}
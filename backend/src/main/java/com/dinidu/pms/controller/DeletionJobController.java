@@ -0,0 +1,40 @@
+package com.dinidu.pms.controller;
+
+import com.dinidu.pms.entity.DeletionJob;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.service.CascadeDeleter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Progress of a project/team deletion: rowsDeleted so far, finishedAt once the purge is complete.
+ */
+@RestController
+@RequestMapping("/api/deletions")
+@RequiredArgsConstructor
+public class DeletionJobController {
+
+    private final CascadeDeleter cascadeDeleter;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DeletionJob> getDeletion(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            DeletionJob job = cascadeDeleter.getJob(id);
+            if (user.getRole() != User.Role.ADMIN && !user.getUsername().equals(job.getRequestedBy())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.dinidu.pms.controller;
 import com.dinidu.pms.entity.User;
 import com.dinidu.pms.repo.UserRepository;
 import com.dinidu.pms.security.JwtService;
+import com.dinidu.pms.security.OAuthHttpClient;
+import com.dinidu.pms.service.UsernameAllocator;
+import com.dinidu.pms.utils.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,12 +18,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Controller
 @RequestMapping("/api/auth/oauth2")
@@ -29,6 +34,8 @@ public class OAuthController {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
+    private final OAuthHttpClient oauthHttpClient;
+    private final UsernameAllocator usernameAllocator;
     private final Logger logger = LoggerFactory.getLogger(OAuthController.class);
 
     @Value("${oauth.google.client-id:}")
@@ -49,7 +56,21 @@ public class OAuthController {
     @Value("${app.server.url:http://localhost:8080}")
     private String serverUrl;
 
-    private final RestTemplate rest = new RestTemplate();
+    // Provider base URLs are configurable so a local stub can stand in for Google/GitHub in load tests
+    @Value("${oauth.google.auth-base-url:https://accounts.google.com}")
+    private String googleAuthBaseUrl;
+
+    @Value("${oauth.google.token-base-url:https://oauth2.googleapis.com}")
+    private String googleTokenBaseUrl;
+
+    @Value("${oauth.google.userinfo-base-url:https://openidconnect.googleapis.com}")
+    private String googleUserInfoBaseUrl;
+
+    @Value("${oauth.github.base-url:https://github.com}")
+    private String githubBaseUrl;
+
+    @Value("${oauth.github.api-base-url:https://api.github.com}")
+    private String githubApiBaseUrl;
 
     @GetMapping("/{provider}/authorize")
     public ResponseEntity<?> authorizeUrl(@PathVariable String provider) {
@@ -59,7 +80,7 @@ public class OAuthController {
             }
         String redirect = URI.create(serverUrl).resolve("/api/auth/oauth2/google/callback").toString();
         String encoded = URLEncoder.encode(redirect, StandardCharsets.UTF_8);
-        String url = "https://accounts.google.com/o/oauth2/v2/auth?response_type=code&client_id=" + googleClientId
+        String url = googleAuthBaseUrl + "/o/oauth2/v2/auth?response_type=code&client_id=" + googleClientId
             + "&scope=openid%20email%20profile&redirect_uri=" + encoded + "&access_type=online&prompt=select_account";
             return ResponseEntity.ok(Map.of("url", url));
         }
@@ -70,7 +91,7 @@ public class OAuthController {
             }
             String redirect = URI.create(serverUrl).resolve("/api/auth/oauth2/github/callback").toString();
             String encoded = URLEncoder.encode(redirect, StandardCharsets.UTF_8);
-            String url = "https://github.com/login/oauth/authorize?client_id=" + githubClientId + "&scope=user:email&redirect_uri=" + encoded;
+            String url = githubBaseUrl + "/login/oauth/authorize?client_id=" + githubClientId + "&scope=user:email&redirect_uri=" + encoded;
             return ResponseEntity.ok(Map.of("url", url));
         }
 
@@ -83,7 +104,7 @@ public class OAuthController {
         if ("google".equalsIgnoreCase(provider)) {
             String redirect = URI.create(serverUrl).resolve("/api/auth/oauth2/google/callback").toString();
             String encoded = URLEncoder.encode(redirect, StandardCharsets.UTF_8);
-            String url = "https://accounts.google.com/o/oauth2/v2/auth?response_type=code&client_id=" + googleClientId
+            String url = googleAuthBaseUrl + "/o/oauth2/v2/auth?response_type=code&client_id=" + googleClientId
                     + "&scope=openid%20email%20profile&redirect_uri=" + encoded + "&access_type=online&prompt=select_account";
             return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url)).build();
         }
@@ -91,7 +112,7 @@ public class OAuthController {
         if ("github".equalsIgnoreCase(provider)) {
             String redirect = URI.create(serverUrl).resolve("/api/auth/oauth2/github/callback").toString();
             String encoded = URLEncoder.encode(redirect, StandardCharsets.UTF_8);
-            String url = "https://github.com/login/oauth/authorize?client_id=" + githubClientId + "&scope=user:email&redirect_uri=" + encoded;
+            String url = githubBaseUrl + "/login/oauth/authorize?client_id=" + githubClientId + "&scope=user:email&redirect_uri=" + encoded;
             return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url)).build();
         }
 
@@ -105,7 +126,7 @@ public class OAuthController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing code");
             }
 
-            String tokenUrl = "https://oauth2.googleapis.com/token";
+            String tokenUrl = googleTokenBaseUrl + "/token";
             MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
             params.add("code", code);
             params.add("client_id", googleClientId);
@@ -113,45 +134,28 @@ public class OAuthController {
             params.add("redirect_uri", serverUrl + "/api/auth/oauth2/google/callback");
             params.add("grant_type", "authorization_code");
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
-            ResponseEntity<Map> tokenResp = rest.postForEntity(tokenUrl, request, Map.class);
-            Map body = tokenResp.getBody();
+            Map<String, Object> body = oauthHttpClient.postForm("google", tokenUrl, params);
             String accessToken = (String) body.get("access_token");
 
             // fetch user info
-            HttpHeaders auth = new HttpHeaders();
-            auth.setBearerAuth(accessToken);
-            HttpEntity<Void> entity = new HttpEntity<>(auth);
-            ResponseEntity<Map> userResp = rest.exchange("https://openidconnect.googleapis.com/v1/userinfo", HttpMethod.GET, entity, Map.class);
-            Map userInfo = userResp.getBody();
+            Map<String, Object> userInfo = oauthHttpClient.getObject("google", googleUserInfoBaseUrl + "/v1/userinfo", accessToken);
             String email = (String) userInfo.get("email");
             String name = (String) userInfo.get("name");
 
-            User user = userRepository.findByEmail(email).orElseGet(() -> {
-                String base = email.split("@")[0];
-                String candidate = base;
-                int suffix = 0;
-                while (userRepository.existsByUsername(candidate)) {
-                    suffix++;
-                    candidate = base + suffix;
-                }
-                User u = User.builder()
-                        .email(email)
-                        .username(candidate)
-                        .firstName(name)
-                        .role(User.Role.ADMIN)
-                        .password("oauth")
-                        .build();
-                return userRepository.save(u);
-            });
-
-            String jwt = jwtService.generateToken(user);
-            String redirect = frontendUrl + "/oauth-callback.html?token=" + jwt;
-            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(redirect)).build();
+            User user = userRepository.findByEmail(email).orElseGet(() ->
+                    usernameAllocator.createWithUniqueUsername(email.split("@")[0], candidate -> User.builder()
+                            .email(email)
+                            .username(candidate)
+                            .firstName(name)
+                            .role(User.Role.ADMIN)
+                            .password("oauth")
+                            .build()));
 
+            return callbackRedirect(user);
+
+        } catch (CircuitBreaker.OpenException e) {
+            logger.warn("Google OAuth rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("OAuth provider unavailable");
         } catch (Exception e) {
             logger.error("Google OAuth failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("OAuth failed");
@@ -166,45 +170,35 @@ public class OAuthController {
             }
 
             // exchange code for access token
-            String tokenUrl = "https://github.com/login/oauth/access_token";
+            String tokenUrl = githubBaseUrl + "/login/oauth/access_token";
             MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
             params.add("code", code);
             params.add("client_id", githubClientId);
             params.add("client_secret", githubClientSecret);
             params.add("redirect_uri", serverUrl + "/api/auth/oauth2/github/callback");
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.setAccept(java.util.List.of(MediaType.APPLICATION_JSON));
-
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
-            ResponseEntity<Map> tokenResp = rest.postForEntity(tokenUrl, request, Map.class);
-            Map tokenBody = tokenResp.getBody();
+            Map<String, Object> tokenBody = oauthHttpClient.postForm("github", tokenUrl, params);
             String accessToken = (String) tokenBody.get("access_token");
 
-            // get user
-            HttpHeaders auth = new HttpHeaders();
-            auth.setBearerAuth(accessToken);
-            auth.setAccept(java.util.List.of(MediaType.APPLICATION_JSON));
-            HttpEntity<Void> entity = new HttpEntity<>(auth);
-            ResponseEntity<Map> userResp = rest.exchange("https://api.github.com/user", HttpMethod.GET, entity, Map.class);
-            Map userInfo = userResp.getBody();
+            // get user and emails concurrently; GitHub may not return a public email on /user
+            CompletableFuture<Map<String, Object>> userFuture =
+                    oauthHttpClient.getObjectAsync("github", githubApiBaseUrl + "/user", accessToken);
+            CompletableFuture<List<Map<String, Object>>> emailsFuture =
+                    oauthHttpClient.getListAsync("github", githubApiBaseUrl + "/user/emails", accessToken);
+            Map<String, Object> userInfo = join(userFuture);
+            List<Map<String, Object>> emails = join(emailsFuture);
             String username = (String) userInfo.get("login");
 
-            // GitHub may not return public email; fetch emails
-            ResponseEntity<java.util.List> emailsResp = rest.exchange("https://api.github.com/user/emails", HttpMethod.GET, entity, java.util.List.class);
             String email = null;
-            for (Object o : emailsResp.getBody()) {
-                Map em = (Map) o;
+            for (Map<String, Object> em : emails) {
                 Boolean primary = (Boolean) em.get("primary");
                 if (primary != null && primary) {
                     email = (String) em.get("email");
                     break;
                 }
             }
-            if (email == null && emailsResp.getBody().size() > 0) {
-                Map em = (Map) emailsResp.getBody().get(0);
-                email = (String) em.get("email");
+            if (email == null && !emails.isEmpty()) {
+                email = (String) emails.get(0).get("email");
             }
 
             if (email == null) {
@@ -212,31 +206,43 @@ public class OAuthController {
             }
 
             String finalEmail = email;
-            User user = userRepository.findByEmail(email).orElseGet(() -> {
-                String base = username != null ? username : (finalEmail.split("@")[0]);
-                String candidate = base;
-                int suffix = 0;
-                while (userRepository.existsByUsername(candidate)) {
-                    suffix++;
-                    candidate = base + suffix;
-                }
-                User u = User.builder()
-                        .email(finalEmail)
-                        .username(candidate)
-                        .firstName((String) userInfo.get("name"))
-                        .role(User.Role.ADMIN)
-                        .password("oauth")
-                        .build();
-                return userRepository.save(u);
-            });
-
-            String jwt = jwtService.generateToken(user);
-            String redirect = frontendUrl + "/oauth-callback.html?token=" + jwt;
-            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(redirect)).build();
-
+            User user = userRepository.findByEmail(email).orElseGet(() ->
+                    usernameAllocator.createWithUniqueUsername(
+                            username != null ? username : (finalEmail.split("@")[0]),
+                            candidate -> User.builder()
+                                    .email(finalEmail)
+                                    .username(candidate)
+                                    .firstName((String) userInfo.get("name"))
+                                    .role(User.Role.ADMIN)
+                                    .password("oauth")
+                                    .build()));
+
+            return callbackRedirect(user);
+
+        } catch (CircuitBreaker.OpenException e) {
+            logger.warn("GitHub OAuth rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("OAuth provider unavailable");
         } catch (Exception e) {
             logger.error("GitHub OAuth failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("OAuth failed");
         }
     }
+
+    // Tokens go in the fragment: browsers never send it to a server, so it stays out of access logs, proxies
+    // and Referer headers; the callback page reads it and removes it from the history entry
+    private ResponseEntity<?> callbackRedirect(User user) {
+        String jwt = jwtService.generateToken(user);
+        String refresh = jwtService.generateRefreshToken(user);
+        String redirect = frontendUrl + "/oauth-callback.html#token=" + jwt + "&refreshToken=" + refresh;
+        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(redirect)).build();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
 }
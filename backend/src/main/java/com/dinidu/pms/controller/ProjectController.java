@@ -1,8 +1,11 @@
 package com.dinidu.pms.controller;
 
 
+import com.dinidu.pms.dto.CriticalPathResponse;
 import com.dinidu.pms.dto.ProjectRequest;
+import com.dinidu.pms.entity.DeletionJob;
 import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.service.EditConflictException;
 import com.dinidu.pms.service.ProjectService;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.Logger;
@@ -35,6 +38,15 @@ public class ProjectController {
         }
     }
 
+    @GetMapping("/{id}/critical-path")
+    public ResponseEntity<CriticalPathResponse> getCriticalPath(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(projectService.getCriticalPath(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Project> createProject(@Valid @RequestBody ProjectRequest request) {
         try {
@@ -50,16 +62,19 @@ public class ProjectController {
         try {
             Project project = projectService.updateProject(id, request);
             return ResponseEntity.ok(project);
+        } catch (EditConflictException e) {
+            throw e; // 409 with the current project, see GlobalExceptionHandler
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
+    public ResponseEntity<DeletionJob> deleteProject(@PathVariable Long id) {
         try {
-            projectService.deleteProject(id);
-            return ResponseEntity.ok().build();
+            // hidden immediately, purged in the background; progress at /api/deletions/{jobId}
+            DeletionJob job = projectService.deleteProject(id);
+            return ResponseEntity.accepted().body(job);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
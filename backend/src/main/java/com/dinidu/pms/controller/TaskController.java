@@ -1,7 +1,13 @@
 package com.dinidu.pms.controller;
 
+import com.dinidu.pms.dto.DependencyRequest;
+import com.dinidu.pms.dto.TaskActivityPage;
+import com.dinidu.pms.dto.TaskDependencies;
+import com.dinidu.pms.dto.TaskPatchRequest;
 import com.dinidu.pms.dto.TaskRequest;
 import com.dinidu.pms.entity.*;
+import com.dinidu.pms.service.DependencyCycleException;
+import com.dinidu.pms.service.EditConflictException;
 import com.dinidu.pms.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,11 +24,22 @@ public class TaskController {
     private final TaskService taskService;
 
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
+    public ResponseEntity<List<Task>> getAllTasks(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                  @RequestParam(required = false) List<String> tags,
+                                                  @RequestParam(required = false) Long projectId) {
+        // ?tags=a,b&projectId=X filters live tasks through the tag index
+        List<Task> tasks = tags != null || projectId != null
+                ? taskService.findTasks(tags, projectId)
+                : taskService.getAllTasks(includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/tags")
+    public ResponseEntity<List<String>> suggestTags(@RequestParam(defaultValue = "") String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(taskService.suggestTags(prefix, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
         try {
@@ -48,6 +65,72 @@ public class TaskController {
         try {
             Task task = taskService.updateTask(id, request);
             return ResponseEntity.ok(task);
+        } catch (EditConflictException e) {
+            throw e; // 409 with the current task, see GlobalExceptionHandler
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Task> patchTask(@PathVariable Long id, @Valid @RequestBody TaskPatchRequest request) {
+        try {
+            Task task = taskService.patchTask(id, request);
+            return ResponseEntity.ok(task);
+        } catch (EditConflictException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}/activity")
+    public ResponseEntity<TaskActivityPage> getActivity(@PathVariable Long id,
+                                                        @RequestParam(required = false) Long before,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(taskService.getActivity(id, before, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<TaskDependencies> getDependencies(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(taskService.getDependencies(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/dependencies")
+    public ResponseEntity<TaskDependency> addDependency(@PathVariable Long id,
+                                                        @Valid @RequestBody DependencyRequest request) {
+        try {
+            return ResponseEntity.ok(taskService.addDependency(id, request.getBlockedById()));
+        } catch (DependencyCycleException e) {
+            throw e; // 409 with the cycle, see GlobalExceptionHandler
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/dependencies/{blockedById}")
+    public ResponseEntity<Void> removeDependency(@PathVariable Long id, @PathVariable Long blockedById) {
+        try {
+            taskService.removeDependency(id, blockedById);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Task> restoreTask(@PathVariable Long id) {
+        try {
+            Task task = taskService.restoreTask(id);
+            return ResponseEntity.ok(task);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
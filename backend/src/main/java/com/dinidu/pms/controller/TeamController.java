@@ -2,6 +2,7 @@ package com.dinidu.pms.controller;
 
 import com.dinidu.pms.dto.TeamMembersRequest;
 import com.dinidu.pms.dto.TeamRequest;
+import com.dinidu.pms.entity.DeletionJob;
 import com.dinidu.pms.entity.Team;
 import com.dinidu.pms.service.TeamService;
 import jakarta.validation.Valid;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -44,9 +46,28 @@ public class TeamController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (RuntimeException e) {
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/members")
+    public ResponseEntity<?> addMembers(@PathVariable Long id, @RequestBody TeamMembersRequest request) {
+        try {
+            Team updated = teamService.addMembers(id, request.getMemberIds() != null ? request.getMemberIds() : Set.of());
+            return ResponseEntity.ok(updated);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/members")
+    public ResponseEntity<?> removeMembers(@PathVariable Long id, @RequestParam List<Long> userIds) {
+        try {
+            Team updated = teamService.removeMembers(id, userIds);
+            return ResponseEntity.ok(updated);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
-        return null;
     }
 
     @PutMapping("/{id}")
@@ -64,8 +85,9 @@ public class TeamController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTeam(@PathVariable Long id) {
         try {
-            teamService.deleteTeam(id);
-            return ResponseEntity.noContent().build();
+            // hidden immediately, purged in the background; progress at /api/deletions/{jobId}
+            DeletionJob job = teamService.deleteTeam(id);
+            return ResponseEntity.accepted().body(job);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (RuntimeException e) {
@@ -2,6 +2,7 @@ package com.dinidu.pms.controller;
 
 import com.dinidu.pms.dto.UpdateUserRequest;
 import com.dinidu.pms.entity.User;
+import com.dinidu.pms.security.AuthenticationBusyException;
 import com.dinidu.pms.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -34,10 +35,13 @@ public class UserController {
                 var resp = new com.dinidu.pms.dto.UpdateUserResponse();
                 resp.setUser(updated);
                 resp.setToken(token);
+                resp.setRefreshToken(userService.generateRefreshTokenFor(updated));
                 return ResponseEntity.ok(resp);
             }
 
             return ResponseEntity.ok(updated);
+        } catch (AuthenticationBusyException e) {
+            throw e; // 503 with Retry-After, see GlobalExceptionHandler
         } catch (RuntimeException e) {
             logger.error("[UserController] updateUser failed", e);
             return ResponseEntity.badRequest().build();
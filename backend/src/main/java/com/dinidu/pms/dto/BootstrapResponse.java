@@ -0,0 +1,29 @@
+package com.dinidu.pms.dto;
+
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.Team;
+import com.dinidu.pms.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Initial app load in one payload: what /api/users/me, /api/projects, /api/tasks, /api/teams and
+ * /api/tasks/stats/{status} return separately.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BootstrapResponse {
+    private User user;
+    private List<Project> projects;
+    private List<Task> tasks;
+    private List<Team> teams;
+    private Map<Task.Status, Long> taskStats;
+}
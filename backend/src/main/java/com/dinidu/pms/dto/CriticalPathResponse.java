@@ -0,0 +1,42 @@
+package com.dinidu.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Schedule of a project's open tasks from its "blocked by" links, one day per open task. Plans start today
+ * (or at the project's start date if that is later); {@code slackDays} is how long a task can slip before
+ * the project misses {@code endDate}, or its projected finish when there is no end date. Negative slack means
+ * the end date cannot be met. {@code criticalPath} lists the tasks with the least slack in dependency order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CriticalPathResponse {
+    private Long projectId;
+    private LocalDate planStart;
+    private LocalDate endDate;
+    private LocalDate projectedFinish;
+    private boolean behindSchedule;
+    private List<Long> criticalPath;
+    private List<TaskSchedule> tasks;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TaskSchedule {
+        private Long taskId;
+        private LocalDate earliestStart;
+        private LocalDate earliestFinish;
+        private LocalDate latestStart;
+        private LocalDate latestFinish;
+        private int slackDays;
+        private boolean critical;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dinidu.pms.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class DependencyRequest {
+    @NotNull(message = "blockedById is required")
+    private Long blockedById;
+}
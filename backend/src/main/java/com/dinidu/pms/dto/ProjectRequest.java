@@ -18,4 +18,7 @@ public class ProjectRequest {
 
     // Optional: associate with a team
     private Long teamId;
+
+    // Version the edit is based on (from the project JSON); when set, a stale version is rejected with 409
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.dinidu.pms.dto;
+
+import com.dinidu.pms.entity.TaskActivity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of task history, newest first. Pass {@code nextCursor} as {@code before} to get the next page;
+ * it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskActivityPage {
+    private List<TaskActivity> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.dinidu.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The "blocked by" links of one task in both directions.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskDependencies {
+    private Long taskId;
+    // tasks that must be done first
+    private List<Long> blockedBy;
+    // tasks waiting on this one
+    private List<Long> blocks;
+}
@@ -0,0 +1,43 @@
+package com.dinidu.pms.dto;
+
+import com.dinidu.pms.entity.Task;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Partial task update that can be merged into concurrent edits.
+ * {@code changes} holds the fields to set (null leaves a field alone); {@code original} holds the caller's
+ * values of those same fields as of {@code version}. If the task has moved on, each changed field whose
+ * current value still equals the original was not touched by anyone else and is merged; otherwise 409.
+ * <pre>
+ * {"version": 7, "changes": {"status": "DONE"}, "original": {"status": "IN_PROGRESS"}}
+ * </pre>
+ */
+@Data
+public class TaskPatchRequest {
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Valid
+    @NotNull(message = "Changes are required")
+    private Fields changes;
+
+    private Fields original;
+
+    @Data
+    public static class Fields {
+        private String title;
+        private String description;
+        private Task.Status status;
+        private Task.Priority priority;
+        private LocalDate dueDate;
+        private Long projectId;
+        private Long assigneeId;
+        private Set<String> tags;
+    }
+}
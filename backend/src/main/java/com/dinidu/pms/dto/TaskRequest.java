@@ -21,4 +21,7 @@ public class TaskRequest {
     private Long projectId;
     private Long assigneeId;
     private Set<String> tags;
+
+    // Version the edit is based on (from the task JSON); when set, a stale version is rejected with 409
+    private Long version;
 }
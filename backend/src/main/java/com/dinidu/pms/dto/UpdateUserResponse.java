@@ -7,4 +7,5 @@ import lombok.Data;
 public class UpdateUserResponse {
     private User user;
     private String token;
+    private String refreshToken;
 }
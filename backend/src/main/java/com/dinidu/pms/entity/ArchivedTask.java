@@ -0,0 +1,104 @@
+package com.dinidu.pms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A cold task: DONE and untouched for longer than {@code tasks.archive.after-days}, moved out of {@code tasks}
+ * by {@link com.dinidu.pms.service.TaskArchiver}. Same columns as {@link Task}, keeping the original id and
+ * timestamps, so a restore puts the row back unchanged.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_project", columnList = "project_id"),
+        @Index(name = "idx_tasks_archive_assignee", columnList = "assignee_id")
+})
+public class ArchivedTask {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Task.Status status;
+
+    @Enumerated(EnumType.STRING)
+    private Task.Priority priority;
+
+    private LocalDate dueDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id")
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assignee_id")
+    private User assignee;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "tasks_archive_tags", joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "tag_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @BatchSize(size = 256)
+    private Set<Integer> tagIds;
+
+    @Column(nullable = false)
+    private Long version;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * A detached, read-only {@link Task} view of this row, for responses that mix hot and archived tasks.
+     */
+    public Task toTask() {
+        Task task = Task.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .status(status)
+                .priority(priority)
+                .dueDate(dueDate)
+                .project(project)
+                .assignee(assignee)
+                .tagIds(tagIds != null ? new HashSet<>(tagIds) : new HashSet<>())
+                .version(version)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+        task.setArchivedAt(archivedAt);
+        return task;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedTask that = (ArchivedTask) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dinidu.pms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending or finished purge of a deleted project or team (see {@link com.dinidu.pms.service.CascadeDeleter}).
+ * The row is committed together with the parent's deletedAt marker, and {@code rowsDeleted} together with each
+ * batch, so an unfinished job survives a crash with accurate progress and is picked up again.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "deletion_jobs", indexes = {@Index(name = "idx_deletion_jobs_finished_at", columnList = "finished_at")})
+@EntityListeners(AuditingEntityListener.class)
+public class DeletionJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private Long targetId;
+
+    private String requestedBy;
+
+    @Column(nullable = false)
+    private long rowsDeleted;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Kind {
+        PROJECT, TEAM
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -48,10 +49,21 @@ public class Project {
     @JoinColumn(name = "team_id")
     private Team team;
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // No cascade: deleting a project is a background purge of its tasks, see CascadeDeleter
+    @OneToMany(mappedBy = "project", fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<Task> tasks;
 
+    // Set when the project is deleted; it is hidden from then on and purged in the background
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    // Optimistic lock: every update bumps it, and a write based on an older version is rejected
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -59,6 +71,14 @@ public class Project {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    /**
+     * False once the project or its team is deleted, even before the purge has removed it.
+     */
+    @JsonIgnore
+    public boolean isLive() {
+        return deletedAt == null && (team == null || team.getDeletedAt() == null);
+    }
+
     public enum Status {
         PLANNING, ACTIVE, ON_HOLD, COMPLETED, CANCELLED
     }
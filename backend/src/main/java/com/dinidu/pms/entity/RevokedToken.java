@@ -0,0 +1,25 @@
+package com.dinidu.pms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Durable copy of the in-memory revocation set so revocations survive restarts.
+ * Rows are only useful until the token itself expires and are purged after that.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens", indexes = {@Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")})
+public class RevokedToken {
+    @Id
+    private Long jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,33 @@
+package com.dinidu.pms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tag dictionary entry: every distinct tag string is stored once and tasks refer to it by its small int id
+ * (task_tags). Names are normalized by {@link com.dinidu.pms.service.TagDictionary#normalize}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tags", uniqueConstraints = {@UniqueConstraint(name = "uk_tags_name", columnNames = {"name"})})
+@EntityListeners(AuditingEntityListener.class)
+public class Tag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,7 +1,14 @@
 package com.dinidu.pms.entity;
 
+import com.dinidu.pms.service.TagNamesSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,7 +24,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tasks")
+// status + updated_at serves the archiver's scan for old DONE tasks
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_status_updated", columnList = "status, updated_at"))
 @EntityListeners(AuditingEntityListener.class)
 public class Task {
     @Id
@@ -46,6 +54,23 @@ public class Task {
     @JoinColumn(name = "assignee_id")
     private User assignee;
 
+    // Ids from the tag dictionary (see TagDictionary), rendered as names; rows go with the task on delete
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_tags_tag", columnList = "tag_id"))
+    @Column(name = "tag_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @BatchSize(size = 256)
+    @JsonProperty("tags")
+    @JsonSerialize(using = TagNamesSerializer.class)
+    private Set<Integer> tagIds;
+
+    // Optimistic lock: every update bumps it, and a write based on an older version is rejected
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -53,6 +78,10 @@ public class Task {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Set only on tasks read back from tasks_archive (see ArchivedTask); null for live tasks
+    @Transient
+    private LocalDateTime archivedAt;
+
     public enum Status {
         TODO, IN_PROGRESS, REVIEW, DONE
     }
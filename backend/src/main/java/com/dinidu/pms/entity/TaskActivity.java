@@ -0,0 +1,55 @@
+package com.dinidu.pms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One append-only history record of a task: a field change (old and new value), or a create, delete or restore.
+ * Rows are written in batches by {@link com.dinidu.pms.service.TaskActivityLog} and never updated.
+ *
+ * The id is time-ordered (see {@link com.dinidu.pms.service.TaskActivityLog#firstIdAt}), so it is both the
+ * pagination cursor and a partition key: the table can be range-partitioned by month on {@code id} without
+ * widening the primary key. There are deliberately no foreign keys (MySQL does not allow them on partitioned
+ * tables), which also keeps the history of a task after the task itself is deleted.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "task_activity", indexes = {@Index(name = "idx_task_activity_task", columnList = "task_id, id")})
+public class TaskActivity {
+    @Id
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    private Long actorId;
+
+    @Column(length = 50)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Action action;
+
+    @Column(length = 30)
+    private String field;
+
+    @Column(length = 2000)
+    private String oldValue;
+
+    @Column(length = 2000)
+    private String newValue;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Action {
+        CREATED, UPDATED, MOVED, DELETED, RESTORED
+    }
+}
@@ -0,0 +1,65 @@
+package com.dinidu.pms.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * "{@code task} is blocked by {@code blockedBy}": both tasks belong to {@code projectId}, which is copied onto
+ * the row so a project's whole graph loads with one indexed query. Rows go with either task on delete;
+ * moving a task to another project drops its links. Linked tasks are never archived (see TaskArchiver).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependencies_pair", columnNames = {"task_id", "blocked_by_id"}),
+        indexes = {
+                @Index(name = "idx_task_dependencies_project", columnList = "project_id"),
+                @Index(name = "idx_task_dependencies_blocked_by", columnList = "blocked_by_id")
+        })
+@EntityListeners(AuditingEntityListener.class)
+public class TaskDependency {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Task task;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "blocked_by_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Task blockedBy;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @JsonProperty("taskId")
+    public Long getTaskId() {
+        return task != null ? task.getId() : null;
+    }
+
+    @JsonProperty("blockedById")
+    public Long getBlockedById() {
+        return blockedBy != null ? blockedBy.getId() : null;
+    }
+}
@@ -19,7 +19,9 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "teams", uniqueConstraints = {@UniqueConstraint(columnNames = {"name"})})
+@Table(name = "teams",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"name"})},
+        indexes = {@Index(name = "uk_teams_normalized_name", columnList = "normalized_name", unique = true)})
 @EntityListeners(AuditingEntityListener.class)
 public class Team {
     @Id
@@ -29,6 +31,11 @@ public class Team {
     @Column(nullable = false, unique = true)
     private String name;
 
+    // trimmed, lower-cased copy of name used for indexed case-insensitive lookups
+    @Column(name = "normalized_name")
+    @JsonIgnore
+    private String normalizedName;
+
     @Column(length = 1000)
     private String description;
 
@@ -45,10 +52,15 @@ public class Team {
     @JsonIgnore
     private Set<User> members;
 
-    @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // No cascade: deleting a team is a background purge of its projects, see CascadeDeleter
+    @OneToMany(mappedBy = "team", fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<Project> projects;
 
+    // Set when the team is deleted; it and its projects are hidden from then on and purged in the background
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,130 @@
+package com.dinidu.pms.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Response wrapper that streams the body straight through to the client while keeping a copy of
+ * only the first {@code limit} bytes for logging. Unlike ContentCachingResponseWrapper it never
+ * buffers the full body.
+ */
+final class BodyCapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final byte[] captured;
+    private int capturedCount;
+    private long totalBytes;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BodyCapturingResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.captured = new byte[limit];
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        return teeStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(teeStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        super.flushBuffer();
+    }
+
+    /**
+     * Pushes any characters still buffered in our writer to the client. Call before the request completes.
+     */
+    void flushWriter() {
+        if (writer != null) writer.flush();
+    }
+
+    byte[] getCapturedContent() {
+        return Arrays.copyOf(captured, capturedCount);
+    }
+
+    boolean isTruncated() {
+        return totalBytes > capturedCount;
+    }
+
+    private ServletOutputStream teeStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        totalBytes += len;
+        int room = captured.length - capturedCount;
+        if (room <= 0) return;
+        int n = Math.min(room, len);
+        System.arraycopy(b, off, captured, capturedCount, n);
+        capturedCount += n;
+    }
+
+    private final class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            totalBytes++;
+            if (capturedCount < captured.length) {
+                captured[capturedCount++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -1,39 +1,62 @@
 package com.dinidu.pms.logging;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
- * Ensures every request has a correlation/trace ID and exposes it via MDC and response header.
+ * Exposes the request's trace ID via MDC and response headers. Runs just inside the observation filter
+ * (HIGHEST_PRECEDENCE + 1), so the tracer has already continued the caller's W3C {@code traceparent} or
+ * started a root span (seeded from a UUID-shaped X-Correlation-Id by {@link TraceIdSeedFilter}); the IDs
+ * reported here are that span's. Without a tracer the trace ID is taken from the same headers, else generated.
  * MDC key: traceId
- * Header: X-Correlation-Id
+ * Headers: traceparent (the server span), X-Correlation-Id (echoes the caller's value when one was sent)
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 public class CorrelationIdFilter extends OncePerRequestFilter {
     public static final String HEADER_NAME = "X-Correlation-Id";
     public static final String MDC_TRACE_ID = "traceId";
 
+    private final ObjectProvider<Tracer> tracer;
+
+    public CorrelationIdFilter(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String traceId = request.getHeader(HEADER_NAME);
-        if (traceId == null || traceId.isBlank()) {
-            traceId = UUID.randomUUID().toString();
+        String correlationId = request.getHeader(HEADER_NAME);
+        Tracer current = tracer.getIfAvailable();
+        Span span = current != null ? current.currentSpan() : null;
+        String traceId;
+        if (span != null && !span.isNoop()) {
+            TraceContext context = span.context();
+            traceId = context.traceId();
+            response.setHeader(TraceParent.HEADER,
+                    new TraceParent(traceId, context.spanId(), Boolean.TRUE.equals(context.sampled())).format());
+        } else {
+            TraceParent traceParent = TraceParent.parse(request.getHeader(TraceParent.HEADER));
+            traceId = traceParent != null ? traceParent.traceId() : TraceParent.traceIdFromCorrelationId(correlationId);
+            if (traceId == null) traceId = TraceParent.newTraceId();
         }
+
         MDC.put(MDC_TRACE_ID, traceId);
-        response.setHeader(HEADER_NAME, traceId);
+        response.setHeader(HEADER_NAME, correlationId != null && !correlationId.isBlank() ? correlationId : traceId);
         try {
             filterChain.doFilter(request, response);
         } finally {
@@ -45,4 +68,4 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
     protected boolean shouldNotFilterAsyncDispatch() {
         return false;
     }
-}
\ No newline at end of file
+}
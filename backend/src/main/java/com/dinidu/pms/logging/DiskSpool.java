@@ -0,0 +1,183 @@
+package com.dinidu.pms.logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped FIFO of encoded log events, used while Logstash is unreachable.
+ * Layout: a header (magic, read position, write position) followed by records of
+ * {@code [int length][long timestampMillis][bytes]}. Positions live in the mapped header, so
+ * events spooled before a restart are replayed after it. Space freed by replay is reclaimed by
+ * compacting the unread tail to the front when the end of the file is reached.
+ *
+ * The file is held under an exclusive lock while open, so two processes can never share it, and closing an
+ * empty spool deletes its file.
+ */
+final class DiskSpool implements Closeable {
+
+    private static final int MAGIC = 0x504d5331; // "PMS1"
+    private static final int READ_POS = 4;
+    private static final int WRITE_POS = 12;
+    private static final int HEADER = 20;
+    private static final int RECORD_HEADER = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buf;
+    private final int capacity;
+
+    private int readPos;
+    private int writePos;
+
+    /**
+     * Opens the spool at {@code file}, or returns null if another process (or appender) holds it.
+     */
+    static DiskSpool tryOpen(Path file, int capacity) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            return null;
+        }
+        try {
+            return new DiskSpool(file, channel, lock, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private DiskSpool(Path file, FileChannel channel, FileLock lock, int capacity) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.capacity = capacity;
+        this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        int r = buf.getInt(READ_POS);
+        int w = buf.getInt(WRITE_POS);
+        if (buf.getInt(0) == MAGIC && r >= HEADER && r <= w && w <= capacity) {
+            readPos = r;
+            writePos = w;
+        } else {
+            buf.putInt(0, MAGIC);
+            reset();
+        }
+    }
+
+    /**
+     * @return false if the record does not fit even after compaction
+     */
+    synchronized boolean append(byte[] data, long timestampMillis) {
+        int needed = RECORD_HEADER + data.length;
+        if (writePos + needed > capacity) {
+            compact();
+            if (writePos + needed > capacity) return false;
+        }
+        buf.putInt(writePos, data.length);
+        buf.putLong(writePos + Integer.BYTES, timestampMillis);
+        buf.put(writePos + RECORD_HEADER, data);
+        writePos += needed;
+        buf.putInt(WRITE_POS, writePos);
+        return true;
+    }
+
+    /**
+     * Oldest unread record, or null if the spool is empty. Call {@link #commit()} once it has been delivered.
+     */
+    synchronized byte[] peek() {
+        if (readPos == writePos) return null;
+        byte[] data = new byte[buf.getInt(readPos)];
+        buf.get(readPos + RECORD_HEADER, data);
+        return data;
+    }
+
+    synchronized void commit() {
+        if (readPos == writePos) return;
+        readPos += RECORD_HEADER + buf.getInt(readPos);
+        if (readPos == writePos) {
+            reset();
+        } else {
+            buf.putInt(READ_POS, readPos);
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return readPos == writePos;
+    }
+
+    synchronized long pendingBytes() {
+        return writePos - readPos;
+    }
+
+    /**
+     * Timestamp of the oldest unread record, or -1 if the spool is empty.
+     */
+    synchronized long oldestTimestamp() {
+        return readPos == writePos ? -1 : buf.getLong(readPos + Integer.BYTES);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Flushes the spool, or deletes its file if nothing is left to replay, then releases the lock.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            // deleted while still locked, so no other process can have taken the file in between
+            if (readPos == writePos) {
+                Files.deleteIfExists(file);
+            } else {
+                buf.force();
+            }
+        } finally {
+            lock.release();
+            channel.close();
+        }
+    }
+
+    private void compact() {
+        if (readPos == HEADER) return;
+        int pending = writePos - readPos;
+        // destination is before source, so a forward chunked copy never overwrites unread data
+        byte[] chunk = new byte[Math.min(pending, 64 * 1024)];
+        for (int done = 0; done < pending; done += chunk.length) {
+            int n = Math.min(chunk.length, pending - done);
+            buf.get(readPos + done, chunk, 0, n);
+            buf.put(HEADER + done, chunk, 0, n);
+        }
+        readPos = HEADER;
+        writePos = HEADER + pending;
+        buf.putInt(READ_POS, readPos);
+        buf.putInt(WRITE_POS, writePos);
+    }
+
+    private void reset() {
+        readPos = HEADER;
+        writePos = HEADER;
+        buf.putInt(READ_POS, readPos);
+        buf.putInt(WRITE_POS, writePos);
+    }
+}
@@ -15,20 +15,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.Set;
 
 /**
  * Logs inbound HTTP requests and outbound responses with duration and authenticated user.
- * Uses ContentCaching wrappers to safely read request/response bodies after processing.
+ * Only when DEBUG is enabled for this logger are bodies captured: the request via a capped
+ * ContentCachingRequestWrapper, the response via a pass-through wrapper keeping the first
+ * MAX_LOG_BODY_CHARS bytes. Captured bodies are masked with {@link JsonMasker}.
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+// inside Boot's tracing filter (HIGHEST_PRECEDENCE + 1), so both log lines run within the request span
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
 public class HttpLoggingFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(HttpLoggingFilter.class);
@@ -37,7 +37,9 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
             "/actuator/health", "/error", "/favicon", "/css/", "/js/", "/images/", "/static/"
     );
 
-    private static final int MAX_LOG_BODY_CHARS = 2000;
+    // upper bound on body bytes copied for DEBUG logging, per request and per response
+    static final int MAX_LOG_BODY_CHARS = 2000;
+    private static final String TRUNCATED = "...(truncated)";
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -55,59 +57,70 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
-
         String method = request.getMethod();
         String uri = request.getRequestURI();
         String query = request.getQueryString();
-        String clientIp = getClientIp(request);
         String user = getCurrentUsername();
 
-        Instant start = Instant.now();
-        log.info("HTTP IN > {} {}{} | user={} | ip={}",
-                method,
-                uri,
-                query != null ? "?" + query : "",
-                user,
-                clientIp);
-
-        try {
-            filterChain.doFilter(cachingRequest, cachingResponse);
-        } finally {
-            Instant end = Instant.now();
-            long ms = Duration.between(start, end).toMillis();
-
-            int status = cachingResponse.getStatus();
+        long start = System.nanoTime();
+        if (log.isInfoEnabled()) {
+            log.info("HTTP IN > {} {}{} | user={} | ip={}",
+                    method,
+                    uri,
+                    query != null ? "?" + query : "",
+                    user,
+                    getClientIp(request));
+        }
 
-            String requestBody = resolveBody(cachingRequest.getContentAsByteArray(),
-                    cachingRequest.getContentType(), cachingRequest.getCharacterEncoding());
-            String maskedRequestBody = Masking.maskSensitiveJson(requestBody);
+        // Bodies are only logged at DEBUG; otherwise don't wrap or copy anything
+        if (!log.isDebugEnabled()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                log.info("HTTP OUT < {} {} | status={} | user={} | {}ms",
+                        method, uri, response.getStatus(), user, elapsedMillis(start));
+            }
+            return;
+        }
 
-            String responseBody = resolveBody(cachingResponse.getContentAsByteArray(),
-                    cachingResponse.getContentType(), cachingResponse.getCharacterEncoding());
-            String maskedResponseBody = Masking.maskSensitiveJson(responseBody);
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request, MAX_LOG_BODY_CHARS);
+        BodyCapturingResponseWrapper capturingResponse = new BodyCapturingResponseWrapper(response, MAX_LOG_BODY_CHARS);
 
-            if (maskedRequestBody != null && !maskedRequestBody.isBlank()) {
-                maskedRequestBody = trimBody(maskedRequestBody);
-                log.debug("HTTP IN BODY > {} {}{} | body={}",
-                        method, uri, query != null ? "?" + query : "", maskedRequestBody);
+        try {
+            filterChain.doFilter(cachingRequest, capturingResponse);
+        } finally {
+            capturingResponse.flushWriter();
+            long ms = elapsedMillis(start);
+            int status = capturingResponse.getStatus();
+
+            byte[] requestContent = cachingRequest.getContentAsByteArray();
+            String requestBody = resolveBody(requestContent, cachingRequest.getContentType(), cachingRequest.getCharacterEncoding());
+            if (requestBody != null && !requestBody.isBlank()) {
+                boolean truncated = requestContent.length >= MAX_LOG_BODY_CHARS
+                        && cachingRequest.getContentLengthLong() != requestContent.length;
+                log.debug("HTTP IN BODY > {} {}{} | body={}{}",
+                        method, uri, query != null ? "?" + query : "", JsonMasker.mask(requestBody),
+                        truncated ? TRUNCATED : "");
             }
 
-            if (maskedResponseBody != null && !maskedResponseBody.isBlank()) {
-                maskedResponseBody = trimBody(maskedResponseBody);
-                log.debug("HTTP OUT BODY < {} {} | status={} | body={}",
-                        method, uri, status, maskedResponseBody);
+            String responseBody = resolveBody(capturingResponse.getCapturedContent(),
+                    capturingResponse.getContentType(), capturingResponse.getCharacterEncoding());
+            if (responseBody != null && !responseBody.isBlank()) {
+                log.debug("HTTP OUT BODY < {} {} | status={} | body={}{}",
+                        method, uri, status, JsonMasker.mask(responseBody),
+                        capturingResponse.isTruncated() ? TRUNCATED : "");
             }
 
             log.info("HTTP OUT < {} {} | status={} | user={} | {}ms",
                     method, uri, status, user, ms);
-
-            cachingResponse.copyBodyToResponse();
         }
     }
 
-    private static String getClientIp(HttpServletRequest request) {
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    static String getClientIp(HttpServletRequest request) {
         String h = request.getHeader("X-Forwarded-For");
         if (h != null && !h.isBlank()) {
             // first IP in the list is the original client
@@ -150,40 +163,4 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
         Charset cs = Charset.forName(encoding != null ? encoding : "UTF-8");
         return new String(content, cs);
     }
-
-    private static String trimBody(String s) {
-        if (s == null) return null;
-        if (s.length() > MAX_LOG_BODY_CHARS) {
-            return s.substring(0, MAX_LOG_BODY_CHARS) + "...(truncated)";
-        }
-        return s;
-    }
-
-    /**
-     * Simple masking helper for sensitive JSON keys commonly found in auth flows.
-     */
-    static class Masking {
-        private static final Set<String> SENSITIVE_KEYS = Set.of(
-                "password", "pwd", "secret", "token", "accessToken", "refreshToken", "authorization"
-        );
-
-        static String maskSensitiveJson(String body) {
-            if (body == null) return null;
-            String trimmed = body.trim();
-            // very light-weight masking: replace values for known keys in naive JSON
-            // patterns like: "password":"value" or 'password':'value'
-            String masked = trimmed;
-            for (String key : SENSITIVE_KEYS) {
-                // "key":"..."; allow whitespace and both quote types
-                String regex = "(?i)(\\\"" + key + "\\\"\\s*:\\s*\\\")(.*?)(\\\")";
-                masked = masked.replaceAll(regex, "$1***$3");
-                // 'key':'...'
-                String regexSingle = "(?i)(\\'" + key + "\\'\\s*:\\s*\\')(.*?)(\\')";
-                masked = masked.replaceAll(regexSingle, "$1***$3");
-            }
-            // Also mask Bearer tokens in raw strings
-            masked = masked.replaceAll("(?i)Bearer\\s+[A-Za-z0-9\\-_.=]+", "Bearer ***");
-            return masked;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.dinidu.pms.logging;
+
+import com.dinidu.pms.entity.User;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom Java Flight Recorder events for the application's hot paths, under the "PMS" category.
+ * Usage keeps the disabled path to a begin() call and one branch, which the JIT reduces to nothing:
+ * <pre>
+ * var event = new JfrEvents.RbacDecision();
+ * event.begin();
+ * boolean allowed = ...;
+ * if (event.shouldCommit()) {
+ *     event.check = "canEditTask";
+ *     event.allowed = allowed;
+ *     JfrEvents.commit(event);
+ * }
+ * </pre>
+ * They are enabled in any recording (start one with -XX:StartFlightRecording, jcmd, or /actuator/jfr).
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    @Category("PMS")
+    @StackTrace(false)
+    public abstract static class PmsEvent extends Event {
+        @Label("Trace Id")
+        public String traceId;
+
+        @Label("User Id")
+        public long userId;
+    }
+
+    @Name("com.dinidu.pms.JwtVerify")
+    @Label("JWT Parse/Verify")
+    public static final class JwtVerify extends PmsEvent {
+        @Label("Token Type")
+        public String tokenType;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Subject")
+        public String subject;
+    }
+
+    @Name("com.dinidu.pms.PrincipalLoad")
+    @Label("Principal Load")
+    @Description("UserDetails lookup during authentication")
+    public static final class PrincipalLoad extends PmsEvent {
+        @Label("Username")
+        public String username;
+
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("com.dinidu.pms.RbacDecision")
+    @Label("RBAC Decision")
+    public static final class RbacDecision extends PmsEvent {
+        @Label("Check")
+        public String check;
+
+        @Label("Allowed")
+        public boolean allowed;
+    }
+
+    @Name("com.dinidu.pms.RepositoryQuery")
+    @Label("Repository Query")
+    public static final class RepositoryQuery extends PmsEvent {
+        @Label("Repository")
+        public String repository;
+
+        @Label("Method")
+        public String method;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("com.dinidu.pms.ResponseSerialization")
+    @Label("Response Serialization")
+    @Description("Jackson rendering of a response body, including lazy loads it triggers")
+    public static final class ResponseSerialization extends PmsEvent {
+        @Label("Type")
+        public String type;
+
+        @Label("Rows")
+        public int rows;
+    }
+
+    /**
+     * Fills traceId and userId from the current request and commits. Call only after shouldCommit().
+     */
+    public static void commit(PmsEvent event) {
+        event.traceId = MDC.get(CorrelationIdFilter.MDC_TRACE_ID);
+        if (event.userId == 0) event.userId = currentUserId();
+        event.commit();
+    }
+
+    /**
+     * Row count of a repository result or response body: collection/page size, 0/1 for Optional and single values.
+     */
+    public static int rowsOf(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Collection<?> c) return c.size();
+        if (value instanceof Slice<?> s) return s.getNumberOfElements();
+        if (value instanceof Map<?, ?> m) return m.size();
+        if (value instanceof Optional<?> o) return o.isPresent() ? 1 : 0;
+        if (value.getClass().isArray()) return Array.getLength(value);
+        return 1;
+    }
+
+    private static long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user && user.getId() != null) {
+            return user.getId();
+        }
+        return 0;
+    }
+}
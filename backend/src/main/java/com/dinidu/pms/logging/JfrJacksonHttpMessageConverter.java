@@ -0,0 +1,40 @@
+package com.dinidu.pms.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The application's JSON converter (replaces Boot's default one, same ObjectMapper), emitting a
+ * {@link JfrEvents.ResponseSerialization} event per response body so Jackson time - and the lazy
+ * loads it triggers - shows up separately from the query that produced the data.
+ */
+@Component
+public class JfrJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public JfrJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        JfrEvents.ResponseSerialization event = new JfrEvents.ResponseSerialization();
+        event.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            if (event.shouldCommit()) {
+                event.type = object.getClass().getSimpleName();
+                event.rows = JfrEvents.rowsOf(object);
+                JfrEvents.commit(event);
+            }
+        }
+    }
+}
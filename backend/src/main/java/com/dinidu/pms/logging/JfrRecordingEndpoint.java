@@ -0,0 +1,122 @@
+package com.dinidu.pms.logging;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controls one on-demand Flight Recorder recording (restricted to ADMIN in SecurityConfig):
+ * <pre>
+ * GET    /actuator/jfr                 status
+ * POST   /actuator/jfr                 start, body {"settings":"profile","maxAgeSeconds":600} (both optional)
+ * DELETE /actuator/jfr                 stop; the data is kept for download
+ * GET    /actuator/jfr/recording.jfr   download (a snapshot if still running)
+ * </pre>
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private Recording recording;
+    private Path lastDump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+        } else {
+            status.put("state", recording.getState().name());
+            status.put("name", recording.getName());
+            status.put("startTime", recording.getStartTime());
+            status.put("stopTime", recording.getStopTime());
+            status.put("sizeBytes", recording.getSize());
+        }
+        status.put("downloadAvailable", recording != null || lastDump != null);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings,
+                                                                       @Nullable Integer maxAgeSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "profile");
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings: " + settings),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        closeRecording();
+        recording = new Recording(configuration);
+        recording.setName("pms-on-demand");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : 600));
+        recording.start();
+        log.info("JFR recording started settings={} maxAge={}s", configuration.getName(), recording.getMaxAge().toSeconds());
+        return new WebEndpointResponse<>(status());
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            replaceDump(dump(recording));
+            log.info("JFR recording stopped file={}", lastDump);
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector String file) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            replaceDump(dump(recording));
+        }
+        if (lastDump == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump));
+    }
+
+    private static Path dump(Recording r) throws IOException {
+        Path file = Files.createTempFile("pms-", ".jfr");
+        r.dump(file);
+        return file;
+    }
+
+    private void replaceDump(Path file) throws IOException {
+        if (lastDump != null) Files.deleteIfExists(lastDump);
+        lastDump = file;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
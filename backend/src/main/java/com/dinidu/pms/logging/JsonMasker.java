@@ -0,0 +1,227 @@
+package com.dinidu.pms.logging;
+
+/**
+ * Single-pass masker for sensitive values in JSON-like text.
+ * Masks the values of known keys ("password":"x" or 'password':'x', key case-insensitive, escapes in the key
+ * decoded first) and the credential after any "Bearer " prefix. A string value keeps its quotes; any other value
+ * (number, boolean, object, array) becomes {@code "***"} as a whole, and null is left as is. Input cut off inside
+ * a value is masked up to its end. Scans the input once, matches keys against a precompiled table without
+ * allocating (unless the key contains escapes), and returns the input unchanged when nothing was masked.
+ */
+final class JsonMasker {
+
+    static final String MASK = "***";
+
+    // lower-case; matched case-insensitively
+    private static final String[] SENSITIVE_KEYS = {
+            "password", "pwd", "secret", "token", "accesstoken", "refreshtoken", "authorization"
+    };
+    private static final int MIN_KEY_LENGTH;
+    private static final int MAX_KEY_LENGTH;
+
+    static {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (String key : SENSITIVE_KEYS) {
+            min = Math.min(min, key.length());
+            max = Math.max(max, key.length());
+        }
+        MIN_KEY_LENGTH = min;
+        MAX_KEY_LENGTH = max;
+    }
+
+    private static final String BEARER = "bearer";
+
+    private JsonMasker() {
+    }
+
+    static String mask(String in) {
+        if (in == null) return null;
+        return new Pass(in).run();
+    }
+
+    static boolean isSensitiveKey(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len < MIN_KEY_LENGTH || len > MAX_KEY_LENGTH) return false;
+        for (String key : SENSITIVE_KEYS) {
+            if (key.length() == len && regionEqualsIgnoreCase(s, from, key)) return true;
+        }
+        return false;
+    }
+
+    private static boolean regionEqualsIgnoreCase(CharSequence s, int from, String lowerKey) {
+        for (int k = 0; k < lowerKey.length(); k++) {
+            char c = s.charAt(from + k);
+            if (c >= 'A' && c <= 'Z') c = (char) (c + ('a' - 'A'));
+            if (c != lowerKey.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static final class Pass {
+        private final String in;
+        private final int n;
+        // allocated on first mask only
+        private StringBuilder out;
+        private int copied;
+
+        Pass(String in) {
+            this.in = in;
+            this.n = in.length();
+        }
+
+        String run() {
+            int i = 0;
+            while (i < n) {
+                char c = in.charAt(i);
+                if (c == '"' || c == '\'') {
+                    i = string(i, c);
+                } else if ((c == 'B' || c == 'b') && bearerAt(i)) {
+                    i = bearer(i);
+                } else {
+                    i++;
+                }
+            }
+            if (out == null) return in;
+            out.append(in, copied, n);
+            return out.toString();
+        }
+
+        // Handles a quoted string starting at `open`; returns the index just after it (or after its value).
+        private int string(int open, char quote) {
+            int close = endOfString(open, quote);
+            int afterKey = skipWhitespace(close + 1);
+            if (close < n && afterKey < n && in.charAt(afterKey) == ':' && sensitiveKey(open + 1, close)) {
+                int value = skipWhitespace(afterKey + 1);
+                if (value < n && (in.charAt(value) == '"' || in.charAt(value) == '\'')) {
+                    int valueClose = endOfString(value, in.charAt(value));
+                    replace(value + 1, valueClose, MASK);
+                    return Math.min(valueClose + 1, n);
+                }
+                int end = endOfValue(value);
+                if (end > value && !in.startsWith("null", value)) {
+                    replace(value, end, "\"" + MASK + "\"");
+                    return end;
+                }
+                return afterKey + 1;
+            }
+            // credentials can also appear inside ordinary string values
+            for (int i = open + 1; i < close; i++) {
+                char c = in.charAt(i);
+                if ((c == 'B' || c == 'b') && bearerAt(i)) {
+                    i = bearer(i) - 1;
+                }
+            }
+            return Math.min(close + 1, n);
+        }
+
+        private boolean bearerAt(int i) {
+            if (i + BEARER.length() >= n || !regionEqualsIgnoreCase(in, i, BEARER)) return false;
+            if (i > 0 && Character.isLetterOrDigit(in.charAt(i - 1))) return false;
+            return Character.isWhitespace(in.charAt(i + BEARER.length()));
+        }
+
+        // Masks the credential after "Bearer "; returns the index after it.
+        private int bearer(int i) {
+            int start = skipWhitespace(i + BEARER.length());
+            int end = start;
+            while (end < n && isTokenChar(in.charAt(end))) end++;
+            if (end == start) return start;
+            replace(start, end, MASK);
+            return end;
+        }
+
+        private void replace(int from, int to, String mask) {
+            if (out == null) out = new StringBuilder(n);
+            out.append(in, copied, from).append(mask);
+            copied = to;
+        }
+
+        private boolean sensitiveKey(int from, int to) {
+            // escapes only make a key shorter
+            if (to - from < MIN_KEY_LENGTH) return false;
+            boolean escaped = false;
+            for (int i = from; i < to && !escaped; i++) escaped = in.charAt(i) == '\\';
+            if (!escaped) return isSensitiveKey(in, from, to);
+            // escaped key, e.g. "pass\u0077ord": compare what it decodes to
+            StringBuilder key = new StringBuilder(MAX_KEY_LENGTH);
+            for (int i = from; i < to; i++) {
+                char c = in.charAt(i);
+                if (c == '\\') {
+                    if (i + 1 >= to) return false;
+                    char e = in.charAt(++i);
+                    if (e == 'u') {
+                        if (i + 4 >= to) return false;
+                        int code = 0;
+                        for (int k = 1; k <= 4; k++) {
+                            int digit = Character.digit(in.charAt(i + k), 16);
+                            if (digit < 0) return false;
+                            code = code * 16 + digit;
+                        }
+                        c = (char) code;
+                        i += 4;
+                    } else {
+                        // \" \\ \/ and the control escapes; none of them occur in a sensitive key
+                        c = e;
+                    }
+                }
+                if (key.length() == MAX_KEY_LENGTH) return false;
+                key.append(c);
+            }
+            return isSensitiveKey(key, 0, key.length());
+        }
+
+        // End of the non-string value starting at `start`: a scalar, or a whole object/array (to the end of the
+        // input if it is cut off)
+        private int endOfValue(int start) {
+            if (start >= n) return n;
+            char c = in.charAt(start);
+            if (c != '{' && c != '[') {
+                int i = start;
+                while (i < n && ",}]".indexOf(in.charAt(i)) < 0 && !Character.isWhitespace(in.charAt(i))) i++;
+                return i;
+            }
+            int depth = 0;
+            int i = start;
+            while (i < n) {
+                char d = in.charAt(i);
+                if (d == '"' || d == '\'') {
+                    i = endOfString(i, d) + 1;
+                    continue;
+                }
+                if (d == '{' || d == '[') {
+                    depth++;
+                } else if ((d == '}' || d == ']') && --depth == 0) {
+                    return i + 1;
+                }
+                i++;
+            }
+            return n;
+        }
+
+        private int endOfString(int open, char quote) {
+            int i = open + 1;
+            while (i < n) {
+                char c = in.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                } else if (c == quote) {
+                    return i;
+                } else {
+                    i++;
+                }
+            }
+            return n;
+        }
+
+        private int skipWhitespace(int i) {
+            while (i < n && Character.isWhitespace(in.charAt(i))) i++;
+            return i;
+        }
+
+        private static boolean isTokenChar(char c) {
+            return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '=';
+        }
+    }
+}
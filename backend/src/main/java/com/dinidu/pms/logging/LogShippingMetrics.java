@@ -0,0 +1,69 @@
+package com.dinidu.pms.logging;
+
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes buffer fill, drops, spool usage and replay lag for every running {@link SpoolingLogstashAppender}.
+ * Appenders are looked up by name on each scrape, so the meters survive a logback reconfiguration.
+ */
+@Component
+public class LogShippingMetrics implements MeterBinder {
+
+    private static final List<Level> DROPPABLE = List.of(Level.TRACE, Level.DEBUG, Level.INFO);
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : SpoolingLogstashAppender.active().keySet()) {
+            gauge(registry, "logging.shipper.buffer.fill", name, SpoolingLogstashAppender::bufferFill,
+                    "Fraction of the in-memory ring buffer in use");
+            gauge(registry, "logging.shipper.spool.bytes", name, SpoolingLogstashAppender::spooledBytes,
+                    "Bytes of encoded events waiting in the disk spool");
+            gauge(registry, "logging.shipper.spool.fill", name, SpoolingLogstashAppender::spoolFill,
+                    "Fraction of the disk spool in use");
+            gauge(registry, "logging.shipper.replay.lag.seconds", name, a -> a.replayLagMillis() / 1000.0,
+                    "Age of the oldest event not yet delivered from the spool");
+            gauge(registry, "logging.shipper.connected", name, a -> a.isConnected() ? 1 : 0,
+                    "1 while connected to Logstash");
+
+            for (Level level : DROPPABLE) {
+                counter(registry, "logging.shipper.dropped", name, level.levelStr.toLowerCase(Locale.ROOT),
+                        a -> a.dropped(level), "Events dropped because the ring buffer was full");
+            }
+            counter(registry, "logging.shipper.spool.overflow", name, null, SpoolingLogstashAppender::spoolOverflow,
+                    "Events lost because the disk spool was full");
+            counter(registry, "logging.shipper.replayed", name, null, SpoolingLogstashAppender::replayed,
+                    "Events delivered from the disk spool after a reconnect");
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, String metric, String appender,
+                              ToDoubleFunction<SpoolingLogstashAppender> f, String description) {
+        Gauge.builder(metric, () -> value(appender, f))
+                .tag("appender", appender)
+                .description(description)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String metric, String appender, String level,
+                                ToDoubleFunction<SpoolingLogstashAppender> f, String description) {
+        FunctionCounter.Builder<String> builder = FunctionCounter.builder(metric, appender, a -> value(a, f))
+                .tag("appender", appender)
+                .description(description);
+        if (level != null) builder.tag("level", level);
+        builder.register(registry);
+    }
+
+    private static double value(String appender, ToDoubleFunction<SpoolingLogstashAppender> f) {
+        SpoolingLogstashAppender a = SpoolingLogstashAppender.active().get(appender);
+        return a == null ? 0 : f.applyAsDouble(a);
+    }
+}
@@ -1,90 +1,92 @@
 package com.dinidu.pms.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Logs method entry/exit and exceptions for all Controllers.
  * Pointcuts target classes in package com.dinidu.pms.controller..*
  * and any bean annotated with @RestController.
+ * By default only argument/return types and sizes are logged; full (masked, lazy-safe) rendering
+ * happens when DEBUG is on for the controller's logger or for a sampled fraction of calls
+ * (logging.aspect.sample-rate). Time spent in the aspect itself is recorded as logging.aspect.overhead.
  */
 @Aspect
 @Component
 public class LoggingAspect {
 
-    private static final Set<String> SENSITIVE_KEYS = new HashSet<>(Arrays.asList(
-            "password", "pwd", "secret", "token", "accessToken", "refreshToken", "authorization"
-    ));
+    private final double sampleRate;
+    private final Timer overhead;
+
+    public LoggingAspect(MeterRegistry meterRegistry,
+                         @Value("${logging.aspect.sample-rate:0.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+        this.overhead = Timer.builder("logging.aspect.overhead")
+                .description("Time spent rendering and logging in LoggingAspect, excluding the controller call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Around("within(com.dinidu.pms.controller..*) || @within(org.springframework.web.bind.annotation.RestController)")
     public Object logAroundControllers(ProceedingJoinPoint pjp) throws Throwable {
+        long enterStart = System.nanoTime();
         Signature sig = pjp.getSignature();
-        Class<?> type = sig.getDeclaringType();
-        Logger logger = LoggerFactory.getLogger(type);
-
+        Logger logger = LoggerFactory.getLogger(sig.getDeclaringType());
         String method = sig.getName();
-        String args = mask(toArgsString(pjp.getArgs()));
 
-        long start = System.currentTimeMillis();
-        logger.info("ENTER {}({})", method, args);
+        boolean info = logger.isInfoEnabled();
+        boolean full = logger.isDebugEnabled() || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        if (info) {
+            logger.info("ENTER {}({})", method, renderArgs(pjp.getArgs(), full));
+        }
+
+        long start = System.nanoTime();
+        long spent = start - enterStart;
         try {
             Object result = pjp.proceed();
-            long took = System.currentTimeMillis() - start;
-            String ret = mask(safeToString(result));
-            logger.info("EXIT  {}() took={}ms result={}", method, took, ret);
+            long end = System.nanoTime();
+            if (info) {
+                logger.info("EXIT  {}() took={}ms result={}", method, (end - start) / 1_000_000, render(result, full));
+            }
+            spent += System.nanoTime() - end;
             return result;
         } catch (Throwable ex) {
-            long took = System.currentTimeMillis() - start;
-            logger.error("THROW {}() took={}ms ex={} msg={}", method, took, ex.getClass().getSimpleName(), ex.getMessage(), ex);
+            long end = System.nanoTime();
+            logger.error("THROW {}() took={}ms ex={} msg={}", method, (end - start) / 1_000_000,
+                    ex.getClass().getSimpleName(), ex.getMessage(), ex);
+            spent += System.nanoTime() - end;
             throw ex;
+        } finally {
+            overhead.record(spent, TimeUnit.NANOSECONDS);
         }
     }
 
-    private static String toArgsString(Object[] args) {
+    private static String renderArgs(Object[] args, boolean full) {
         if (args == null || args.length == 0) return "";
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < args.length; i++) {
             if (i > 0) sb.append(", ");
-            sb.append(safeToString(args[i]));
+            sb.append(render(args[i], full));
         }
         return sb.toString();
     }
 
-    private static String safeToString(Object obj) {
-        if (obj == null) return "null";
+    private static String render(Object value, boolean full) {
         try {
-            return String.valueOf(obj);
-        } catch (Exception e) {
-            return obj.getClass().getSimpleName();
-        }
-    }
-
-    /**
-     * Naive masking for common sensitive keys within JSON-like strings.
-     */
-    private static String mask(String text) {
-        if (text == null || text.isBlank()) return text;
-        String masked = text;
-
-        for (String key : SENSITIVE_KEYS) {
-            // "key":"value"
-            String q = "(?i)(\\\"" + key + "\\\"\\s*:\\s*\\\")(.*?)(\\\")";
-            masked = masked.replaceAll(q, "$1***$3");
-            // 'key':'value'
-            String s = "(?i)(\\'" + key + "\\'\\s*:\\s*\\')(.*?)(\\')";
-            masked = masked.replaceAll(s, "$1***$3");
+            return full ? JsonMasker.mask(SafeRenderer.render(value)) : SafeRenderer.describe(value);
+        } catch (RuntimeException e) {
+            return value == null ? "null" : value.getClass().getSimpleName();
         }
-        // Mask Bearer tokens
-        masked = masked.replaceAll("(?i)Bearer\\s+[A-Za-z0-9\\-_.=]+", "Bearer ***");
-        return masked;
     }
-}
\ No newline at end of file
+}
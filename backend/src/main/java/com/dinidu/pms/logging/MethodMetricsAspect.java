@@ -0,0 +1,139 @@
+package com.dinidu.pms.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentile-histogram timers for the domain services and for every custom {@code @Query} repository method.
+ * Meters: {@code pms.service.method} and {@code pms.repository.query}, tagged with class, method and outcome
+ * (success/error). Timers are resolved once per method and cached.
+ * Repository calls are also traced as spans, emitted as {@link JfrEvents.RepositoryQuery} JFR events and
+ * recorded in {@link SlowestRecorder}.
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    static final String SERVICE_TIMER = "pms.service.method";
+    static final String QUERY_TIMER = "pms.repository.query";
+
+    private final MeterRegistry meterRegistry;
+    private final SlowestRecorder slowestRecorder;
+    private final Tracer tracer;
+    private final Map<Method, Timer[]> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer[]> queryTimers = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry meterRegistry, SlowestRecorder slowestRecorder,
+                               ObjectProvider<Tracer> tracer) {
+        this.meterRegistry = meterRegistry;
+        this.slowestRecorder = slowestRecorder;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("execution(public * com.dinidu.pms.service.TaskService.*(..))"
+            + " || execution(public * com.dinidu.pms.service.ProjectService.*(..))"
+            + " || execution(public * com.dinidu.pms.service.TeamService.*(..))"
+            + " || execution(public * com.dinidu.pms.service.UserService.*(..))")
+    public Object timeService(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, serviceTimers, SERVICE_TIMER, "class");
+    }
+
+    @Around("execution(@org.springframework.data.jpa.repository.Query * com.dinidu.pms.repo..*(..))")
+    public Object timeQuery(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, queryTimers, QUERY_TIMER, "repository");
+    }
+
+    /**
+     * Every repository call, including inherited ones such as findById: a child span of the request trace,
+     * a JFR event with its row count and a sample in the per-method histogram behind /actuator/slowest.
+     */
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object recordQueryEvent(ProceedingJoinPoint pjp) throws Throwable {
+        JfrEvents.RepositoryQuery event = new JfrEvents.RepositoryQuery();
+        event.begin();
+        long start = System.nanoTime();
+        String repository = repositoryName(pjp.getTarget());
+        String name = repository + "." + pjp.getSignature().getName();
+        // only inside a request trace; background jobs (token purge) would otherwise start root traces
+        Span span = tracer.currentSpan() != null
+                ? tracer.nextSpan().name(name).tag("db.system", "mysql").start()
+                : null;
+        Object result = null;
+        boolean failed = true;
+        try (Tracer.SpanInScope ignored = span != null ? tracer.withSpan(span) : null) {
+            result = pjp.proceed();
+            failed = false;
+            return result;
+        } catch (Throwable ex) {
+            if (span != null) span.error(ex);
+            throw ex;
+        } finally {
+            if (span != null) span.end();
+            slowestRecorder.recordQuery(name, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = pjp.getSignature().getName();
+                event.rows = JfrEvents.rowsOf(result);
+                event.failed = failed;
+                JfrEvents.commit(event);
+            }
+        }
+    }
+
+    private Object time(ProceedingJoinPoint pjp, Map<Method, Timer[]> cache, String name, String typeTag) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Timer[] timers = cache.computeIfAbsent(method, m -> new Timer[]{
+                timer(name, typeTag, m, "success"),
+                timer(name, typeTag, m, "error")
+        });
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Object result = pjp.proceed();
+            ok = true;
+            return result;
+        } finally {
+            (ok ? timers[0] : timers[1]).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Spring Data repositories are proxies; report the application interface, not the proxy class
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> i : type.getInterfaces()) {
+                if (i.getName().startsWith("com.dinidu.pms.")) return i.getSimpleName();
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    private static String repositoryName(Object target) {
+        return REPOSITORY_NAMES.get(target.getClass());
+    }
+
+    private Timer timer(String name, String typeTag, Method method, String outcome) {
+        return Timer.builder(name)
+                .tag(typeTag, method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
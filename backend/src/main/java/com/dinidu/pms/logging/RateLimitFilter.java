@@ -0,0 +1,157 @@
+package com.dinidu.pms.logging;
+
+import com.dinidu.pms.config.RateLimitProperties;
+import com.dinidu.pms.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting per authenticated user and per client IP, with per-route limits
+ * from {@link RateLimitProperties}. Runs right after the Spring Security chain so the principal is known.
+ * Buckets are lock-free (one CAS per request) and evicted once they have refilled completely.
+ * Rejected requests get 429 with a Retry-After header and are counted in {@code pms.ratelimit.rejected}
+ * (by scope and rule pattern); the per-request log line is DEBUG so a flood does not flood the logs too.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, properties.getEvictionIntervalSeconds());
+        evictor.scheduleWithFixedDelay(this::evictIdleBuckets, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int ruleIndex = resolveRule(request);
+        if (ruleIndex < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimitProperties.Rule rule = properties.getRules().get(ruleIndex);
+        long now = System.nanoTime();
+
+        String user = getAuthenticatedUsername();
+        if (user != null) {
+            long wait = bucket(ruleIndex + ":u:" + user, rule.getUserCapacity(), rule.getUserRefillPerSecond(), now)
+                    .tryConsume(now);
+            if (wait > 0) {
+                reject(response, wait, rule, "user", user, request);
+                return;
+            }
+        }
+
+        String ip = HttpLoggingFilter.getClientIp(request);
+        long wait = bucket(ruleIndex + ":ip:" + ip, rule.getIpCapacity(), rule.getIpRefillPerSecond(), now)
+                .tryConsume(now);
+        if (wait > 0) {
+            reject(response, wait, rule, "ip", ip, request);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    private int resolveRule(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if (!rule.getMethods().isEmpty() && !rule.getMethods().contains(method.toUpperCase(Locale.ROOT))) {
+                continue;
+            }
+            if (pathMatcher.match(rule.getPattern(), uri)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private TokenBucket bucket(String key, long capacity, double refillPerSecond, long now) {
+        TokenBucket existing = buckets.get(key);
+        if (existing != null) return existing;
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos, RateLimitProperties.Rule rule, String scope,
+                        String key, HttpServletRequest request) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        Counter.builder("pms.ratelimit.rejected")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tags("scope", scope, "rule", rule.getPattern())
+                .register(meterRegistry)
+                .increment();
+        log.debug("Rate limit exceeded ({}={}) for {} {}", scope, key, request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getWriter().write("Too many requests");
+    }
+
+    private void evictIdleBuckets() {
+        try {
+            long now = System.nanoTime();
+            buckets.entrySet().removeIf(e -> e.getValue().isFull(now));
+        } catch (RuntimeException ex) {
+            log.warn("Rate limit bucket eviction failed", ex);
+        }
+    }
+
+    private static String getAuthenticatedUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) return null;
+        Object principal = auth.getPrincipal();
+        return principal instanceof UserDetails ud ? ud.getUsername() : null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.dinidu.pms.logging;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Renders controller arguments and return values for logging without side effects.
+ * Never calls toString() on application objects and never initializes Hibernate proxies or
+ * lazy collections; those are rendered as {@code <lazy Type#id>} / {@code <lazy collection>}.
+ */
+final class SafeRenderer {
+
+    private static final String APP_PACKAGE = "com.dinidu.pms.";
+    private static final int MAX_DEPTH = 2;
+    private static final int MAX_ELEMENTS = 3;
+    private static final int MAX_STRING = 200;
+    private static final int MAX_OUTPUT = 2000;
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()) || f.isSynthetic()) continue;
+                    try {
+                        f.setAccessible(true);
+                        fields.add(f);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private SafeRenderer() {
+    }
+
+    /**
+     * Type and size only, e.g. {@code ArrayList[size=120]}, {@code String[len=8]}, {@code 42}.
+     */
+    static String describe(Object value) {
+        if (value == null) return "null";
+        if (value instanceof ResponseEntity<?> re) {
+            return "ResponseEntity[status=" + re.getStatusCode().value() + ", body=" + describe(re.getBody()) + "]";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence cs) return "String[len=" + cs.length() + "]";
+        if (value instanceof HibernateProxy proxy && !Hibernate.isInitialized(proxy)) {
+            return "<lazy " + proxy.getHibernateLazyInitializer().getPersistentClass().getSimpleName() + ">";
+        }
+        if (value instanceof Collection<?> c) {
+            return Hibernate.isInitialized(c)
+                    ? value.getClass().getSimpleName() + "[size=" + c.size() + "]"
+                    : "<lazy collection>";
+        }
+        if (value instanceof Map<?, ?> m) return value.getClass().getSimpleName() + "[size=" + m.size() + "]";
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    /**
+     * JSON-like rendering, bounded in depth, element count and length, suitable for {@link JsonMasker}.
+     */
+    static String render(Object value) {
+        StringBuilder sb = new StringBuilder(128);
+        render(value, sb, 0);
+        if (sb.length() > MAX_OUTPUT) {
+            sb.setLength(MAX_OUTPUT);
+            sb.append("...(truncated)");
+        }
+        return sb.toString();
+    }
+
+    private static void render(Object value, StringBuilder sb, int depth) {
+        if (sb.length() > MAX_OUTPUT) return;
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof CharSequence cs) {
+            appendString(sb, cs);
+        } else if (value instanceof Enum<?> || value instanceof TemporalAccessor || value instanceof UUID) {
+            appendString(sb, value.toString());
+        } else if (value instanceof ResponseEntity<?> re) {
+            sb.append("{\"status\":").append(re.getStatusCode().value()).append(",\"body\":");
+            render(re.getBody(), sb, depth);
+            sb.append('}');
+        } else if (value instanceof HibernateProxy proxy) {
+            var init = proxy.getHibernateLazyInitializer();
+            if (init.isUninitialized()) {
+                sb.append("\"<lazy ").append(init.getPersistentClass().getSimpleName())
+                        .append('#').append(init.getInternalIdentifier()).append(">\"");
+            } else {
+                render(init.getImplementation(), sb, depth);
+            }
+        } else if (value instanceof Collection<?> c) {
+            if (!Hibernate.isInitialized(c)) {
+                sb.append("\"<lazy collection>\"");
+                return;
+            }
+            renderElements(c.iterator(), c.size(), sb, depth);
+        } else if (value instanceof Map<?, ?> m) {
+            sb.append("{\"size\":").append(m.size()).append('}');
+        } else if (value.getClass().getName().startsWith(APP_PACKAGE)) {
+            renderFields(value, sb, depth);
+        } else {
+            appendString(sb, value.getClass().getSimpleName());
+        }
+    }
+
+    private static void renderElements(Iterator<?> it, int size, StringBuilder sb, int depth) {
+        sb.append('[');
+        int i = 0;
+        while (it.hasNext() && i < MAX_ELEMENTS) {
+            if (i++ > 0) sb.append(',');
+            render(it.next(), sb, depth + 1);
+        }
+        if (size > MAX_ELEMENTS) sb.append(",\"...+").append(size - MAX_ELEMENTS).append(" more\"");
+        sb.append(']');
+    }
+
+    private static void renderFields(Object value, StringBuilder sb, int depth) {
+        if (depth >= MAX_DEPTH) {
+            appendString(sb, value.getClass().getSimpleName());
+            return;
+        }
+        sb.append('{');
+        boolean first = true;
+        for (Field f : FIELDS.get(value.getClass())) {
+            Object fieldValue;
+            try {
+                // direct field read: no getters, so no lazy-loading side effects
+                fieldValue = f.get(value);
+            } catch (IllegalAccessException e) {
+                continue;
+            }
+            if (!first) sb.append(',');
+            first = false;
+            sb.append('"').append(f.getName()).append("\":");
+            render(fieldValue, sb, depth + 1);
+        }
+        sb.append('}');
+    }
+
+    private static void appendString(StringBuilder sb, CharSequence cs) {
+        sb.append('"');
+        int len = Math.min(cs.length(), MAX_STRING);
+        for (int i = 0; i < len; i++) {
+            char c = cs.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c < 0x20 ? ' ' : c);
+        }
+        if (cs.length() > MAX_STRING) sb.append("...");
+        sb.append('"');
+    }
+}
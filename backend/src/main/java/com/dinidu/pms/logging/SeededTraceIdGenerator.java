@@ -0,0 +1,37 @@
+package com.dinidu.pms.logging;
+
+import io.opentelemetry.sdk.trace.IdGenerator;
+
+/**
+ * Trace IDs for new root spans. A request whose caller sent a UUID-shaped X-Correlation-Id but no
+ * {@code traceparent} gets that ID as the trace ID of its server span: {@link TraceIdSeedFilter} seeds it
+ * just before the observation filter starts the span, and the first root span on the thread takes it.
+ * The span is still a genuine root, with no made-up parent. Every other ID is random.
+ */
+public final class SeededTraceIdGenerator implements IdGenerator {
+
+    private static final ThreadLocal<String> SEED = new ThreadLocal<>();
+    private static final IdGenerator RANDOM = IdGenerator.random();
+
+    static void seed(String traceId) {
+        SEED.set(traceId);
+    }
+
+    static void clear() {
+        SEED.remove();
+    }
+
+    @Override
+    public String generateTraceId() {
+        String seeded = SEED.get();
+        if (seeded == null) return RANDOM.generateTraceId();
+        // one-shot: later root spans on this thread (e.g. scheduled work) get their own trace
+        SEED.remove();
+        return seeded;
+    }
+
+    @Override
+    public String generateSpanId() {
+        return RANDOM.generateSpanId();
+    }
+}
@@ -0,0 +1,59 @@
+package com.dinidu.pms.logging;
+
+import com.dinidu.pms.security.JwtAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Feeds {@link SlowestRecorder} with the latency of every request, keyed by route pattern.
+ * Runs inside {@link SqlBudgetFilter} so the request's SQL statement count is available.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowestRecorder recorder;
+
+    public SlowRequestFilter(SlowestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+            recorder.recordRoute(route, nanos);
+            if (recorder.isCandidate(nanos)) {
+                SqlRequestStats sql = SqlRequestStats.current();
+                Object user = request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER_ATTRIBUTE);
+                recorder.offer(new SlowestRecorder.SlowRequest(route, request.getRequestURI(), response.getStatus(),
+                        nanos / 1_000, MDC.get(CorrelationIdFilter.MDC_TRACE_ID),
+                        user != null ? user.toString() : null,
+                        sql != null ? sql.getStatementCount() : -1, Instant.now()));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dinidu.pms.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/slowest: per-route and per-repository-method latency percentiles (sorted by p99) and the
+ * slowest individual requests with traceId, user and SQL count. DELETE resets everything.
+ */
+@Component
+@Endpoint(id = "slowest")
+public class SlowestEndpoint {
+
+    private final SlowestRecorder recorder;
+
+    public SlowestEndpoint(SlowestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowest() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("routes", recorder.routeSummaries());
+        body.put("queries", recorder.querySummaries());
+        body.put("slowestRequests", recorder.slowestRequests());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
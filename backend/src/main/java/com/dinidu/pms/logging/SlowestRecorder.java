@@ -0,0 +1,172 @@
+package com.dinidu.pms.logging;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Always-on latency recorder behind /actuator/slowest: one HdrHistogram per route and per repository
+ * method, plus the N slowest individual requests.
+ *
+ * The recording path takes no locks. Histograms are HdrHistogram {@link Recorder}s (wait-free writes);
+ * readers fold interval snapshots into a cumulative histogram. The top-N is a fixed array of slots
+ * replaced by CAS; a monotonic floor lets the common, not-slow-enough request return after one read.
+ */
+@Component
+public class SlowestRecorder {
+
+    public record SlowRequest(String route, String uri, int status, long durationMicros,
+                              String traceId, String user, int sqlStatements, Instant at) {
+    }
+
+    private final ConcurrentHashMap<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> queries = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowRequest> slowest;
+    // lower bound of the durations held in `slowest`; only ever increases
+    private final AtomicLong floorMicros = new AtomicLong();
+
+    public SlowestRecorder(@Value("${slowest.top-n:20}") int topN) {
+        this.slowest = new AtomicReferenceArray<>(Math.max(1, topN));
+    }
+
+    public void recordRoute(String route, long nanos) {
+        histogram(routes, route).record(nanos / 1_000);
+    }
+
+    public void recordQuery(String repositoryMethod, long nanos) {
+        histogram(queries, repositoryMethod).record(nanos / 1_000);
+    }
+
+    /**
+     * Cheap rejection test so callers can skip building a {@link SlowRequest} for ordinary requests.
+     */
+    public boolean isCandidate(long nanos) {
+        return nanos / 1_000 > floorMicros.get();
+    }
+
+    public void offer(SlowRequest request) {
+        long micros = request.durationMicros();
+        while (micros > floorMicros.get()) {
+            int minIndex = -1;
+            SlowRequest min = null;
+            boolean retry = false;
+            for (int i = 0; i < slowest.length(); i++) {
+                SlowRequest current = slowest.get(i);
+                if (current == null) {
+                    if (slowest.compareAndSet(i, null, request)) return;
+                    retry = true;
+                    break;
+                }
+                if (min == null || current.durationMicros() < min.durationMicros()) {
+                    min = current;
+                    minIndex = i;
+                }
+            }
+            if (retry) continue;
+            if (micros <= min.durationMicros()) {
+                raiseFloor(min.durationMicros());
+                return;
+            }
+            if (slowest.compareAndSet(minIndex, min, request)) {
+                raiseFloor(minDuration());
+                return;
+            }
+        }
+    }
+
+    public List<SlowRequest> slowestRequests() {
+        List<SlowRequest> list = new ArrayList<>(slowest.length());
+        for (int i = 0; i < slowest.length(); i++) {
+            SlowRequest r = slowest.get(i);
+            if (r != null) list.add(r);
+        }
+        list.sort(Comparator.comparingLong(SlowRequest::durationMicros).reversed());
+        return list;
+    }
+
+    public List<Map<String, Object>> routeSummaries() {
+        return summaries(routes);
+    }
+
+    public List<Map<String, Object>> querySummaries() {
+        return summaries(queries);
+    }
+
+    public void reset() {
+        routes.clear();
+        queries.clear();
+        for (int i = 0; i < slowest.length(); i++) slowest.set(i, null);
+        floorMicros.set(0);
+    }
+
+    // The floor may only rise once every slot is filled; empty slots mean anything qualifies
+    private long minDuration() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < slowest.length(); i++) {
+            SlowRequest r = slowest.get(i);
+            if (r == null) return 0;
+            min = Math.min(min, r.durationMicros());
+        }
+        return min;
+    }
+
+    private void raiseFloor(long candidate) {
+        floorMicros.accumulateAndGet(candidate, Math::max);
+    }
+
+    private static LatencyHistogram histogram(ConcurrentHashMap<String, LatencyHistogram> map, String key) {
+        LatencyHistogram h = map.get(key);
+        return h != null ? h : map.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static List<Map<String, Object>> summaries(Map<String, LatencyHistogram> map) {
+        List<Map<String, Object>> list = new ArrayList<>(map.size());
+        map.forEach((key, h) -> {
+            Histogram snapshot = h.snapshot();
+            if (snapshot.getTotalCount() == 0) return;
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("name", key);
+            summary.put("count", snapshot.getTotalCount());
+            summary.put("p50Ms", millis(snapshot.getValueAtPercentile(50)));
+            summary.put("p90Ms", millis(snapshot.getValueAtPercentile(90)));
+            summary.put("p99Ms", millis(snapshot.getValueAtPercentile(99)));
+            summary.put("p999Ms", millis(snapshot.getValueAtPercentile(99.9)));
+            summary.put("maxMs", millis(snapshot.getMaxValue()));
+            list.add(summary);
+        });
+        list.sort(Comparator.comparingDouble((Map<String, Object> m) -> (Double) m.get("p99Ms")).reversed());
+        return list;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    private static final class LatencyHistogram {
+        private final Recorder recorder = new Recorder(2);
+        private final Histogram total = new Histogram(2);
+        private Histogram interval;
+
+        void record(long micros) {
+            recorder.recordValue(Math.max(0, micros));
+        }
+
+        // readers only; writers never block on this
+        synchronized Histogram snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return total.copy();
+        }
+    }
+}
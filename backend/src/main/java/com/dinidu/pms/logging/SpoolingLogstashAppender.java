@@ -0,0 +1,335 @@
+package com.dinidu.pms.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking Logstash TCP appender. Logging threads only enqueue into a bounded ring buffer;
+ * a single worker encodes events and writes them to Logstash as JSON lines.
+ *
+ * When the buffer is full, events at or below {@code discardingThreshold} (INFO by default) are dropped
+ * and counted. WARN and ERROR are never dropped: they are encoded on the caller's thread and appended
+ * to the disk spool instead. While Logstash is unreachable, the worker writes everything to the spool,
+ * and it replays the spool in order once it reconnects. Metrics are published by {@link LogShippingMetrics}.
+ *
+ * The spool is a fixed file, {@code logs/<appender name>.spool} unless {@code spoolFile} is set, held under a file
+ * lock. An instance that finds it locked by another process on the same host takes the first free numbered
+ * sibling ({@code <name>-1.spool}, ...), so each instance gets a stable slot and a restarted one replays what
+ * its predecessor in that slot left behind as soon as it connects. A spool that is empty at shutdown is deleted.
+ */
+public class SpoolingLogstashAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final Map<String, SpoolingLogstashAppender> ACTIVE = new ConcurrentHashMap<>();
+    private static final int BATCH = 256;
+    private static final int MAX_SPOOL_SLOTS = 16;
+
+    private Encoder<ILoggingEvent> encoder;
+    private String destination = "localhost:5000";
+    private int ringBufferSize = 8192;
+    private Level discardingThreshold = Level.INFO;
+    private String spoolFile;
+    private int spoolSize = 64 * 1024 * 1024;
+    private int connectTimeoutMillis = 2000;
+    private long reconnectDelayMillis = 5000;
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private DiskSpool spool;
+    private Thread worker;
+    private volatile boolean running;
+
+    private Socket socket;
+    private OutputStream out;
+    private long nextConnectAttempt;
+    private volatile boolean connected;
+
+    private final Map<Level, AtomicLong> dropped = new ConcurrentHashMap<>();
+    private final AtomicLong spoolOverflow = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for appender [" + name + "]");
+            return;
+        }
+        if (spoolFile == null || spoolFile.isBlank()) {
+            spoolFile = "logs/" + name + ".spool";
+        }
+        try {
+            spool = openSpool(Path.of(spoolFile));
+        } catch (IOException e) {
+            addError("Cannot open log spool " + spoolFile, e);
+            return;
+        }
+        if (spool == null) {
+            addError("All " + MAX_SPOOL_SLOTS + " log spool slots next to " + spoolFile + " are locked by other processes");
+            return;
+        }
+        if (!spool.isEmpty()) {
+            addInfo("Replaying " + spool.pendingBytes() + " spooled bytes from " + spool.file() + " once connected");
+        }
+        queue = new ArrayBlockingQueue<>(ringBufferSize);
+        running = true;
+        worker = new Thread(this::run, "log-shipper-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        ACTIVE.put(name, this);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) return;
+        super.stop();
+        ACTIVE.remove(name, this);
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // whatever is still buffered goes to disk and is replayed on the next start
+        ILoggingEvent event;
+        while ((event = queue.poll()) != null) {
+            spoolEvent(event);
+        }
+        disconnect();
+        try {
+            spool.close();
+        } catch (IOException e) {
+            addWarn("Failed to close log spool", e);
+        }
+    }
+
+    // the configured file, else the first numbered sibling no other process holds
+    private DiskSpool openSpool(Path base) throws IOException {
+        String fileName = base.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int slot = 0; slot < MAX_SPOOL_SLOTS; slot++) {
+            Path file = slot == 0 ? base : base.resolveSibling(stem + "-" + slot + extension);
+            DiskSpool opened = DiskSpool.tryOpen(file, spoolSize);
+            if (opened != null) return opened;
+        }
+        return null;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (queue.offer(event)) return;
+        if (event.getLevel().levelInt > discardingThreshold.levelInt) {
+            spoolEvent(event);
+        } else {
+            dropped.computeIfAbsent(event.getLevel(), l -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private void run() {
+        List<ILoggingEvent> batch = new ArrayList<>(BATCH);
+        while (running) {
+            try {
+                ILoggingEvent first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH - 1);
+                }
+                if (!connected) connect();
+                ship(batch);
+                batch.clear();
+                if (connected) replay();
+            } catch (InterruptedException e) {
+                // stop() drains the queue
+                spoolAll(batch);
+                return;
+            } catch (RuntimeException e) {
+                addError("Log shipper failed", e);
+                spoolAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Writes live events straight to the socket only while nothing older is waiting in the spool
+    private void ship(List<ILoggingEvent> batch) {
+        if (batch.isEmpty()) return;
+        if (!connected || !spool.isEmpty()) {
+            spoolAll(batch);
+            return;
+        }
+        int sent = 0;
+        try {
+            for (ILoggingEvent event : batch) {
+                out.write(encode(event));
+                sent++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            addWarn("Lost connection to " + destination + ", spooling", e);
+            disconnect();
+            spoolAll(batch.subList(sent, batch.size()));
+        }
+    }
+
+    private void replay() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                byte[] data = spool.peek();
+                if (data == null) break;
+                out.write(data);
+                spool.commit();
+                replayed.incrementAndGet();
+            }
+            out.flush();
+        } catch (IOException e) {
+            addWarn("Lost connection to " + destination + " during replay", e);
+            disconnect();
+        }
+    }
+
+    private void spoolAll(List<ILoggingEvent> events) {
+        for (ILoggingEvent event : events) {
+            spoolEvent(event);
+        }
+    }
+
+    private void spoolEvent(ILoggingEvent event) {
+        if (!spool.append(encode(event), event.getTimeStamp())) {
+            spoolOverflow.incrementAndGet();
+        }
+    }
+
+    private byte[] encode(ILoggingEvent event) {
+        // the worker and overflowing WARN/ERROR callers may encode concurrently
+        synchronized (encoder) {
+            return encoder.encode(event);
+        }
+    }
+
+    private void connect() {
+        long now = System.currentTimeMillis();
+        if (now < nextConnectAttempt) return;
+        nextConnectAttempt = now + reconnectDelayMillis;
+        int colon = destination.lastIndexOf(':');
+        Socket s = new Socket();
+        try {
+            s.setKeepAlive(true);
+            s.connect(new InetSocketAddress(destination.substring(0, colon),
+                    Integer.parseInt(destination.substring(colon + 1))), connectTimeoutMillis);
+            socket = s;
+            out = new BufferedOutputStream(s.getOutputStream(), 16 * 1024);
+            connected = true;
+            addInfo("Connected to " + destination);
+        } catch (IOException e) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void disconnect() {
+        connected = false;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            socket = null;
+            out = null;
+        }
+    }
+
+    static Map<String, SpoolingLogstashAppender> active() {
+        return ACTIVE;
+    }
+
+    double bufferFill() {
+        BlockingQueue<ILoggingEvent> q = queue;
+        return q == null ? 0 : (double) q.size() / ringBufferSize;
+    }
+
+    long dropped(Level level) {
+        AtomicLong n = dropped.get(level);
+        return n == null ? 0 : n.get();
+    }
+
+    long spoolOverflow() {
+        return spoolOverflow.get();
+    }
+
+    long replayed() {
+        return replayed.get();
+    }
+
+    long spooledBytes() {
+        return spool.pendingBytes();
+    }
+
+    double spoolFill() {
+        return (double) spool.pendingBytes() / spool.capacity();
+    }
+
+    /**
+     * Age of the oldest event still waiting in the spool, in milliseconds.
+     */
+    long replayLagMillis() {
+        long oldest = spool.oldestTimestamp();
+        return oldest < 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    public void setDiscardingThreshold(String level) {
+        this.discardingThreshold = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setSpoolFile(String spoolFile) {
+        this.spoolFile = spoolFile;
+    }
+
+    public void setSpoolSize(int spoolSize) {
+        this.spoolSize = spoolSize;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public void setReconnectDelayMillis(long reconnectDelayMillis) {
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+}
@@ -0,0 +1,112 @@
+package com.dinidu.pms.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request SQL budget. Counts statements and JDBC time for the whole request (including lazy loads
+ * fired while serializing the response), records them as {@code pms.sql.statements} and
+ * {@code pms.sql.jdbc.time} per endpoint, and logs a WARN with the traceId when the request goes over
+ * {@code sql.budget.max-statements} or repeats an identical statement {@code sql.budget.n-plus-one-threshold}
+ * times (the N+1 pattern).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int nPlusOneThreshold;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry,
+                           @Value("${sql.budget.enabled:true}") boolean enabled,
+                           @Value("${sql.budget.max-statements:20}") int maxStatements,
+                           @Value("${sql.budget.n-plus-one-threshold:3}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.close();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStats stats) {
+        int count = stats.getStatementCount();
+        if (count == 0) return;
+        String endpoint = request.getMethod() + " " + endpointPattern(request);
+
+        DistributionSummary.builder("pms.sql.statements")
+                .description("SQL statements per HTTP request")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(count);
+        Timer.builder("pms.sql.jdbc.time")
+                .description("JDBC execution time per HTTP request")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        String traceId = MDC.get(CorrelationIdFilter.MDC_TRACE_ID);
+        long jdbcMs = stats.getJdbcNanos() / 1_000_000;
+        if (count > maxStatements) {
+            log.warn("SQL budget exceeded traceId={} endpoint={} statements={} budget={} jdbcTime={}ms",
+                    traceId, endpoint, count, maxStatements, jdbcMs);
+        }
+        Map<String, Integer> repeated = stats.repeatedStatements(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("pms.sql.n_plus_one")
+                    .description("Requests that repeated an identical statement (N+1)")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            repeated.forEach((sql, n) -> log.warn("Possible N+1 traceId={} endpoint={} executions={} sql={}",
+                    traceId, endpoint, n, sql));
+        }
+    }
+
+    // The matched route (e.g. /api/tasks/{id}) keeps metric cardinality bounded
+    private static String endpointPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+}
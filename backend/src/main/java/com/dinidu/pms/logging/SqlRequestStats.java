@@ -0,0 +1,90 @@
+package com.dinidu.pms.logging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements and JDBC time collected on the current thread between {@link #begin()} and {@link #close()}.
+ * Fed by {@link SqlStatementCounter} (statement text) and {@link SqlTimingListener} (JDBC time).
+ * Scopes nest: statements are counted in every open scope, so a test can wrap a request
+ * that {@link SqlBudgetFilter} also measures.
+ */
+public final class SqlRequestStats implements AutoCloseable {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+    // statement text kept for diagnostics; counts are unaffected by the cap
+    private static final int MAX_KEPT_STATEMENTS = 200;
+
+    private final SqlRequestStats parent;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final List<String> statements = new ArrayList<>();
+    private int statementCount;
+    private long jdbcNanos;
+    private boolean closed;
+
+    private SqlRequestStats(SqlRequestStats parent) {
+        this.parent = parent;
+    }
+
+    public static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        for (SqlRequestStats s = this; s != null; s = s.parent) {
+            s.statementCount++;
+            if (s.statements.size() < MAX_KEPT_STATEMENTS) s.statements.add(sql);
+            s.counts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordJdbcTime(long nanos) {
+        for (SqlRequestStats s = this; s != null; s = s.parent) {
+            s.jdbcNanos += nanos;
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Statements in execution order (the first {@value #MAX_KEPT_STATEMENTS}).
+     */
+    public List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Identical statements executed at least {@code threshold} times, with their counts - the N+1 signature.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        counts.forEach((sql, n) -> {
+            if (n >= threshold) repeated.put(sql, n);
+        });
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (parent == null) CURRENT.remove();
+            else CURRENT.set(parent);
+        }
+    }
+}
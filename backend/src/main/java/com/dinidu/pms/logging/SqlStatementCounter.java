@@ -0,0 +1,17 @@
+package com.dinidu.pms.logging;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that records every statement Hibernate prepares in the
+ * current {@link SqlRequestStats} scope. The SQL is returned unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) stats.recordStatement(sql);
+        return sql;
+    }
+}
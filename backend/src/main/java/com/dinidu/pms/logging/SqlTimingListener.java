@@ -0,0 +1,39 @@
+package com.dinidu.pms.logging;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time (statements and batches) to the current {@link SqlRequestStats} scope.
+ * Registered for every session through {@code hibernate.session.events.auto}, so one instance serves
+ * one session and needs no synchronization.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null && start != 0) stats.recordJdbcTime(System.nanoTime() - start);
+        start = 0;
+    }
+}
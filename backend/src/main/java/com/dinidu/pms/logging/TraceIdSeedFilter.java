@@ -0,0 +1,41 @@
+package com.dinidu.pms.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs before the observation filter (HIGHEST_PRECEDENCE + 1) starts the request's server span: a request
+ * with no valid {@code traceparent} but a UUID-shaped X-Correlation-Id has that ID seeded as the trace ID
+ * of the root span (see {@link SeededTraceIdGenerator}). A valid {@code traceparent} always wins.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdSeedFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String traceId = TraceParent.parse(request.getHeader(TraceParent.HEADER)) == null
+                ? TraceParent.traceIdFromCorrelationId(request.getHeader(CorrelationIdFilter.HEADER_NAME))
+                : null;
+        if (traceId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SeededTraceIdGenerator.seed(traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SeededTraceIdGenerator.clear();
+        }
+    }
+}
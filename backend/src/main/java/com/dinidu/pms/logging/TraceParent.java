@@ -0,0 +1,81 @@
+package com.dinidu.pms.logging;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace-context {@code traceparent} parsing/formatting and cheap ID generation.
+ * IDs come from {@link ThreadLocalRandom}: uncontended and non-cryptographic, which is all a trace ID needs.
+ */
+record TraceParent(String traceId, String parentId, boolean sampled) {
+
+    static final String HEADER = "traceparent";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String ZERO_TRACE_ID = "00000000000000000000000000000000";
+    private static final String ZERO_SPAN_ID = "0000000000000000";
+
+    /**
+     * Parses {@code version-traceid-parentid-flags}; returns null if the header is absent or invalid.
+     * Future versions are accepted as long as the version-00 fields are well-formed.
+     */
+    static TraceParent parse(String header) {
+        if (header == null) return null;
+        String h = header.trim();
+        if (h.length() < 55 || h.charAt(2) != '-' || h.charAt(35) != '-' || h.charAt(52) != '-') return null;
+        String version = h.substring(0, 2);
+        if (!isHex(version) || "ff".equals(version) || ("00".equals(version) && h.length() != 55)) return null;
+        if (h.length() > 55 && h.charAt(55) != '-') return null;
+        String traceId = h.substring(3, 35);
+        String parentId = h.substring(36, 52);
+        String flags = h.substring(53, 55);
+        if (!isHex(traceId) || ZERO_TRACE_ID.equals(traceId)) return null;
+        if (!isHex(parentId) || ZERO_SPAN_ID.equals(parentId)) return null;
+        if (!isHex(flags)) return null;
+        return new TraceParent(traceId, parentId, (Character.digit(flags.charAt(1), 16) & 1) == 1);
+    }
+
+    /**
+     * A UUID-shaped correlation ID maps onto a trace ID by dropping the dashes; anything else does not.
+     */
+    static String traceIdFromCorrelationId(String correlationId) {
+        if (correlationId == null) return null;
+        String candidate = correlationId.length() == 36 ? correlationId.replace("-", "") : correlationId;
+        candidate = candidate.toLowerCase(Locale.ROOT);
+        return candidate.length() == 32 && isHex(candidate) && !ZERO_TRACE_ID.equals(candidate) ? candidate : null;
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long hi;
+        long lo;
+        do {
+            hi = random.nextLong();
+            lo = random.nextLong();
+        } while (hi == 0 && lo == 0);
+        char[] out = new char[32];
+        writeHex(hi, out, 0);
+        writeHex(lo, out, 16);
+        return new String(out);
+    }
+
+    String format() {
+        return "00-" + traceId + "-" + parentId + (sampled ? "-01" : "-00");
+    }
+
+    private static void writeHex(long value, char[] out, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // lower-case only, as the spec requires
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.entity.ArchivedTask;
+import com.dinidu.pms.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    // Same visibility rules as TaskRepository.findAccessibleTasksFor
+    @EntityGraph(attributePaths = {"project", "project.owner", "project.team", "project.team.owner", "assignee", "tagIds"})
+    @Query("""
+           select distinct t
+           from ArchivedTask t
+           left join t.project p
+           left join p.team tm
+           where (p is null or (p.deletedAt is null and (tm is null or tm.deletedAt is null)))
+             and ((:admin = true)
+              or t.assignee = :user
+              or p.owner = :user
+              or (tm is not null and (tm.owner = :user or :user member of tm.members)))
+           order by t.createdAt desc
+           """)
+    List<ArchivedTask> findAccessibleFor(@Param("user") User user, @Param("admin") boolean admin);
+
+    // Copies hot rows as they are, id and version included; the caller deletes them from tasks in the same transaction
+    @Modifying
+    @Query(value = """
+           insert into tasks_archive (id, title, description, status, priority, due_date, project_id, assignee_id,
+                                      version, created_at, updated_at, archived_at)
+           select id, title, description, status, priority, due_date, project_id, assignee_id,
+                  version, created_at, updated_at, :now
+           from tasks
+           where id in (:ids)
+           """, nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Tags travel with the rows: copied after the task rows, before the deletes cascade the originals away
+    @Modifying
+    @Query(value = """
+           insert into tasks_archive_tags (task_id, tag_id)
+           select task_id, tag_id from task_tags where task_id in (:ids)
+           """, nativeQuery = true)
+    int copyTagsFromTasks(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+           insert into task_tags (task_id, tag_id)
+           select task_id, tag_id from tasks_archive_tags where task_id = :id
+           """, nativeQuery = true)
+    int copyTagsToTasks(@Param("id") Long id);
+
+    // The reverse move; updated_at is reset so the restored task is not archived again on the next run
+    @Modifying
+    @Query(value = """
+           insert into tasks (id, title, description, status, priority, due_date, project_id, assignee_id,
+                              version, created_at, updated_at)
+           select id, title, description, status, priority, due_date, project_id, assignee_id,
+                  version, created_at, :now
+           from tasks_archive
+           where id = :id
+           """, nativeQuery = true)
+    int copyToTasks(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from ArchivedTask t where t.id = :id")
+    int removeById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "delete from tasks_archive where project_id in (:projectIds) limit :limit", nativeQuery = true)
+    int deleteBatchByProjectIds(@Param("projectIds") Collection<Long> projectIds, @Param("limit") int limit);
+}
@@ -0,0 +1,24 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.entity.DeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, Long> {
+    List<DeletionJob> findByFinishedAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("update DeletionJob j set j.rowsDeleted = j.rowsDeleted + :rows, j.updatedAt = :now where j.id = :id")
+    int addProgress(@Param("id") Long id, @Param("rows") long rows, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update DeletionJob j set j.finishedAt = :now, j.updatedAt = :now where j.id = :id")
+    int markFinished(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -2,25 +2,53 @@ package com.dinidu.pms.repo;
 
 import com.dinidu.pms.entity.Project;
 import com.dinidu.pms.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByOwner(User owner);
     List<Project> findByOwnerOrderByCreatedAtDesc(User owner);
 
+    // Fetches owner and team (with its owner) for the JSON view, so serialization needs no lazy loads
+    @EntityGraph(attributePaths = {"owner", "team", "team.owner"})
     @Query("""
            select distinct p
            from Project p
            left join p.team t
-           where (:admin = true)
+           where p.deletedAt is null and (t is null or t.deletedAt is null)
+             and ((:admin = true)
               or p.owner = :user
-              or (t is not null and (t.owner = :user or :user member of t.members))
+              or (t is not null and (t.owner = :user or :user member of t.members)))
            order by p.createdAt desc
            """)
     List<Project> findAccessibleProjectsFor(User user, boolean admin);
+
+    // findById minus projects that are deleted or belong to a deleted team
+    @Query("""
+           select p
+           from Project p
+           left join p.team t
+           where p.id = :id and p.deletedAt is null and (t is null or t.deletedAt is null)
+           """)
+    Optional<Project> findLiveById(@Param("id") Long id);
+
+    // Serializes dependency edits within one project across nodes, so cycle checks see every committed link
+    @Query(value = "select id from projects where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query(value = "select id from projects where team_id = :teamId order by id limit :limit", nativeQuery = true)
+    List<Long> findIdsByTeamId(@Param("teamId") Long teamId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from projects where id in (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
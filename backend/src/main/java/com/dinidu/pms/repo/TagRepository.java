@@ -0,0 +1,18 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Integer> {
+    Optional<Tag> findByName(String name);
+
+    // (task_id, tag_id) pairs of live tasks, for building the in-memory tag index
+    @Query(value = "select task_id, tag_id from task_tags", nativeQuery = true)
+    List<Object[]> findAllTaskTagPairs();
+}
@@ -0,0 +1,16 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.entity.TaskActivity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskActivityRepository extends JpaRepository<TaskActivity, Long> {
+    // Newest first; ids are time-ordered, so "before" is a plain keyset cursor over idx_task_activity_task
+    List<TaskActivity> findByTaskIdOrderByIdDesc(Long taskId, Pageable page);
+
+    List<TaskActivity> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long before, Pageable page);
+}
@@ -0,0 +1,31 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.entity.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+
+    // (blocked_by_id, task_id) edges of one project, for building its in-memory graph
+    @Query("select d.blockedBy.id, d.task.id from TaskDependency d where d.projectId = :projectId")
+    List<Object[]> findEdgesByProjectId(@Param("projectId") Long projectId);
+
+    // Row count and highest id: ids only grow, so any insert or delete changes one of the two
+    @Query("select count(d), coalesce(max(d.id), 0) from TaskDependency d where d.projectId = :projectId")
+    List<Object[]> findSignatureByProjectId(@Param("projectId") Long projectId);
+
+    @Query("select d from TaskDependency d where d.task.id = :taskId and d.blockedBy.id = :blockedById")
+    Optional<TaskDependency> findPair(@Param("taskId") Long taskId, @Param("blockedById") Long blockedById);
+
+    // A task moved to another project takes no links with it
+    @Modifying
+    @Query("delete from TaskDependency d where d.task.id = :taskId or d.blockedBy.id = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -3,11 +3,15 @@ package com.dinidu.pms.repo;
 import com.dinidu.pms.entity.Project;
 import com.dinidu.pms.entity.Task;
 import com.dinidu.pms.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,31 +26,106 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.assignee = :user AND t.status = :status")
     Long countTasksByUserAndStatus(@Param("user") User user, @Param("status") Task.Status status);
 
-    // RBAC-aware: tasks accessible by user via assignment, ownership, or team membership; admins see all
+    // RBAC-aware: tasks accessible by user via assignment, ownership, or team membership; admins see all.
+    // Tasks of a deleted project or team are hidden while CascadeDeleter purges them.
+    // Fetches everything the JSON view renders, so serialization needs no lazy loads.
+    @EntityGraph(attributePaths = {"project", "project.owner", "project.team", "project.team.owner", "assignee", "tagIds"})
     @Query("""
            select distinct t
            from Task t
            left join t.project p
            left join p.team tm
-           where (:admin = true)
+           where (p is null or (p.deletedAt is null and (tm is null or tm.deletedAt is null)))
+             and ((:admin = true)
               or t.assignee = :user
               or p.owner = :user
-              or (tm is not null and (tm.owner = :user or :user member of tm.members))
+              or (tm is not null and (tm.owner = :user or :user member of tm.members)))
            order by t.createdAt desc
            """)
     List<Task> findAccessibleTasksFor(@Param("user") User user, @Param("admin") boolean admin);
 
+    // The same rules applied to candidate ids from the tag index
+    @EntityGraph(attributePaths = {"project", "project.owner", "project.team", "project.team.owner", "assignee", "tagIds"})
+    @Query("""
+           select distinct t
+           from Task t
+           left join t.project p
+           left join p.team tm
+           where t.id in :ids
+             and (p is null or (p.deletedAt is null and (tm is null or tm.deletedAt is null)))
+             and ((:admin = true)
+              or t.assignee = :user
+              or p.owner = :user
+              or (tm is not null and (tm.owner = :user or :user member of tm.members)))
+           """)
+    List<Task> findAccessibleTasksByIds(@Param("user") User user, @Param("ids") Collection<Long> ids,
+                                        @Param("admin") boolean admin);
+
     @Query("""
            select count(distinct t)
            from Task t
            left join t.project p
            left join p.team tm
-           where t.status = :status and (
-                 (:admin = true)
+           where t.status = :status
+             and (p is null or (p.deletedAt is null and (tm is null or tm.deletedAt is null)))
+             and ((:admin = true)
               or t.assignee = :user
               or p.owner = :user
-              or (tm is not null and (tm.owner = :user or :user member of tm.members))
-           )
+              or (tm is not null and (tm.owner = :user or :user member of tm.members)))
            """)
     Long countAccessibleTasksByStatus(@Param("user") User user, @Param("status") Task.Status status, @Param("admin") boolean admin);
-}
\ No newline at end of file
+
+    // Per-status counts for the same visibility rules, in one round-trip
+    @Query("""
+           select t.status, count(distinct t)
+           from Task t
+           left join t.project p
+           left join p.team tm
+           where (p is null or (p.deletedAt is null and (tm is null or tm.deletedAt is null)))
+             and ((:admin = true)
+              or t.assignee = :user
+              or p.owner = :user
+              or (tm is not null and (tm.owner = :user or :user member of tm.members)))
+           group by t.status
+           """)
+    List<Object[]> countAccessibleTasksGroupedByStatus(@Param("user") User user, @Param("admin") boolean admin);
+
+    // Coalesced board move: writes the status without loading the row, bumping the version as an entity update would.
+    // Skipped if the row changed since the move's base version and its status is no longer the one moved from,
+    // i.e. a later write (e.g. from another node) already decided the status.
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1, t.updatedAt = :now " +
+            "where t.id = :id and (t.version = :version or t.status = :from)")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version, @Param("from") Task.Status from,
+                     @Param("status") Task.Status status, @Param("now") LocalDateTime now);
+
+    // (task id, project id) of live tasks, for building the in-memory tag index
+    @Query("select t.id, p.id from Task t join t.project p")
+    List<Object[]> findAllTaskProjectPairs();
+
+    // (task id, status) of one project's live tasks, for building its dependency graph
+    @Query("select t.id, t.status from Task t where t.project.id = :projectId")
+    List<Object[]> findIdsAndStatusByProjectId(@Param("projectId") Long projectId);
+
+    // Next archiver batch: rows locked by someone else are skipped rather than waited for, and tasks still in
+    // a dependency link stay live, since the archive does not keep links
+    @Query(value = """
+           select t.id from tasks t
+           where t.status = 'DONE' and t.updated_at < :cutoff
+             and not exists (select 1 from task_dependencies d where d.task_id = t.id)
+             and not exists (select 1 from task_dependencies d where d.blocked_by_id = t.id)
+           order by t.id
+           limit :limit
+           for update skip locked
+           """, nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from tasks where id in (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // One bounded purge batch for deleted projects
+    @Modifying
+    @Query(value = "delete from tasks where project_id in (:projectIds) limit :limit", nativeQuery = true)
+    int deleteBatchByProjectIds(@Param("projectIds") Collection<Long> projectIds, @Param("limit") int limit);
+}
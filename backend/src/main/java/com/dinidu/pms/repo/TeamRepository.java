@@ -2,19 +2,60 @@ package com.dinidu.pms.repo;
 
 import com.dinidu.pms.entity.Team;
 import com.dinidu.pms.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
-    // Teams where user is owner or a member
-    @Query("select distinct t from Team t left join t.members m where t.owner = :user or m = :user")
+    // Teams where user is owner or a member (deleted teams excluded)
+    @EntityGraph(attributePaths = "owner")
+    @Query("select distinct t from Team t left join t.members m where t.deletedAt is null and (t.owner = :user or m = :user)")
     List<Team> findTeamsForUser(User user);
 
+    @Query("select t from Team t where t.id = :id and t.deletedAt is null")
+    Optional<Team> findLiveById(@Param("id") Long id);
+
+    // Membership by id only, so member edits never load User entities or the members collection
+    @Query(value = "select user_id from team_members where team_id = :teamId", nativeQuery = true)
+    List<Long> findMemberIds(@Param("teamId") Long teamId);
+
+    @Query(value = "select count(*) from team_members where team_id = :teamId and user_id = :userId", nativeQuery = true)
+    long countMembership(@Param("teamId") Long teamId, @Param("userId") Long userId);
+
+    // Unknown user ids drop out of the join; IGNORE absorbs a pair inserted concurrently
+    @Modifying
+    @Query(value = """
+           insert ignore into team_members (team_id, user_id)
+           select :teamId, u.id from users u where u.id in (:userIds)
+           """, nativeQuery = true)
+    int insertMembers(@Param("teamId") Long teamId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "delete from team_members where team_id = :teamId and user_id in (:userIds)", nativeQuery = true)
+    int deleteMembers(@Param("teamId") Long teamId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "delete from team_members where team_id = :teamId", nativeQuery = true)
+    int deleteMemberships(@Param("teamId") Long teamId);
+
+    @Modifying
+    @Query(value = "delete from teams where id = :teamId", nativeQuery = true)
+    int deleteRow(@Param("teamId") Long teamId);
+
     boolean existsByName(String name);
 
-    @Query("SELECT COUNT(t) > 0 FROM Team t WHERE TRIM(LOWER(t.name)) = TRIM(LOWER(:name))")
-    boolean existsByNameTrimmedIgnoreCase(String name);
+    // Uses the unique index on normalized_name; callers pass TeamNameFilter.normalize(name)
+    boolean existsByNormalizedName(String normalizedName);
+
+    @Query("select t.normalizedName from Team t where t.normalizedName is not null")
+    List<String> findAllNormalizedNames();
+
+    List<Team> findByNormalizedNameIsNull();
 }
\ No newline at end of file
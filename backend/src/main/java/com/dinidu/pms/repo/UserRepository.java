@@ -1,8 +1,11 @@
 package com.dinidu.pms.repo;
 import com.dinidu.pms.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Prefix range scan on the unique username index; pattern must escape !, % and _ with '!'
+    @Query("select u.username from User u where u.username like :pattern escape '!'")
+    List<String> findUsernamesLike(@Param("pattern") String pattern);
 }
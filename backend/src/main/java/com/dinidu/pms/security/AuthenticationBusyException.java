@@ -0,0 +1,19 @@
+package com.dinidu.pms.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and cannot accept more work.
+ * Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class AuthenticationBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
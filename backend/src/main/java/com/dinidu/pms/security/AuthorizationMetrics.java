@@ -0,0 +1,58 @@
+package com.dinidu.pms.security;
+
+import com.dinidu.pms.logging.JfrEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Times RBAC decisions (canEditTask, canUseProject, canManageProject, ...) as {@code pms.rbac.decision},
+ * tagged with the check and its outcome (allowed/denied/error). The timer count doubles as the decision counter.
+ * Each decision is also emitted as a {@link JfrEvents.RbacDecision} JFR event.
+ */
+@Component
+public class AuthorizationMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AuthorizationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean record(String check, BooleanSupplier decision) {
+        JfrEvents.RbacDecision event = new JfrEvents.RbacDecision();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            boolean allowed = decision.getAsBoolean();
+            outcome = allowed ? "allowed" : "denied";
+            if (event.shouldCommit()) {
+                event.check = check;
+                event.allowed = allowed;
+                JfrEvents.commit(event);
+            }
+            return allowed;
+        } finally {
+            timer(check, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String check, String outcome) {
+        return timers.computeIfAbsent(check + ':' + outcome, k -> Timer.builder("pms.rbac.decision")
+                .description("RBAC permission checks by outcome")
+                .tag("check", check)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofMillis(500))
+                .register(meterRegistry));
+    }
+}
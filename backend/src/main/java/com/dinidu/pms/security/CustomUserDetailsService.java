@@ -1,22 +1,45 @@
 package com.dinidu.pms.security;
 
 
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.logging.JfrEvents;
 import com.dinidu.pms.repo.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        JfrEvents.PrincipalLoad event = new JfrEvents.PrincipalLoad();
+        event.begin();
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (event.shouldCommit()) {
+            event.username = username;
+            event.found = user != null;
+            // the principal is not in the security context yet
+            event.userId = user != null ? user.getId() : 0;
+            JfrEvents.commit(event);
+        }
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return user;
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login when the stored hash uses a weaker cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = (User) user;
+        entity.setPassword(newPassword);
+        return userRepository.save(entity);
     }
 }
@@ -22,6 +22,9 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // username of the authenticated caller, readable after the security chain has cleared its context
+    public static final String AUTHENTICATED_USER_ATTRIBUTE = "pms.authenticatedUser";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
@@ -35,6 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     // skip endpoints that don't require Authorization header (login/register and oauth endpoints)
     String path = request.getServletPath();
     if ("/api/auth/login".equals(path) || "/api/auth/register".equals(path)
+        || "/api/auth/refresh".equals(path) || "/api/auth/logout".equals(path)
         || path.startsWith("/api/auth/oauth2/") ) {
             filterChain.doFilter(request, response);
             return;
@@ -51,8 +55,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
-        } catch (io.jsonwebtoken.JwtException ex) {
+            // one parse: signature, expiry, token type and revocation
+            username = jwtService.parseAccessToken(jwt).getSubject();
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException ex) {
             // malformed/invalid token — treat as unauthenticated and continue
             logger.warn("Malformed or invalid JWT provided in Authorization header: {}", ex.getMessage());
             filterChain.doFilter(request, response);
@@ -62,7 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -72,6 +77,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             new WebAuthenticationDetailsSource().buildDetails(request)
                     );
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(AUTHENTICATED_USER_ATTRIBUTE, username);
                 } else {
                     // token invalid - do nothing, downstream will treat as unauthenticated
                 }
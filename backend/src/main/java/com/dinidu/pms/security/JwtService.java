@@ -1,28 +1,67 @@
 package com.dinidu.pms.security;
 
+import com.dinidu.pms.logging.JfrEvents;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    public static final String CLAIM_TYPE = "typ";
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    private final RevokedTokenStore revokedTokenStore;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> verificationTimers = new ConcurrentHashMap<>();
+
     @Value("${jwt.secret}")
     private String secretKey;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    // Short-lived: revocation of access tokens only matters for this window
+    @Value("${jwt.access-expiration:900000}")
+    private long accessExpiration;
+
+    // The previous single-token lifetime (jwt.expiration) now bounds the refresh token
+    @Value("${jwt.refresh-expiration:${jwt.expiration:1209600000}}")
+    private long refreshExpiration;
+
+    private Key signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -38,16 +77,26 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(CLAIM_TYPE, TYPE_ACCESS);
+        return buildToken(claims, userDetails, accessExpiration);
+    }
+
+    public String generateRefreshToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+        return buildToken(claims, userDetails, refreshExpiration);
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(Long.toUnsignedString(newTokenId(), 36))
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -56,6 +105,88 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Parses and verifies an access token in one pass: signature, expiry, type and revocation.
+     * Tokens issued before token types existed carry no typ/jti and are accepted as access tokens.
+     *
+     * @throws JwtException if the token must not be accepted
+     */
+    public Claims parseAccessToken(String token) {
+        long start = System.nanoTime();
+        JfrEvents.JwtVerify event = new JfrEvents.JwtVerify();
+        event.begin();
+        String outcome = null;
+        Claims claims = null;
+        try {
+            claims = extractAllClaims(token);
+            Object type = claims.get(CLAIM_TYPE);
+            if (type != null && !TYPE_ACCESS.equals(type)) {
+                outcome = "wrong_type";
+                throw new JwtException("Not an access token");
+            }
+            if (isRevoked(claims)) {
+                outcome = "revoked";
+                throw new JwtException("Token has been revoked");
+            }
+            outcome = "valid";
+            return claims;
+        } catch (RuntimeException ex) {
+            if (outcome == null) outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            recordVerification(TYPE_ACCESS, outcome, start, event, claims);
+        }
+    }
+
+    /**
+     * Verifies a refresh token and revokes it, so each refresh token can be exchanged exactly once.
+     *
+     * @return the claims of the consumed token
+     * @throws JwtException if it is invalid, not a refresh token, or was already used
+     */
+    public Claims consumeRefreshToken(String token) {
+        long start = System.nanoTime();
+        JfrEvents.JwtVerify event = new JfrEvents.JwtVerify();
+        event.begin();
+        String outcome = null;
+        Claims claims = null;
+        try {
+            claims = extractAllClaims(token);
+            if (!TYPE_REFRESH.equals(claims.get(CLAIM_TYPE)) || claims.getId() == null) {
+                outcome = "wrong_type";
+                throw new JwtException("Not a refresh token");
+            }
+            if (!revokedTokenStore.revoke(tokenId(claims), claims.getExpiration().toInstant())) {
+                outcome = "revoked";
+                throw new JwtException("Refresh token already used");
+            }
+            outcome = "valid";
+            return claims;
+        } catch (RuntimeException ex) {
+            if (outcome == null) outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            recordVerification(TYPE_REFRESH, outcome, start, event, claims);
+        }
+    }
+
+    /**
+     * Revokes a token until it expires. Invalid or already expired tokens are ignored.
+     */
+    public void revoke(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            if (claims.getId() != null) {
+                revokedTokenStore.revoke(tokenId(claims), claims.getExpiration().toInstant());
+            }
+        } catch (JwtException | IllegalArgumentException ignored) {
+        }
+    }
+
+    private boolean isRevoked(Claims claims) {
+        return claims.getId() != null && revokedTokenStore.isRevoked(tokenId(claims));
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -65,15 +196,50 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // pms.jwt.verification{token, outcome} (the timer count doubles as the verification counter) and the JwtVerify JFR event
+    private void recordVerification(String tokenType, String outcome, long startNanos,
+                                    JfrEvents.JwtVerify event, Claims claims) {
+        if (event.shouldCommit()) {
+            event.tokenType = tokenType;
+            event.outcome = outcome;
+            event.subject = claims != null ? claims.getSubject() : null;
+            JfrEvents.commit(event);
+        }
+        verificationTimers.computeIfAbsent(tokenType + ':' + outcome, k -> Timer.builder("pms.jwt.verification")
+                        .description("JWT verification by token type and outcome")
+                        .tag("token", tokenType)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(1_000))
+                        .maximumExpectedValue(Duration.ofMillis(500))
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof ExpiredJwtException) return "expired";
+        if (ex instanceof SignatureException) return "bad_signature";
+        if (ex instanceof MalformedJwtException || ex instanceof UnsupportedJwtException
+                || ex instanceof IllegalArgumentException) return "malformed";
+        return ex instanceof JwtException ? "invalid" : "error";
+    }
+
+    private static long tokenId(Claims claims) {
+        try {
+            return Long.parseUnsignedLong(claims.getId(), 36);
+        } catch (NumberFormatException ex) {
+            throw new JwtException("Malformed token id");
+        }
+    }
+
+    private static long newTokenId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
     }
-}
\ No newline at end of file
+}
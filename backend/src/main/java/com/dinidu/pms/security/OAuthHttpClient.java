@@ -0,0 +1,123 @@
+package com.dinidu.pms.security;
+
+import com.dinidu.pms.utils.BoundedExecutors;
+import com.dinidu.pms.utils.CircuitBreaker;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Outbound HTTP for OAuth providers.
+ * One shared JDK HttpClient (pooled keep-alive connections) with strict connect/read timeouts,
+ * a circuit breaker per provider, and a small bounded pool for calls that can run concurrently.
+ * With virtual threads enabled (spring.threads.virtual.enabled on Java 21) that pool is replaced by
+ * one virtual thread per call, still capped at max-concurrent-calls.
+ */
+@Component
+public class OAuthHttpClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> LIST_TYPE = new ParameterizedTypeReference<>() {};
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final RestTemplate rest;
+    private final Executor executor;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final long openMillis;
+
+    public OAuthHttpClient(@Value("${oauth.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                           @Value("${oauth.http.read-timeout-ms:5000}") long readTimeoutMs,
+                           @Value("${oauth.http.max-concurrent-calls:32}") int maxConcurrentCalls,
+                           @Value("${oauth.http.breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${oauth.http.breaker.open-ms:30000}") long openMillis,
+                           ObjectProvider<ObservationRegistry> observationRegistry,
+                           Environment environment) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.rest = new RestTemplate(factory);
+        // client spans for each provider call, and traceparent propagation to the provider
+        this.rest.setObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+
+        this.executor = BoundedExecutors.create("oauth-http-", maxConcurrentCalls, Threading.VIRTUAL.isActive(environment));
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * POSTs a form to a provider token endpoint and returns the JSON body.
+     */
+    public Map<String, Object> postForm(String provider, String url, MultiValueMap<String, String> form) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(form, headers);
+        return breaker(provider).call(() -> rest.exchange(url, HttpMethod.POST, request, MAP_TYPE).getBody());
+    }
+
+    public Map<String, Object> getObject(String provider, String url, String bearerToken) {
+        return breaker(provider).call(() -> rest.exchange(url, HttpMethod.GET, bearer(bearerToken), MAP_TYPE).getBody());
+    }
+
+    public List<Map<String, Object>> getList(String provider, String url, String bearerToken) {
+        return breaker(provider).call(() -> rest.exchange(url, HttpMethod.GET, bearer(bearerToken), LIST_TYPE).getBody());
+    }
+
+    public CompletableFuture<Map<String, Object>> getObjectAsync(String provider, String url, String bearerToken) {
+        return CompletableFuture.supplyAsync(() -> getObject(provider, url, bearerToken), tracingExecutor());
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> getListAsync(String provider, String url, String bearerToken) {
+        return CompletableFuture.supplyAsync(() -> getList(provider, url, bearerToken), tracingExecutor());
+    }
+
+    // carries the caller's trace onto the pool thread
+    private Executor tracingExecutor() {
+        return CONTEXT_SNAPSHOTS.captureAll().wrapExecutor(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        BoundedExecutors.shutdown(executor);
+    }
+
+    private CircuitBreaker breaker(String provider) {
+        // 4xx means the provider answered (bad code, revoked token) -- not a provider outage
+        return breakers.computeIfAbsent(provider, p -> new CircuitBreaker("oauth-" + p, failureThreshold, openMillis,
+                ex -> !(ex instanceof HttpClientErrorException)));
+    }
+
+    private static HttpEntity<Void> bearer(String token) {
+        HttpHeaders auth = new HttpHeaders();
+        auth.setBearerAuth(token);
+        auth.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return new HttpEntity<>(auth);
+    }
+}
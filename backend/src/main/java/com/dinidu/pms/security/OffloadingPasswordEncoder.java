@@ -0,0 +1,35 @@
+package com.dinidu.pms.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Hands the hashing itself, and nothing else, to the {@link PasswordHashingExecutor}: callers such as the
+ * authentication provider keep doing their user lookup and any re-hash write on the request thread, so the
+ * CPU-sized pool never waits on the database.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // reads the cost from the hash; nothing to offload
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,172 @@
+package com.dinidu.pms.security;
+
+import com.dinidu.pms.entity.RevokedToken;
+import com.dinidu.pms.repo.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set of revoked token IDs (jti) checked on every authenticated request.
+ * Held as an open-addressing table of primitive longs: lookups are lock-free reads of an
+ * AtomicLongArray, writes are serialized. Entries are dropped once the token would have
+ * expired anyway, and each revocation is also written to revoked_tokens for restarts.
+ */
+@Component
+public class RevokedTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenStore.class);
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+
+    private final RevokedTokenRepository repository;
+    private final ScheduledExecutorService purger;
+    private final Object writeLock = new Object();
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+
+    public RevokedTokenStore(RevokedTokenRepository repository) {
+        this.repository = repository;
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "revoked-token-purger");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void load() {
+        var persisted = repository.findByExpiresAtAfter(Instant.now());
+        synchronized (writeLock) {
+            Table loaded = new Table(capacityFor(persisted.size()));
+            for (RevokedToken t : persisted) {
+                loaded.insert(t.getJti(), t.getExpiresAt().getEpochSecond());
+            }
+            table = loaded;
+        }
+        log.info("Loaded {} revoked token ids", persisted.size());
+        purger.scheduleWithFixedDelay(this::purgeExpired, PURGE_INTERVAL_SECONDS, PURGE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+    }
+
+    public boolean isRevoked(long jti) {
+        return table.contains(jti);
+    }
+
+    /**
+     * Revokes the token until {@code expiresAt}.
+     *
+     * @return false if it was already revoked (e.g. a refresh token presented twice)
+     */
+    public boolean revoke(long jti, Instant expiresAt) {
+        long now = Instant.now().getEpochSecond();
+        synchronized (writeLock) {
+            Table current = table;
+            if (current.contains(jti)) return false;
+            if ((current.size + 1) * 2 > current.capacity()) {
+                current = current.rebuild(now, capacityFor(current.size + 1));
+                table = current;
+            }
+            current.insert(jti, expiresAt.getEpochSecond());
+        }
+        try {
+            repository.save(RevokedToken.builder().jti(jti).expiresAt(expiresAt).build());
+        } catch (RuntimeException ex) {
+            // still revoked in memory; only a restart before expiry would forget it
+            log.error("Failed to persist revoked token {}", jti, ex);
+        }
+        return true;
+    }
+
+    private void purgeExpired() {
+        try {
+            Instant now = Instant.now();
+            synchronized (writeLock) {
+                table = table.rebuild(now.getEpochSecond(), MIN_CAPACITY);
+            }
+            repository.deleteExpired(now);
+        } catch (RuntimeException ex) {
+            log.warn("Revoked token purge failed", ex);
+        }
+    }
+
+    private static int capacityFor(int entries) {
+        int needed = Math.max(MIN_CAPACITY, entries * 4);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static final class Table {
+        // 0 marks an empty slot; jti values are never 0
+        private final AtomicLongArray ids;
+        private final long[] expiries;
+        private final int mask;
+        private int size;
+
+        Table(int capacity) {
+            this.ids = new AtomicLongArray(capacity);
+            this.expiries = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        boolean contains(long jti) {
+            int i = slot(jti);
+            while (true) {
+                long v = ids.get(i);
+                if (v == 0) return false;
+                if (v == jti) return true;
+                i = (i + 1) & mask;
+            }
+        }
+
+        void insert(long jti, long expiresAtEpochSecond) {
+            int i = slot(jti);
+            while (true) {
+                long v = ids.get(i);
+                if (v == jti) return;
+                if (v == 0) {
+                    expiries[i] = expiresAtEpochSecond;
+                    // volatile write publishes the expiry together with the id
+                    ids.set(i, jti);
+                    size++;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        Table rebuild(long nowEpochSecond, int minCapacity) {
+            int live = 0;
+            for (int i = 0; i <= mask; i++) {
+                if (ids.get(i) != 0 && expiries[i] > nowEpochSecond) live++;
+            }
+            Table next = new Table(Math.max(minCapacity, capacityFor(live)));
+            for (int i = 0; i <= mask; i++) {
+                long id = ids.get(i);
+                if (id != 0 && expiries[i] > nowEpochSecond) next.insert(id, expiries[i]);
+            }
+            return next;
+        }
+
+        private int slot(long jti) {
+            long h = jti * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.dto.BootstrapResponse;
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.Team;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.utils.BoundedExecutors;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the initial app load (GET /api/bootstrap) for an already-authenticated principal.
+ * The project, task, team and status-count queries run concurrently on a bounded executor, each in its own
+ * read-only transaction and so on its own pooled connection; the response costs the slowest query, not the sum.
+ *
+ * {@code bootstrap.timeout-ms} is enforced on the database side: each transaction gets what is left of the
+ * budget as its timeout, which Hibernate applies as the JDBC query timeout of every statement. That also covers
+ * a query the saturated executor hands back to the request thread. Waiting for the results uses the same
+ * budget, but cancelling the futures alone would not stop a statement already running.
+ */
+@Service
+public class BootstrapService {
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final TeamService teamService;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    public BootstrapService(ProjectService projectService,
+                            TaskService taskService,
+                            TeamService teamService,
+                            PlatformTransactionManager transactionManager,
+                            Environment environment,
+                            @Value("${bootstrap.max-concurrent-queries:16}") int maxConcurrentQueries,
+                            @Value("${bootstrap.timeout-ms:5000}") long timeoutMillis) {
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.teamService = teamService;
+        this.transactionManager = transactionManager;
+        this.executor = BoundedExecutors.create("bootstrap-", maxConcurrentQueries, Threading.VIRTUAL.isActive(environment));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public BootstrapResponse load(User user) {
+        // carries the caller's trace onto the worker threads
+        Executor traced = CONTEXT_SNAPSHOTS.captureAll().wrapExecutor(executor);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletableFuture<List<Project>> projects = query(() -> projectService.getAllProjects(user), traced, deadline);
+        CompletableFuture<List<Task>> tasks = query(() -> taskService.getAllTasks(user), traced, deadline);
+        CompletableFuture<List<Team>> teams = query(() -> teamService.getMyTeams(user), traced, deadline);
+        CompletableFuture<Map<Task.Status, Long>> stats = query(() -> taskService.getTaskCountsByStatus(user), traced, deadline);
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(projects, tasks, teams, stats);
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // running statements stop at their own query timeout, at most a second or so later
+            all.cancel(true);
+            throw new IllegalStateException("Bootstrap queries did not finish within " + timeoutMillis + " ms");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading bootstrap data", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+
+        return BootstrapResponse.builder()
+                .user(user)
+                .projects(projects.join())
+                .tasks(tasks.join())
+                .teams(teams.join())
+                .taskStats(stats.join())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        BoundedExecutors.shutdown(executor);
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query, Executor executor, long deadline) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            // whole seconds, rounded up: the granularity of JDBC query timeouts
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            readOnly.setTimeout((int) Math.max(1, (remainingMillis + 999) / 1000));
+            return readOnly.execute(status -> query.get());
+        }, executor);
+    }
+}
@@ -0,0 +1,227 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.DeletionJob;
+import com.dinidu.pms.repo.ArchivedTaskRepository;
+import com.dinidu.pms.repo.DeletionJobRepository;
+import com.dinidu.pms.repo.ProjectRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import com.dinidu.pms.repo.TeamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purges deleted projects and teams in the background. Deleting only sets the parent's deletedAt (hiding it and
+ * everything under it) and records a {@link DeletionJob}. This worker then removes the children bottom-up with
+ * bulk {@code DELETE ... WHERE project_id IN (...) LIMIT n} statements: tasks, archived tasks, then the
+ * project rows, and for a team its memberships and finally the team. No entity is loaded along the way.
+ *
+ * Every batch is its own short transaction and records its progress on the job row in that same transaction.
+ * Unfinished jobs are resumed on the next poll, including after a restart. Batches are idempotent, so a job
+ * that two nodes pick up at once just finishes sooner.
+ */
+@Component
+public class CascadeDeleter {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleter.class);
+
+    private final DeletionJobRepository jobRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ProjectRepository projectRepository;
+    private final TeamRepository teamRepository;
+    private final TeamNameFilter teamNameFilter;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskDependencyGraphs dependencyGraphs;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int projectsPerBatch;
+    private final long batchPauseMillis;
+    private final ScheduledExecutorService worker;
+    private final Counter rowsDeleted;
+    private volatile boolean stopping;
+
+    public CascadeDeleter(DeletionJobRepository jobRepository,
+                          TaskRepository taskRepository,
+                          ArchivedTaskRepository archivedTaskRepository,
+                          ProjectRepository projectRepository,
+                          TeamRepository teamRepository,
+                          TeamNameFilter teamNameFilter,
+                          TaskTagIndex taskTagIndex,
+                          TaskDependencyGraphs dependencyGraphs,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${cascade-delete.batch-size:1000}") int batchSize,
+                          @Value("${cascade-delete.projects-per-batch:50}") int projectsPerBatch,
+                          @Value("${cascade-delete.batch-pause-ms:50}") long batchPauseMillis,
+                          @Value("${cascade-delete.poll-seconds:30}") long pollSeconds) {
+        this.jobRepository = jobRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.projectRepository = projectRepository;
+        this.teamRepository = teamRepository;
+        this.teamNameFilter = teamNameFilter;
+        this.taskTagIndex = taskTagIndex;
+        this.dependencyGraphs = dependencyGraphs;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.projectsPerBatch = Math.max(1, projectsPerBatch);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cascade-deleter");
+            t.setDaemon(true);
+            return t;
+        });
+        long poll = Math.max(1, pollSeconds);
+        // the first poll resumes whatever a previous run left unfinished
+        worker.scheduleWithFixedDelay(this::drain, poll, poll, TimeUnit.SECONDS);
+
+        this.rowsDeleted = Counter.builder("pms.cascade.rows.deleted")
+                .description("Rows removed by background project/team purges")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a purge of the given project or team; call in the transaction that marks it deleted.
+     * Work starts once that transaction commits.
+     */
+    public DeletionJob schedule(DeletionJob.Kind kind, Long targetId, String requestedBy) {
+        DeletionJob job = jobRepository.save(DeletionJob.builder()
+                .kind(kind)
+                .targetId(targetId)
+                .requestedBy(requestedBy)
+                .build());
+        afterCommit(this::wake);
+        return job;
+    }
+
+    public DeletionJob getJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Deletion job not found"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        worker.shutdownNow();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void wake() {
+        try {
+            worker.execute(this::drain);
+        } catch (RuntimeException ex) {
+            // shutting down; the next start resumes the job
+            log.debug("Cascade deleter not accepting work", ex);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (DeletionJob job : jobRepository.findByFinishedAtIsNullOrderByIdAsc()) {
+                if (stopping) return;
+                run(job);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Cascade delete failed; resuming on the next poll", ex);
+        }
+    }
+
+    private void run(DeletionJob job) {
+        log.info("Purging {} {} (job {}, {} rows already deleted)",
+                job.getKind(), job.getTargetId(), job.getId(), job.getRowsDeleted());
+        long total = job.getRowsDeleted();
+        while (!stopping) {
+            Step step = transaction.execute(status -> job.getKind() == DeletionJob.Kind.PROJECT
+                    ? projectStep(job) : teamStep(job));
+            if (step == null) return;
+            total += step.rows();
+            rowsDeleted.increment(step.rows());
+            if (step.finished()) {
+                log.info("Purged {} {} (job {}): {} rows", job.getKind(), job.getTargetId(), job.getId(), total);
+                // Bloom filters can't forget a name; rebuild so the freed name becomes a fast negative again
+                if (job.getKind() == DeletionJob.Kind.TEAM) teamNameFilter.rebuild();
+                return;
+            }
+            try {
+                Thread.sleep(batchPauseMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record Step(int rows, boolean finished) {
+    }
+
+    // One batch of a project purge: its tasks, then its archived tasks, then the project row
+    private Step projectStep(DeletionJob job) {
+        List<Long> projectIds = List.of(job.getTargetId());
+        int rows = purgeChildren(projectIds);
+        boolean finished = rows == 0;
+        if (finished) rows = deleteProjects(projectIds);
+        return record(job, rows, finished);
+    }
+
+    // One batch of a team purge: a slice of its projects as above, then memberships and the team row
+    private Step teamStep(DeletionJob job) {
+        List<Long> projectIds = projectRepository.findIdsByTeamId(job.getTargetId(), projectsPerBatch);
+        if (!projectIds.isEmpty()) {
+            int rows = purgeChildren(projectIds);
+            if (rows == 0) rows = deleteProjects(projectIds);
+            return record(job, rows, false);
+        }
+        int rows = teamRepository.deleteMemberships(job.getTargetId());
+        rows += teamRepository.deleteRow(job.getTargetId());
+        return record(job, rows, true);
+    }
+
+    private int deleteProjects(List<Long> projectIds) {
+        int rows = projectRepository.deleteByIds(projectIds);
+        afterCommit(() -> {
+            taskTagIndex.removeProjects(projectIds);
+            dependencyGraphs.projectsRemoved(projectIds);
+        });
+        return rows;
+    }
+
+    private int purgeChildren(List<Long> projectIds) {
+        int rows = taskRepository.deleteBatchByProjectIds(projectIds, batchSize);
+        if (rows == 0) rows = archivedTaskRepository.deleteBatchByProjectIds(projectIds, batchSize);
+        return rows;
+    }
+
+    private Step record(DeletionJob job, int rows, boolean finished) {
+        LocalDateTime now = LocalDateTime.now();
+        if (rows > 0) jobRepository.addProgress(job.getId(), rows, now);
+        if (finished) jobRepository.markFinished(job.getId(), now);
+        return new Step(rows, finished);
+    }
+}
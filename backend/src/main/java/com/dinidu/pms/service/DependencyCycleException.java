@@ -0,0 +1,21 @@
+package com.dinidu.pms.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a "blocked by" link would close a cycle. Mapped to 409 Conflict with the cycle, as task ids
+ * starting with the new link's blocker and blocked task.
+ */
+public class DependencyCycleException extends RuntimeException {
+
+    private final List<Long> cycle;
+
+    public DependencyCycleException(List<Long> cycle) {
+        super("Dependency would create a cycle");
+        this.cycle = cycle;
+    }
+
+    public List<Long> getCycle() {
+        return cycle;
+    }
+}
@@ -0,0 +1,29 @@
+package com.dinidu.pms.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a write is based on a version that is no longer current and touches fields someone else changed.
+ * Mapped to 409 Conflict with the current state, so the client can rebase its edit.
+ */
+public class EditConflictException extends RuntimeException {
+
+    private final Object current;
+    private final List<String> fields;
+
+    public EditConflictException(Object current, List<String> fields) {
+        super(fields.isEmpty()
+                ? "Modified concurrently, retry with the current version"
+                : "Conflicting concurrent changes to " + String.join(", ", fields));
+        this.current = current;
+        this.fields = fields;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,467 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.utils.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The "blocked by" graph of one project's tasks, held in primitive arrays: tasks are dense int nodes, and each
+ * node has int[] successor (tasks it blocks) and predecessor (its blockers) lists. A topological order is kept
+ * up to date on every edge insert with the Pearce-Kelly algorithm, which only reorders the nodes between the
+ * two endpoints and detects a cycle as a side effect.
+ *
+ * For the critical path each node carries {@code head}, the longest chain of open work ending with it (its
+ * earliest finish), and {@code tail}, the longest chain starting with it. A change marks the touched nodes and
+ * propagates along the topological order (forwards for head, backwards for tail) only while values actually
+ * change, so an edit recomputes the affected subgraph instead of the whole project. Slack of a task is the
+ * available time minus {@code head + tail - duration}, the longest path through it.
+ *
+ * Durations are whole days: 1 for an open task and 0 for a DONE one. Removed tasks keep their node (ids are
+ * never reused; a restored task revives it) but lose their edges and duration. Methods are synchronized.
+ */
+final class ProjectGraph {
+
+    /**
+     * Receives live tasks in topological order (blockers before the tasks they block).
+     */
+    interface NodeVisitor {
+        void visit(long taskId, int duration, int head, int tail);
+    }
+
+    private final LongIntHashMap index;
+    private int size;
+    private long[] ids;
+    private boolean[] alive;
+    private int[] duration;
+    private int[][] successors;
+    private int[] successorCount;
+    private int[][] predecessors;
+    private int[] predecessorCount;
+    private int[] position;
+    private int[] nodeAt;
+    private int[] head;
+    private int[] tail;
+
+    private boolean[] headDirty;
+    private boolean[] tailDirty;
+    private int pendingHead;
+    private int pendingTail;
+    private int minHeadPosition = Integer.MAX_VALUE;
+    private int maxTailPosition = -1;
+    private int skippedEdges;
+
+    // DFS scratch for edge inserts
+    private int[] mark;
+    private int[] parent;
+    private int epoch;
+
+    ProjectGraph(int expectedTasks) {
+        int capacity = Math.max(16, expectedTasks);
+        this.index = new LongIntHashMap(capacity);
+        this.ids = new long[capacity];
+        this.alive = new boolean[capacity];
+        this.duration = new int[capacity];
+        this.successors = new int[capacity][];
+        this.successorCount = new int[capacity];
+        this.predecessors = new int[capacity][];
+        this.predecessorCount = new int[capacity];
+        this.position = new int[capacity];
+        this.nodeAt = new int[capacity];
+        this.head = new int[capacity];
+        this.tail = new int[capacity];
+        this.headDirty = new boolean[capacity];
+        this.tailDirty = new boolean[capacity];
+        this.mark = new int[capacity];
+        this.parent = new int[capacity];
+    }
+
+    /**
+     * Builds the graph in one pass (Kahn's algorithm) rather than edge by edge. Edges that would close a cycle,
+     * which the insert checks never let through, are skipped and counted in {@link #skippedEdges()}.
+     */
+    static ProjectGraph build(long[] taskIds, boolean[] open, long[] blockers, long[] blocked) {
+        ProjectGraph graph = new ProjectGraph(taskIds.length);
+        for (int i = 0; i < taskIds.length; i++) graph.node(taskIds[i], open[i]);
+        for (int i = 0; i < blockers.length; i++) {
+            int u = graph.index.get(blockers[i]);
+            int v = graph.index.get(blocked[i]);
+            if (u < 0 || v < 0 || u == v || graph.hasEdge(u, v)) continue;
+            graph.successors[u] = append(graph.successors[u], graph.successorCount[u]++, v);
+            graph.predecessors[v] = append(graph.predecessors[v], graph.predecessorCount[v]++, u);
+        }
+        graph.sortAndCompute();
+        return graph;
+    }
+
+    synchronized boolean contains(long taskId) {
+        int v = index.get(taskId);
+        return v >= 0 && alive[v];
+    }
+
+    synchronized int skippedEdges() {
+        return skippedEdges;
+    }
+
+    synchronized void addTask(long taskId, boolean open) {
+        int v = index.get(taskId);
+        if (v >= 0) {
+            alive[v] = true;
+            setDuration(v, open ? 1 : 0);
+            return;
+        }
+        v = node(taskId, open);
+        position[v] = v;
+        nodeAt[v] = v;
+        head[v] = duration[v];
+        tail[v] = duration[v];
+    }
+
+    /**
+     * @return false if the task is not in the graph
+     */
+    synchronized boolean setOpen(long taskId, boolean open) {
+        int v = index.get(taskId);
+        if (v < 0 || !alive[v]) return false;
+        setDuration(v, open ? 1 : 0);
+        return true;
+    }
+
+    /**
+     * @return the number of links the task had
+     */
+    synchronized int removeTask(long taskId) {
+        int v = index.get(taskId);
+        if (v < 0 || !alive[v]) return 0;
+        int edges = predecessorCount[v] + successorCount[v];
+        for (int i = 0; i < predecessorCount[v]; i++) {
+            int p = predecessors[v][i];
+            successorCount[p] = remove(successors[p], successorCount[p], v);
+            markTail(p);
+        }
+        for (int i = 0; i < successorCount[v]; i++) {
+            int s = successors[v][i];
+            predecessorCount[s] = remove(predecessors[s], predecessorCount[s], v);
+            markHead(s);
+        }
+        predecessorCount[v] = 0;
+        successorCount[v] = 0;
+        alive[v] = false;
+        duration[v] = 0;
+        head[v] = 0;
+        tail[v] = 0;
+        propagate();
+        return edges;
+    }
+
+    /**
+     * Makes room in the topological order for {@code blocker -> blocked} without adding the edge. Reordering
+     * is safe either way: an order that satisfies the graph plus the edge also satisfies the graph.
+     *
+     * @return null if the edge can be added, otherwise the task ids of the cycle it would close, starting with
+     * {@code blocker} and {@code blocked}
+     */
+    synchronized List<Long> cycleThrough(long blocker, long blocked) {
+        int u = liveNode(blocker);
+        int v = liveNode(blocked);
+        if (u == v) return List.of(blocker);
+        int lower = position[v];
+        int upper = position[u];
+        if (upper < lower) return null;
+
+        // forward from the blocked task, within the affected window; reaching the blocker means a cycle
+        int forwardEpoch = ++epoch;
+        int[] forward = new int[8];
+        int forwardCount = 0;
+        int[] stack = new int[8];
+        int top = 0;
+        mark[v] = forwardEpoch;
+        parent[v] = -1;
+        stack[top++] = v;
+        while (top > 0) {
+            int w = stack[--top];
+            forward = append(forward, forwardCount++, w);
+            for (int i = 0; i < successorCount[w]; i++) {
+                int s = successors[w][i];
+                if (s == u) return cycle(u, w);
+                if (mark[s] != forwardEpoch && position[s] < upper) {
+                    mark[s] = forwardEpoch;
+                    parent[s] = w;
+                    stack = append(stack, top++, s);
+                }
+            }
+        }
+
+        // backward from the blocker, within the same window
+        int backwardEpoch = ++epoch;
+        int[] backward = new int[8];
+        int backwardCount = 0;
+        mark[u] = backwardEpoch;
+        stack[top++] = u;
+        while (top > 0) {
+            int w = stack[--top];
+            backward = append(backward, backwardCount++, w);
+            for (int i = 0; i < predecessorCount[w]; i++) {
+                int p = predecessors[w][i];
+                if (mark[p] != backwardEpoch && position[p] > lower) {
+                    mark[p] = backwardEpoch;
+                    stack = append(stack, top++, p);
+                }
+            }
+        }
+
+        // the blocker's ancestors take the window's first slots, the blocked task's descendants the rest
+        int[] backwardNodes = byPosition(backward, backwardCount);
+        int[] forwardNodes = byPosition(forward, forwardCount);
+        int[] slots = new int[backwardCount + forwardCount];
+        for (int i = 0; i < backwardCount; i++) slots[i] = position[backwardNodes[i]];
+        for (int i = 0; i < forwardCount; i++) slots[backwardCount + i] = position[forwardNodes[i]];
+        Arrays.sort(slots);
+        for (int i = 0; i < slots.length; i++) {
+            int node = i < backwardCount ? backwardNodes[i] : forwardNodes[i - backwardCount];
+            position[node] = slots[i];
+            nodeAt[slots[i]] = node;
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the edge was already there
+     * @throws IllegalStateException if the edge would close a cycle (check with {@link #cycleThrough} first)
+     */
+    synchronized boolean addEdge(long blocker, long blocked) {
+        if (cycleThrough(blocker, blocked) != null) {
+            throw new IllegalStateException("Task " + blocked + " already blocks task " + blocker);
+        }
+        int u = index.get(blocker);
+        int v = index.get(blocked);
+        if (hasEdge(u, v)) return false;
+        successors[u] = append(successors[u], successorCount[u]++, v);
+        predecessors[v] = append(predecessors[v], predecessorCount[v]++, u);
+        markHead(v);
+        markTail(u);
+        propagate();
+        return true;
+    }
+
+    /**
+     * @return false if there was no such edge
+     */
+    synchronized boolean removeEdge(long blocker, long blocked) {
+        int u = index.get(blocker);
+        int v = index.get(blocked);
+        if (u < 0 || v < 0 || !hasEdge(u, v)) return false;
+        successorCount[u] = remove(successors[u], successorCount[u], v);
+        predecessorCount[v] = remove(predecessors[v], predecessorCount[v], u);
+        markHead(v);
+        markTail(u);
+        propagate();
+        return true;
+    }
+
+    synchronized long[] blockersOf(long taskId) {
+        int v = index.get(taskId);
+        return v < 0 ? new long[0] : idsOf(predecessors[v], predecessorCount[v]);
+    }
+
+    synchronized long[] blockedBy(long taskId) {
+        int v = index.get(taskId);
+        return v < 0 ? new long[0] : idsOf(successors[v], successorCount[v]);
+    }
+
+    synchronized void forEachInOrder(NodeVisitor visitor) {
+        for (int pos = 0; pos < size; pos++) {
+            int v = nodeAt[pos];
+            if (alive[v]) visitor.visit(ids[v], duration[v], head[v], tail[v]);
+        }
+    }
+
+    private int liveNode(long taskId) {
+        int v = index.get(taskId);
+        if (v < 0 || !alive[v]) throw new IllegalArgumentException("Task " + taskId + " is not in this project");
+        return v;
+    }
+
+    private int node(long taskId, boolean open) {
+        ensureCapacity(size + 1);
+        int v = size++;
+        index.put(taskId, v);
+        ids[v] = taskId;
+        alive[v] = true;
+        duration[v] = open ? 1 : 0;
+        return v;
+    }
+
+    private void setDuration(int v, int days) {
+        if (duration[v] == days) return;
+        duration[v] = days;
+        markHead(v);
+        markTail(v);
+        propagate();
+    }
+
+    // Kahn's algorithm for the initial order, then one full pass in each direction
+    private void sortAndCompute() {
+        int[] remaining = Arrays.copyOf(predecessorCount, size);
+        int[] queue = new int[size];
+        int read = 0;
+        int write = 0;
+        for (int v = 0; v < size; v++) {
+            if (remaining[v] == 0) queue[write++] = v;
+        }
+        while (read < write) {
+            int w = queue[read++];
+            for (int i = 0; i < successorCount[w]; i++) {
+                int s = successors[w][i];
+                if (--remaining[s] == 0) queue[write++] = s;
+            }
+        }
+        if (write < size) {
+            // only reachable with cyclic rows in the table: append the rest in load order and drop the back edges
+            for (int v = 0; v < size; v++) {
+                if (remaining[v] > 0) queue[write++] = v;
+            }
+        }
+        for (int pos = 0; pos < size; pos++) {
+            position[queue[pos]] = pos;
+            nodeAt[pos] = queue[pos];
+        }
+        for (int u = 0; u < size; u++) {
+            for (int i = successorCount[u] - 1; i >= 0; i--) {
+                int v = successors[u][i];
+                if (position[v] > position[u]) continue;
+                successorCount[u] = remove(successors[u], successorCount[u], v);
+                predecessorCount[v] = remove(predecessors[v], predecessorCount[v], u);
+                skippedEdges++;
+            }
+        }
+        for (int pos = 0; pos < size; pos++) head[nodeAt[pos]] = computeHead(nodeAt[pos]);
+        for (int pos = size - 1; pos >= 0; pos--) tail[nodeAt[pos]] = computeTail(nodeAt[pos]);
+    }
+
+    private void markHead(int v) {
+        if (headDirty[v]) return;
+        headDirty[v] = true;
+        pendingHead++;
+        minHeadPosition = Math.min(minHeadPosition, position[v]);
+    }
+
+    private void markTail(int v) {
+        if (tailDirty[v]) return;
+        tailDirty[v] = true;
+        pendingTail++;
+        maxTailPosition = Math.max(maxTailPosition, position[v]);
+    }
+
+    // Recomputes marked nodes in topological order; a node whose value changed marks its neighbours in turn
+    private void propagate() {
+        for (int pos = minHeadPosition; pendingHead > 0 && pos < size; pos++) {
+            int v = nodeAt[pos];
+            if (!headDirty[v]) continue;
+            headDirty[v] = false;
+            pendingHead--;
+            int value = computeHead(v);
+            if (value == head[v]) continue;
+            head[v] = value;
+            for (int i = 0; i < successorCount[v]; i++) markHead(successors[v][i]);
+        }
+        minHeadPosition = Integer.MAX_VALUE;
+        for (int pos = maxTailPosition; pendingTail > 0 && pos >= 0; pos--) {
+            int v = nodeAt[pos];
+            if (!tailDirty[v]) continue;
+            tailDirty[v] = false;
+            pendingTail--;
+            int value = computeTail(v);
+            if (value == tail[v]) continue;
+            tail[v] = value;
+            for (int i = 0; i < predecessorCount[v]; i++) markTail(predecessors[v][i]);
+        }
+        maxTailPosition = -1;
+    }
+
+    private int computeHead(int v) {
+        if (!alive[v]) return 0;
+        int longest = 0;
+        for (int i = 0; i < predecessorCount[v]; i++) longest = Math.max(longest, head[predecessors[v][i]]);
+        return longest + duration[v];
+    }
+
+    private int computeTail(int v) {
+        if (!alive[v]) return 0;
+        int longest = 0;
+        for (int i = 0; i < successorCount[v]; i++) longest = Math.max(longest, tail[successors[v][i]]);
+        return longest + duration[v];
+    }
+
+    // [u, v, ..., w]: the new edge u -> v followed by the existing path from v back to u
+    private List<Long> cycle(int u, int w) {
+        List<Long> path = new ArrayList<>();
+        for (int x = w; x != -1; x = parent[x]) path.add(ids[x]);
+        path.add(ids[u]);
+        Collections.reverse(path);
+        return path;
+    }
+
+    private boolean hasEdge(int u, int v) {
+        for (int i = 0; i < successorCount[u]; i++) {
+            if (successors[u][i] == v) return true;
+        }
+        return false;
+    }
+
+    private int[] byPosition(int[] nodes, int count) {
+        long[] keyed = new long[count];
+        for (int i = 0; i < count; i++) keyed[i] = ((long) position[nodes[i]] << 32) | nodes[i];
+        Arrays.sort(keyed);
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) sorted[i] = (int) keyed[i];
+        return sorted;
+    }
+
+    private long[] idsOf(int[] nodes, int count) {
+        long[] out = new long[count];
+        for (int i = 0; i < count; i++) out[i] = ids[nodes[i]];
+        Arrays.sort(out);
+        return out;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        duration = Arrays.copyOf(duration, capacity);
+        successors = Arrays.copyOf(successors, capacity);
+        successorCount = Arrays.copyOf(successorCount, capacity);
+        predecessors = Arrays.copyOf(predecessors, capacity);
+        predecessorCount = Arrays.copyOf(predecessorCount, capacity);
+        position = Arrays.copyOf(position, capacity);
+        nodeAt = Arrays.copyOf(nodeAt, capacity);
+        head = Arrays.copyOf(head, capacity);
+        tail = Arrays.copyOf(tail, capacity);
+        headDirty = Arrays.copyOf(headDirty, capacity);
+        tailDirty = Arrays.copyOf(tailDirty, capacity);
+        mark = Arrays.copyOf(mark, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+    }
+
+    private static int[] append(int[] list, int count, int value) {
+        if (list == null) list = new int[4];
+        else if (count == list.length) list = Arrays.copyOf(list, count * 2);
+        list[count] = value;
+        return list;
+    }
+
+    // Swap-remove; order within a list does not matter
+    private static int remove(int[] list, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (list[i] == value) {
+                list[i] = list[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+}
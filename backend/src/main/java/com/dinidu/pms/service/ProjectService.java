@@ -1,45 +1,70 @@
 package com.dinidu.pms.service;
 
+import com.dinidu.pms.dto.CriticalPathResponse;
 import com.dinidu.pms.dto.ProjectRequest;
+import com.dinidu.pms.entity.DeletionJob;
 import com.dinidu.pms.entity.Project;
 import com.dinidu.pms.entity.Team;
 import com.dinidu.pms.entity.User;
 import com.dinidu.pms.repo.ProjectRepository;
 import com.dinidu.pms.repo.TeamRepository;
+import com.dinidu.pms.security.AuthorizationMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final CascadeDeleter cascadeDeleter;
     private final TeamRepository teamRepository;
     private final UserService userService;
+    private final AuthorizationMetrics authorizationMetrics;
+    private final TaskDependencyGraphs dependencyGraphs;
 
+    @Transactional(readOnly = true)
     public List<Project> getAllProjects() {
-        User currentUser = getCurrentUser();
-        boolean admin = currentUser.getRole() == User.Role.ADMIN;
-        return projectRepository.findAccessibleProjectsFor(currentUser, admin);
+        return getAllProjects(getCurrentUser());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Project> getAllProjects(User user) {
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        return projectRepository.findAccessibleProjectsFor(user, admin);
     }
 
+    @Transactional(readOnly = true)
     public Project getProjectById(Long id) {
-        return projectRepository.findById(id)
+        return projectRepository.findLiveById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
     }
 
+    /**
+     * Earliest/latest dates, slack and the critical path of the project's open tasks (see {@link TaskDependencyGraphs}).
+     */
+    @Transactional(readOnly = true)
+    public CriticalPathResponse getCriticalPath(Long id) {
+        return dependencyGraphs.criticalPath(getProjectById(id));
+    }
+
     @PreAuthorize("!hasRole('GUEST')")
     public Project createProject(ProjectRequest request) {
         User currentUser = getCurrentUser();
 
         Team team = null;
         if (request.getTeamId() != null) {
-            team = teamRepository.findById(request.getTeamId())
+            team = teamRepository.findLiveById(request.getTeamId())
                     .orElseThrow(() -> new RuntimeException("Team not found"));
             boolean admin = currentUser.getRole() == User.Role.ADMIN;
             boolean inTeam = team.getOwner().getId().equals(currentUser.getId())
@@ -71,6 +96,12 @@ public class ProjectService {
             throw new RuntimeException("Access denied");
         }
 
+        if (request.getVersion() != null && !request.getVersion().equals(project.getVersion())) {
+            List<String> overwritten = overwrittenFields(project, request);
+            if (overwritten.isEmpty()) return project;
+            throw new EditConflictException(project, overwritten);
+        }
+
         project.setName(request.getName());
         project.setDescription(request.getDescription());
         if (request.getStatus() != null) {
@@ -80,7 +111,7 @@ public class ProjectService {
         project.setEndDate(request.getEndDate());
 
         if (request.getTeamId() != null) {
-            Team team = teamRepository.findById(request.getTeamId())
+            Team team = teamRepository.findLiveById(request.getTeamId())
                     .orElseThrow(() -> new RuntimeException("Team not found"));
             boolean admin = currentUser.getRole() == User.Role.ADMIN;
             boolean inTeam = team.getOwner().getId().equals(currentUser.getId())
@@ -91,11 +122,20 @@ public class ProjectService {
             project.setTeam(team);
         }
 
-        return projectRepository.save(project);
+        try {
+            return projectRepository.save(project);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // updated between our read and this write; the rollback cleared the context, so this reads the winner
+            throw new EditConflictException(getProjectById(id), List.of());
+        }
     }
 
+    /**
+     * Hides the project and its tasks now; {@link CascadeDeleter} removes them in the background.
+     */
     @PreAuthorize("!hasRole('GUEST')")
-    public void deleteProject(Long id) {
+    @Transactional
+    public DeletionJob deleteProject(Long id) {
         Project project = getProjectById(id);
         User currentUser = getCurrentUser();
 
@@ -103,10 +143,29 @@ public class ProjectService {
             throw new RuntimeException("Access denied");
         }
 
-        projectRepository.delete(project);
+        project.setDeletedAt(LocalDateTime.now());
+        projectRepository.save(project);
+        return cascadeDeleter.schedule(DeletionJob.Kind.PROJECT, project.getId(), currentUser.getUsername());
+    }
+
+    // Fields a stale full update would change on the current project
+    private static List<String> overwrittenFields(Project current, ProjectRequest request) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(current.getName(), request.getName())) fields.add("name");
+        if (!Objects.equals(current.getDescription(), request.getDescription())) fields.add("description");
+        if (request.getStatus() != null && current.getStatus() != request.getStatus()) fields.add("status");
+        if (!Objects.equals(current.getStartDate(), request.getStartDate())) fields.add("startDate");
+        if (!Objects.equals(current.getEndDate(), request.getEndDate())) fields.add("endDate");
+        Long teamId = current.getTeam() != null ? current.getTeam().getId() : null;
+        if (request.getTeamId() != null && !request.getTeamId().equals(teamId)) fields.add("teamId");
+        return fields;
     }
 
     private boolean canManageProject(User currentUser, Project project) {
+        return authorizationMetrics.record("canManageProject", () -> evaluateCanManageProject(currentUser, project));
+    }
+
+    private boolean evaluateCanManageProject(User currentUser, Project project) {
         if (currentUser.getRole() == User.Role.ADMIN) return true;
         if (project.getOwner() != null && project.getOwner().getId().equals(currentUser.getId())) return true;
         if (project.getTeam() != null) {
@@ -0,0 +1,160 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Tag;
+import com.dinidu.pms.repo.TagRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Interned tag strings: name to small int id and back, held in memory for the whole dictionary.
+ * Tasks store ids only; names are resolved here when tasks are rendered, and new names are inserted
+ * into {@code tags} on first use. The sorted name map doubles as the source for tag suggestions.
+ */
+@Component
+public class TagDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(TagDictionary.class);
+
+    public static final int MAX_NAME_LENGTH = 50;
+    public static final int MAX_TAGS_PER_TASK = 20;
+
+    private final TagRepository tagRepository;
+    private final ConcurrentSkipListMap<String, Integer> idsByName = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    public TagDictionary(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        List<Tag> tags = tagRepository.findAll();
+        tags.forEach(this::remember);
+        log.info("Loaded {} tags", tags.size());
+    }
+
+    /**
+     * Trimmed, lower-cased, inner whitespace collapsed to one space; null if nothing is left.
+     */
+    public static String normalize(String name) {
+        if (name == null) return null;
+        String normalized = name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * The distinct normalized names, blanks dropped; null stays null.
+     */
+    public static Set<String> normalizeAll(Collection<String> names) {
+        if (names == null) return null;
+        Set<String> normalized = new HashSet<>();
+        for (String name : names) {
+            String n = normalize(name);
+            if (n != null) normalized.add(n);
+        }
+        return normalized;
+    }
+
+    /**
+     * Ids for the given names, creating dictionary entries for new ones.
+     *
+     * @throws IllegalArgumentException for more than {@link #MAX_TAGS_PER_TASK} tags or an over-long name
+     */
+    public Set<Integer> intern(Collection<String> names) {
+        Set<Integer> ids = new HashSet<>();
+        if (names == null) return ids;
+        for (String raw : names) {
+            String name = normalize(raw);
+            if (name == null) continue;
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Tag is longer than " + MAX_NAME_LENGTH + " characters: " + name);
+            }
+            ids.add(intern(name));
+        }
+        if (ids.size() > MAX_TAGS_PER_TASK) {
+            throw new IllegalArgumentException("A task can have at most " + MAX_TAGS_PER_TASK + " tags");
+        }
+        return ids;
+    }
+
+    /**
+     * Id of an existing tag, or null; never creates one.
+     */
+    public Integer idOf(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) return null;
+        Integer id = idsByName.get(normalized);
+        if (id != null) return id;
+        // created on another node since we loaded
+        return tagRepository.findByName(normalized).map(this::remember).orElse(null);
+    }
+
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name != null) return name;
+        return tagRepository.findById(id).map(tag -> {
+            remember(tag);
+            return tag.getName();
+        }).orElse(null);
+    }
+
+    public List<String> namesOf(Collection<Integer> ids) {
+        List<String> names = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            String name = nameOf(id);
+            if (name != null) names.add(name);
+        }
+        names.sort(null);
+        return names;
+    }
+
+    /**
+     * Up to {@code limit} tags starting with {@code prefix}, most used first.
+     */
+    public List<String> suggest(String prefix, int limit, IntToLongFunction usage) {
+        String from = prefix == null ? "" : prefix.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        Map<String, Integer> matches = from.isEmpty()
+                ? idsByName
+                : idsByName.subMap(from, true, from + Character.MAX_VALUE, true);
+        return matches.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Integer> e) -> usage.applyAsLong(e.getValue()))
+                        .reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(Math.max(0, limit))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // No lock: a new name is rare, and two requests racing to insert it are settled by the unique name index
+    private int intern(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) return id;
+        try {
+            return remember(tagRepository.save(Tag.builder().name(name).build()));
+        } catch (DataIntegrityViolationException ex) {
+            // another request or node inserted it first
+            return tagRepository.findByName(name).map(this::remember).orElseThrow(() -> ex);
+        }
+    }
+
+    private int remember(Tag tag) {
+        namesById.put(tag.getId(), tag.getName());
+        idsByName.put(tag.getName(), tag.getId());
+        return tag.getId();
+    }
+}
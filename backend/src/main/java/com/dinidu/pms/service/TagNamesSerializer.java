@@ -0,0 +1,30 @@
+package com.dinidu.pms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Writes a task's tag ids as their names, from {@link TagDictionary} rather than a join per task.
+ * Spring's Jackson setup creates it as a bean, which is how the dictionary gets injected.
+ */
+public class TagNamesSerializer extends JsonSerializer<Collection<Integer>> {
+
+    private final TagDictionary tagDictionary;
+
+    public TagNamesSerializer(TagDictionary tagDictionary) {
+        this.tagDictionary = tagDictionary;
+    }
+
+    @Override
+    public void serialize(Collection<Integer> ids, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartArray();
+        for (String name : tagDictionary.namesOf(ids)) {
+            gen.writeString(name);
+        }
+        gen.writeEndArray();
+    }
+}
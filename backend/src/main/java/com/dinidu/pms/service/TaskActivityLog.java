@@ -0,0 +1,307 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.dto.TaskActivityPage;
+import com.dinidu.pms.entity.TaskActivity;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.TaskActivityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task history without synchronous audit inserts. Request threads only put rows on a bounded in-memory queue;
+ * a single writer drains it and writes each batch as one multi-row INSERT in one transaction. Requests wait
+ * only when the queue is full: they block for up to {@code activity.max-block-ms} for room, and if there is
+ * still none they write their own rows inline, so history is slowed down rather than lost. A batch that fails
+ * is retried with backoff up to {@code activity.max-attempts} times, then dropped and counted.
+ *
+ * Ids are time-ordered: milliseconds since 2025-01-01 UTC in the high bits, then a 4-bit node id and an
+ * 8-bit sequence (52 bits in all, so they survive a JSON number). A month partition of {@code task_activity}
+ * therefore starts at {@code firstIdAt(first day of the month)}:
+ * <pre>
+ * ALTER TABLE task_activity PARTITION BY RANGE (id) (PARTITION p2025_01 VALUES LESS THAN (...), ...)
+ * </pre>
+ * Rows still queued are not yet visible in {@link #page}; the writer normally catches up within a poll
+ * (200 ms). Whatever is queued on shutdown is written before the context closes.
+ */
+@Component
+public class TaskActivityLog {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskActivityLog.class);
+
+    private static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final int MAX_VALUE_LENGTH = 2000;
+    private static final int ROWS_PER_INSERT = 500;
+    private static final String INSERT = "insert into task_activity "
+            + "(id, task_id, actor_id, actor, action, field, old_value, new_value, occurred_at) values ";
+    private static final String ROW = "(?,?,?,?,?,?,?,?,?)";
+
+    public record Change(String field, String oldValue, String newValue) {
+    }
+
+    private final TaskActivityRepository activityRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final BlockingQueue<TaskActivity> queue;
+    private final int batchSize;
+    private final long maxBlockMillis;
+    private final int maxAttempts;
+    private final long node;
+    private final ExecutorService writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer backpressure;
+    private volatile boolean running = true;
+
+    private long lastId;
+
+    public TaskActivityLog(TaskActivityRepository activityRepository,
+                           JdbcTemplate jdbc,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${activity.queue-capacity:10000}") int queueCapacity,
+                           @Value("${activity.batch-size:500}") int batchSize,
+                           @Value("${activity.max-block-ms:200}") long maxBlockMillis,
+                           @Value("${activity.max-attempts:5}") int maxAttempts,
+                           @Value("${activity.node-id:-1}") int nodeId) {
+        this.activityRepository = activityRepository;
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // inline writes can run from an afterCommit callback, where the finished transaction is still bound
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBlockMillis = Math.max(0, maxBlockMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        // nodes sharing an id only risk a duplicate key, which the writer resolves by renumbering
+        this.node = (nodeId >= 0 ? nodeId : ThreadLocalRandom.current().nextInt()) & ((1 << NODE_BITS) - 1);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "task-activity-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.execute(this::run);
+
+        Gauge.builder("pms.activity.queue.depth", queue, BlockingQueue::size)
+                .description("Task activity rows waiting to be written")
+                .register(meterRegistry);
+        this.written = Counter.builder("pms.activity.written")
+                .description("Task activity rows written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("pms.activity.dropped")
+                .description("Task activity rows lost after repeated write failures")
+                .register(meterRegistry);
+        this.backpressure = Timer.builder("pms.activity.backpressure")
+                .description("Time requests waited on a full task activity queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues one row per change, or a single row without a field when there are none (create, delete...).
+     * Returns at once unless the queue is full.
+     */
+    public void record(Long taskId, User actor, TaskActivity.Action action, List<Change> changes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskActivity> rows = new ArrayList<>(Math.max(1, changes.size()));
+        if (changes.isEmpty()) {
+            rows.add(row(taskId, actor, action, null, now));
+        } else {
+            for (Change change : changes) rows.add(row(taskId, actor, action, change, now));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (queue.offer(rows.get(i)) || enqueueWaiting(rows.get(i))) continue;
+            // waited once already; the rest of this change goes straight to the database
+            writeInline(new ArrayList<>(rows.subList(i, rows.size())));
+            return;
+        }
+    }
+
+    /**
+     * Up to {@code limit} rows of the task's history older than {@code before} (all when null), newest first.
+     */
+    public TaskActivityPage page(Long taskId, Long before, int limit) {
+        int size = Math.min(Math.max(limit, 1), 100);
+        List<TaskActivity> items = before == null
+                ? activityRepository.findByTaskIdOrderByIdDesc(taskId, PageRequest.ofSize(size))
+                : activityRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, before, PageRequest.ofSize(size));
+        Long next = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return new TaskActivityPage(items, next);
+    }
+
+    /**
+     * The smallest id of a row recorded at or after {@code time}, e.g. a partition boundary.
+     */
+    public static long firstIdAt(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.max(0, millis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<TaskActivity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Writing {} queued task activity rows before shutdown", remaining.size());
+            writeInline(remaining);
+        }
+    }
+
+    private TaskActivity row(Long taskId, User actor, TaskActivity.Action action, Change change, LocalDateTime at) {
+        return TaskActivity.builder()
+                .id(nextId())
+                .taskId(taskId)
+                .actorId(actor != null ? actor.getId() : null)
+                .actor(actor != null ? actor.getUsername() : null)
+                .action(action)
+                .field(change != null ? change.field() : null)
+                .oldValue(change != null ? truncate(change.oldValue()) : null)
+                .newValue(change != null ? truncate(change.newValue()) : null)
+                .occurredAt(at)
+                .build();
+    }
+
+    // Backpressure: the only place a request waits on the log
+    private boolean enqueueWaiting(TaskActivity row) {
+        long start = System.nanoTime();
+        try {
+            return queue.offer(row, maxBlockMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            backpressure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeInline(List<TaskActivity> rows) {
+        try {
+            write(rows);
+        } catch (RuntimeException ex) {
+            dropped.increment(rows.size());
+            log.warn("Could not write {} task activity rows", rows.size(), ex);
+        }
+    }
+
+    private void run() {
+        List<TaskActivity> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                TaskActivity first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<TaskActivity> batch) throws InterruptedException {
+        long backoff = 100;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    dropped.increment(batch.size());
+                    log.error("Dropping {} task activity rows after {} attempts", batch.size(), attempt, ex);
+                    return;
+                }
+                log.warn("Task activity write failed (attempt {}); retrying in {} ms", attempt, backoff, ex);
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 5000);
+            }
+        }
+    }
+
+    private void write(List<TaskActivity> rows) {
+        try {
+            insert(rows);
+        } catch (DuplicateKeyException ex) {
+            // another node with the same node id took these ids; the retry gets fresh ones
+            rows.forEach(row -> row.setId(nextId()));
+            throw ex;
+        }
+        written.increment(rows.size());
+    }
+
+    private void insert(List<TaskActivity> rows) {
+        transaction.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += ROWS_PER_INSERT) {
+                List<TaskActivity> chunk = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_INSERT));
+                StringBuilder sql = new StringBuilder(INSERT.length() + chunk.size() * (ROW.length() + 1)).append(INSERT);
+                List<Object> args = new ArrayList<>(chunk.size() * 9);
+                for (TaskActivity row : chunk) {
+                    if (args.size() > 0) sql.append(',');
+                    sql.append(ROW);
+                    args.add(row.getId());
+                    args.add(row.getTaskId());
+                    args.add(row.getActorId());
+                    args.add(row.getActor());
+                    args.add(row.getAction().name());
+                    args.add(row.getField());
+                    args.add(row.getOldValue());
+                    args.add(row.getNewValue());
+                    args.add(row.getOccurredAt());
+                }
+                jdbc.update(sql.toString(), args.toArray());
+            }
+        });
+    }
+
+    // Monotonic on this node even if the clock steps back; a full millisecond borrows the next one
+    private synchronized long nextId() {
+        long millis = Math.max(0, System.currentTimeMillis() - EPOCH_MILLIS);
+        long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS);
+        if (id <= lastId) {
+            long sequence = (lastId & ((1 << SEQUENCE_BITS) - 1)) + 1;
+            id = sequence < (1 << SEQUENCE_BITS)
+                    ? lastId + 1
+                    : (((lastId >>> (NODE_BITS + SEQUENCE_BITS)) + 1) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS);
+        }
+        lastId = id;
+        return id;
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH);
+    }
+}
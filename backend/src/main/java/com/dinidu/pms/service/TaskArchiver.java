@@ -0,0 +1,140 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.repo.ArchivedTaskRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves cold tasks (DONE, not updated for {@code tasks.archive.after-days}) from {@code tasks} to
+ * {@code tasks_archive}, so the RBAC list and count queries only scan live work.
+ *
+ * Each run works in batches of {@code batch-size}: one short transaction locks the next batch of ids
+ * (skipping rows someone else holds), copies them and deletes them, then pauses {@code batch-pause-ms}
+ * before the next. Row locks are therefore held for one batch at a time. Tasks with a pending coalesced
+ * move are left for the next run. Tasks that block or are blocked by another task are not archived at all,
+ * because tasks_archive keeps no dependency links and a restore could not bring them back; removing the
+ * links makes them eligible. {@code tasks.archive.after-days=0} turns archiving off.
+ */
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private record Batch(int locked, List<Long> moved) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskMoveCoalescer taskMoveCoalescer;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskDependencyGraphs dependencyGraphs;
+    private final TransactionTemplate transaction;
+    private final int afterDays;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Counter archived;
+    private volatile boolean stopping;
+
+    public TaskArchiver(TaskRepository taskRepository,
+                        ArchivedTaskRepository archivedTaskRepository,
+                        TaskMoveCoalescer taskMoveCoalescer,
+                        TaskTagIndex taskTagIndex,
+                        TaskDependencyGraphs dependencyGraphs,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${tasks.archive.after-days:90}") int afterDays,
+                        @Value("${tasks.archive.batch-size:500}") int batchSize,
+                        @Value("${tasks.archive.batch-pause-ms:200}") long batchPauseMillis,
+                        @Value("${tasks.archive.interval-minutes:60}") long intervalMinutes) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskMoveCoalescer = taskMoveCoalescer;
+        this.taskTagIndex = taskTagIndex;
+        this.dependencyGraphs = dependencyGraphs;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        if (afterDays > 0) {
+            long interval = Math.max(1, intervalMinutes);
+            scheduler.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.MINUTES);
+        }
+
+        this.archived = Counter.builder("pms.tasks.archived")
+                .description("Tasks moved to tasks_archive")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Archives everything currently eligible, batch by batch.
+     *
+     * @return the number of tasks moved
+     */
+    public int archiveNow() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int total = 0;
+        while (!stopping) {
+            Batch batch = transaction.execute(status -> archiveBatch(cutoff));
+            if (batch == null) break;
+            total += batch.moved().size();
+            archived.increment(batch.moved().size());
+            taskTagIndex.removeTasks(batch.moved());
+            dependencyGraphs.tasksRemoved(batch.moved());
+            // a short batch means nothing is left; a batch of only pending moves would just repeat
+            if (batch.locked() < batchSize || batch.moved().isEmpty()) break;
+            try {
+                Thread.sleep(batchPauseMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+
+    private Batch archiveBatch(LocalDateTime cutoff) {
+        List<Long> locked = taskRepository.lockArchivableIds(cutoff, batchSize);
+        List<Long> ids = locked.stream().filter(id -> !taskMoveCoalescer.isPending(id)).toList();
+        if (!ids.isEmpty()) {
+            archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+            archivedTaskRepository.copyTagsFromTasks(ids);
+            taskRepository.deleteByIds(ids);
+        }
+        return new Batch(locked.size(), ids);
+    }
+
+    private void run() {
+        try {
+            int moved = archiveNow();
+            if (moved > 0) log.info("Archived {} tasks completed more than {} days ago", moved, afterDays);
+        } catch (RuntimeException ex) {
+            log.warn("Task archiving failed; retrying on the next run", ex);
+        }
+    }
+}
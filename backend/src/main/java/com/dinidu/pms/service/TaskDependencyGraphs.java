@@ -0,0 +1,307 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.dto.CriticalPathResponse;
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.TaskDependency;
+import com.dinidu.pms.repo.ProjectRepository;
+import com.dinidu.pms.repo.TaskDependencyRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-project {@link ProjectGraph}s, cached for the planning view (at most {@code dependencies.graph.max-projects},
+ * least recently used evicted). Writes on this node update a cached graph in place once they commit. To notice
+ * writes from other nodes, every lookup compares the project's link count and highest link id with what the
+ * graph was built from (one indexed query) and reloads on a mismatch. Status changes made elsewhere only move
+ * durations, so those are picked up by reloading graphs older than {@code dependencies.graph.ttl-seconds}.
+ *
+ * Call lookups inside a transaction. {@link #link} runs its own at READ COMMITTED, taking the project's row lock
+ * ({@code ProjectRepository.lockById}) before anything else, so the signature and links it checks cycles against
+ * are read after the lock is granted and include every link committed by an earlier holder. (Under REPEATABLE
+ * READ, a snapshot fixed by an earlier read, or by the waiting statement itself on some databases, would hide them.)
+ */
+@Component
+public class TaskDependencyGraphs {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDependencyGraphs.class);
+
+    private record Signature(long count, long maxId) {
+    }
+
+    private static final class Entry {
+        final ProjectGraph graph;
+        final long loadedAtNanos;
+        // the links the graph reflects; adjusted along with local writes
+        volatile Signature signature;
+
+        Entry(ProjectGraph graph, Signature signature) {
+            this.graph = graph;
+            this.signature = signature;
+            this.loadedAtNanos = System.nanoTime();
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository dependencyRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate linkTransaction;
+    private final long ttlNanos;
+    private final Map<Long, Entry> graphs;
+    private final Counter loads;
+
+    public TaskDependencyGraphs(TaskRepository taskRepository,
+                                TaskDependencyRepository dependencyRepository,
+                                ProjectRepository projectRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${dependencies.graph.max-projects:100}") int maxProjects,
+                                @Value("${dependencies.graph.ttl-seconds:300}") long ttlSeconds) {
+        this.taskRepository = taskRepository;
+        this.dependencyRepository = dependencyRepository;
+        this.projectRepository = projectRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // never joins the caller's transaction, whose snapshot may predate the lock
+        this.linkTransaction = new TransactionTemplate(transactionManager);
+        this.linkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.linkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        int capacity = Math.max(1, maxProjects);
+        this.graphs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        });
+
+        Gauge.builder("pms.dependency.graphs.cached", graphs, Map::size)
+                .description("Project dependency graphs held in memory")
+                .register(meterRegistry);
+        this.loads = Counter.builder("pms.dependency.graph.loads")
+                .description("Project dependency graphs built from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The project's current graph, built or rebuilt if needed.
+     */
+    ProjectGraph graph(Long projectId) {
+        Signature current = signature(projectId);
+        Entry entry = graphs.get(projectId);
+        if (entry != null && current.equals(entry.signature) && System.nanoTime() - entry.loadedAtNanos < ttlNanos) {
+            return entry.graph;
+        }
+        return load(projectId, current).graph;
+    }
+
+    /**
+     * Stores task {@code taskId} blocked by {@code blockerId}, both live tasks of {@code projectId}, in a
+     * transaction of its own, and applies the link to the cached graph once it has committed.
+     *
+     * @throws DependencyCycleException if {@code taskId} already blocks {@code blockerId}, directly or not
+     */
+    TaskDependency link(Long projectId, Long blockerId, Long taskId) {
+        TaskDependency dependency = linkTransaction.execute(status -> {
+            projectRepository.lockById(projectId);
+            ProjectGraph graph = graph(projectId);
+            if (!graph.contains(blockerId) || !graph.contains(taskId)) {
+                // created on another node since the graph was built
+                graph = load(projectId, signature(projectId)).graph;
+            }
+            List<Long> cycle = graph.cycleThrough(blockerId, taskId);
+            if (cycle != null) throw new DependencyCycleException(cycle);
+            return dependencyRepository.findPair(taskId, blockerId)
+                    .orElseGet(() -> dependencyRepository.save(TaskDependency.builder()
+                            .task(taskRepository.getReferenceById(taskId))
+                            .blockedBy(taskRepository.getReferenceById(blockerId))
+                            .projectId(projectId)
+                            .build()));
+        });
+        linked(projectId, dependency);
+        return dependency;
+    }
+
+    /**
+     * @return the removed link, if there was one
+     */
+    TaskDependency unlink(Long taskId, Long blockedById) {
+        TaskDependency dependency = dependencyRepository.findPair(taskId, blockedById).orElse(null);
+        if (dependency != null) dependencyRepository.delete(dependency);
+        return dependency;
+    }
+
+    /**
+     * Drops every link of a task that moved to another project.
+     */
+    void unlinkAll(Long taskId) {
+        transaction.executeWithoutResult(status -> dependencyRepository.deleteByTaskId(taskId));
+    }
+
+    // ---- local writes, applied once committed; graphs that are not cached are left alone
+
+    private void linked(Long projectId, TaskDependency dependency) {
+        Entry entry = graphs.get(projectId);
+        if (entry == null) return;
+        Signature before = entry.signature;
+        try {
+            if (entry.graph.addEdge(dependency.getBlockedById(), dependency.getTaskId())) {
+                entry.signature = new Signature(before.count() + 1, Math.max(before.maxId(), dependency.getId()));
+            }
+        } catch (RuntimeException ex) {
+            // the cached graph disagrees with what was just committed; rebuild it on the next lookup
+            graphs.remove(projectId);
+        }
+    }
+
+    void unlinked(Long projectId, TaskDependency dependency) {
+        Entry entry = graphs.get(projectId);
+        if (entry == null) return;
+        Signature before = entry.signature;
+        // if it held the highest id, the next lookup sees a different maximum and reloads
+        if (entry.graph.removeEdge(dependency.getBlockedById(), dependency.getTaskId())) {
+            entry.signature = new Signature(before.count() - 1, before.maxId());
+        }
+    }
+
+    /**
+     * A task was created, edited, moved between columns or restored; {@code previousProjectId} is where it was
+     * before (null if nowhere).
+     */
+    void taskSaved(Long previousProjectId, Long projectId, Long taskId, Task.Status status) {
+        if (previousProjectId != null && !previousProjectId.equals(projectId)) taskRemoved(previousProjectId, taskId);
+        if (projectId == null) return;
+        Entry entry = graphs.get(projectId);
+        if (entry != null) entry.graph.addTask(taskId, status != Task.Status.DONE);
+    }
+
+    void taskRemoved(Long projectId, Long taskId) {
+        if (projectId == null) return;
+        Entry entry = graphs.get(projectId);
+        if (entry != null) removeTask(entry, taskId);
+    }
+
+    /**
+     * Tasks that left the live table in bulk (archived), without knowing their projects.
+     */
+    void tasksRemoved(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return;
+        List<Entry> entries;
+        synchronized (graphs) {
+            entries = new ArrayList<>(graphs.values());
+        }
+        for (Entry entry : entries) {
+            for (Long taskId : taskIds) removeTask(entry, taskId);
+        }
+    }
+
+    void projectsRemoved(Collection<Long> projectIds) {
+        projectIds.forEach(graphs::remove);
+    }
+
+    /**
+     * Earliest and latest dates and slack of every open task, against the project's end date.
+     */
+    CriticalPathResponse criticalPath(Project project) {
+        ProjectGraph graph = graph(project.getId());
+        List<long[]> open = new ArrayList<>();
+        int[] length = {0};
+        graph.forEachInOrder((taskId, duration, head, tail) -> {
+            length[0] = Math.max(length[0], head);
+            if (duration > 0) open.add(new long[]{taskId, duration, head, tail});
+        });
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = project.getStartDate() != null && project.getStartDate().isAfter(today)
+                ? project.getStartDate() : today;
+        LocalDate end = project.getEndDate();
+        // days available, counting the end date itself
+        long available = end != null ? ChronoUnit.DAYS.between(start, end) + 1 : length[0];
+
+        long minSlack = Long.MAX_VALUE;
+        for (long[] node : open) minSlack = Math.min(minSlack, available - (node[2] + node[3] - node[1]));
+        List<Long> criticalPath = new ArrayList<>();
+        List<CriticalPathResponse.TaskSchedule> tasks = new ArrayList<>(open.size());
+        for (long[] node : open) {
+            long duration = node[1];
+            long head = node[2];
+            long tail = node[3];
+            long slack = available - (head + tail - duration);
+            boolean critical = slack == minSlack;
+            if (critical) criticalPath.add(node[0]);
+            tasks.add(new CriticalPathResponse.TaskSchedule(node[0],
+                    start.plusDays(head - duration),
+                    start.plusDays(head - 1),
+                    start.plusDays(available - tail),
+                    start.plusDays(available - tail + duration - 1),
+                    (int) slack,
+                    critical));
+        }
+        return CriticalPathResponse.builder()
+                .projectId(project.getId())
+                .planStart(start)
+                .endDate(end)
+                .projectedFinish(length[0] > 0 ? start.plusDays(length[0] - 1) : null)
+                .behindSchedule(end != null && length[0] > available)
+                .criticalPath(criticalPath)
+                .tasks(tasks)
+                .build();
+    }
+
+    private void removeTask(Entry entry, Long taskId) {
+        Signature before = entry.signature;
+        int edges = entry.graph.removeTask(taskId);
+        // the database dropped the same links by cascade
+        if (edges > 0) entry.signature = new Signature(before.count() - edges, before.maxId());
+    }
+
+    private Entry load(Long projectId, Signature signature) {
+        List<Object[]> taskRows = taskRepository.findIdsAndStatusByProjectId(projectId);
+        long[] taskIds = new long[taskRows.size()];
+        boolean[] open = new boolean[taskRows.size()];
+        for (int i = 0; i < taskRows.size(); i++) {
+            taskIds[i] = ((Number) taskRows.get(i)[0]).longValue();
+            open[i] = taskRows.get(i)[1] != Task.Status.DONE;
+        }
+        List<Object[]> edgeRows = dependencyRepository.findEdgesByProjectId(projectId);
+        long[] blockers = new long[edgeRows.size()];
+        long[] blocked = new long[edgeRows.size()];
+        for (int i = 0; i < edgeRows.size(); i++) {
+            blockers[i] = ((Number) edgeRows.get(i)[0]).longValue();
+            blocked[i] = ((Number) edgeRows.get(i)[1]).longValue();
+        }
+        ProjectGraph graph = ProjectGraph.build(taskIds, open, blockers, blocked);
+        if (graph.skippedEdges() > 0) {
+            log.warn("Project {} has {} dependency links closing a cycle; ignoring them", projectId, graph.skippedEdges());
+        }
+        Entry entry = new Entry(graph, signature);
+        graphs.put(projectId, entry);
+        loads.increment();
+        log.debug("Loaded dependency graph of project {}: {} tasks, {} links", projectId, taskIds.length, blockers.length);
+        return entry;
+    }
+
+    private Signature signature(Long projectId) {
+        Object[] row = dependencyRepository.findSignatureByProjectId(projectId).get(0);
+        return new Signature(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+}
@@ -0,0 +1,223 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.TaskActivity;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces board moves (status-only task updates). A move is held in memory for up to {@code window-ms}
+ * from the first move of that task; later moves replace its target status, and only the final status is
+ * written. Due moves are written together in one transaction, so a card dragged across three columns
+ * costs one UPDATE inside one shared commit instead of three transactions.
+ *
+ * Reads on this node see pending moves through {@link #overlay}, including the version the write will
+ * produce (one bump per window), so a client can keep editing the task it just moved. Any other write to a
+ * task on this node first {@link #flush}es its pending move so ordering and version checks stay intact, and
+ * everything pending is written on shutdown. Per-status counts and other nodes catch up when the window
+ * closes. A write served by another node inside the window is not overwritten: the move is only written if
+ * the row is still at the version it was based on, or still has the status it was moved from.
+ *
+ * The move's other effects wait for its write as well: once the transaction commits, the cached dependency
+ * graph sees the new status and the task's history gets one MOVED entry for the net change, attributed to
+ * whoever moved the card last. A move that is discarded or fails for good leaves no trace.
+ * {@code tasks.move-coalescing.window-ms=0} turns coalescing off.
+ */
+@Component
+public class TaskMoveCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskMoveCoalescer.class);
+
+    // version and from: the row's version and status before the first move of the window
+    private record PendingMove(Long projectId, Long version, Task.Status from, Task.Status status, User actor,
+                               long dueAtNanos) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskDependencyGraphs dependencyGraphs;
+    private final TaskActivityLog activityLog;
+    private final TransactionTemplate transaction;
+    private final long windowNanos;
+    private final ConcurrentHashMap<Long, PendingMove> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter superseded;
+
+    public TaskMoveCoalescer(TaskRepository taskRepository,
+                             TaskDependencyGraphs dependencyGraphs,
+                             TaskActivityLog activityLog,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${tasks.move-coalescing.window-ms:1000}") long windowMillis) {
+        this.taskRepository = taskRepository;
+        this.dependencyGraphs = dependencyGraphs;
+        this.activityLog = activityLog;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-move-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        if (windowMillis > 0) {
+            long interval = Math.max(20, windowMillis / 4);
+            flusher.scheduleWithFixedDelay(this::flushDue, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("pms.task.moves.pending", pending, Map::size)
+                .description("Task moves held for coalescing")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("pms.task.moves.coalesced")
+                .description("Task moves absorbed into a later move of the same task")
+                .register(meterRegistry);
+        this.written = Counter.builder("pms.task.moves.written")
+                .description("Coalesced task moves written to the database")
+                .register(meterRegistry);
+        this.superseded = Counter.builder("pms.task.moves.superseded")
+                .description("Coalesced task moves dropped because the task was deleted or its status changed meanwhile")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return windowNanos > 0;
+    }
+
+    /**
+     * Records a move of {@code task}, as loaded (and overlaid), to {@code status} by {@code actor}, and overlays
+     * it onto the task. The status is written when the window opened by the task's first pending move closes.
+     */
+    public Task submit(Task task, Long projectId, Task.Status status, User actor) {
+        long now = System.nanoTime();
+        pending.compute(task.getId(), (id, previous) -> {
+            if (previous == null) {
+                return new PendingMove(projectId, task.getVersion(), task.getStatus(), status, actor, now + windowNanos);
+            }
+            coalesced.increment();
+            return new PendingMove(projectId, previous.version(), previous.from(), status, actor, previous.dueAtNanos());
+        });
+        return overlay(task);
+    }
+
+    /**
+     * Applies the pending status, if any, so readers see the move before it is written, along with the version
+     * its write will produce. Applying it twice is harmless. The entity is not saved here; the pending write
+     * carries the change.
+     */
+    public Task overlay(Task task) {
+        if (task != null && !pending.isEmpty()) {
+            PendingMove move = pending.get(task.getId());
+            if (move != null) {
+                task.setStatus(move.status());
+                task.setVersion(Math.max(task.getVersion(), move.version() + 1));
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Writes the task's pending move now; call before any other write to the task.
+     */
+    public void flush(Long taskId) {
+        PendingMove move = pending.remove(taskId);
+        if (move != null) write(Map.of(taskId, move));
+    }
+
+    public boolean isPending(Long taskId) {
+        return pending.containsKey(taskId);
+    }
+
+    /**
+     * Drops the task's pending move, e.g. because the task is being deleted.
+     */
+    public void discard(Long taskId) {
+        pending.remove(taskId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        Map<Long, PendingMove> remaining = take(true);
+        if (!remaining.isEmpty()) {
+            log.info("Writing {} pending task moves before shutdown", remaining.size());
+            write(remaining);
+        }
+    }
+
+    private void flushDue() {
+        try {
+            Map<Long, PendingMove> due = take(false);
+            if (!due.isEmpty()) write(due);
+        } catch (RuntimeException ex) {
+            log.warn("Task move flush failed; retrying on the next sweep", ex);
+        }
+    }
+
+    private Map<Long, PendingMove> take(boolean all) {
+        long now = System.nanoTime();
+        Map<Long, PendingMove> taken = new HashMap<>();
+        pending.forEach((id, move) -> {
+            // remove(id, move) fails if a newer move replaced it; that one is picked up next sweep
+            if ((all || now - move.dueAtNanos() >= 0) && pending.remove(id, move)) taken.put(id, move);
+        });
+        return taken;
+    }
+
+    private void write(Map<Long, PendingMove> moves) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, PendingMove> updated = new HashMap<>();
+        try {
+            transaction.executeWithoutResult(status -> moves.forEach((id, move) -> {
+                // a task deleted, or moved elsewhere, meanwhile updates nothing
+                if (taskRepository.updateStatus(id, move.version(), move.from(), move.status(), now) > 0) {
+                    updated.put(id, move);
+                }
+            }));
+            written.increment(updated.size());
+            superseded.increment(moves.size() - updated.size());
+        } catch (RuntimeException ex) {
+            // keep them for the next sweep unless a newer move for the same task arrived meanwhile
+            moves.forEach(pending::putIfAbsent);
+            throw ex;
+        }
+        updated.forEach(this::applyEffects);
+    }
+
+    // Effects of a committed move; a failure here must not put the written move back
+    private void applyEffects(Long taskId, PendingMove move) {
+        try {
+            dependencyGraphs.taskSaved(move.projectId(), move.projectId(), taskId, move.status());
+            if (move.from() != move.status()) {
+                activityLog.record(taskId, move.actor(), TaskActivity.Action.MOVED, List.of(new TaskActivityLog.Change(
+                        "status", Objects.toString(move.from(), null), move.status().name())));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply the effects of the written move of task {}", taskId, ex);
+        }
+    }
+}
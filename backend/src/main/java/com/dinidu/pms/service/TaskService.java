@@ -1,19 +1,41 @@
 package com.dinidu.pms.service;
 
+import com.dinidu.pms.dto.TaskActivityPage;
+import com.dinidu.pms.dto.TaskDependencies;
+import com.dinidu.pms.dto.TaskPatchRequest;
 import com.dinidu.pms.dto.TaskRequest;
+import com.dinidu.pms.entity.ArchivedTask;
 import com.dinidu.pms.entity.Project;
 import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.TaskActivity;
+import com.dinidu.pms.entity.TaskDependency;
 import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.ArchivedTaskRepository;
 import com.dinidu.pms.repo.ProjectRepository;
 import com.dinidu.pms.repo.TaskRepository;
 import com.dinidu.pms.repo.UserRepository;
+import com.dinidu.pms.security.AuthorizationMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,15 +45,92 @@ public class TaskService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final AuthorizationMetrics authorizationMetrics;
+    private final TaskMoveCoalescer taskMoveCoalescer;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TagDictionary tagDictionary;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskActivityLog activityLog;
+    private final TaskDependencyGraphs dependencyGraphs;
 
+    private static final int ID_CHUNK = 1000;
+
+    @Transactional(readOnly = true)
     public List<Task> getAllTasks() {
-        User currentUser = getCurrentUser();
-        boolean admin = currentUser.getRole() == User.Role.ADMIN;
-        return taskRepository.findAccessibleTasksFor(currentUser, admin);
+        return getAllTasks(getCurrentUser());
+    }
+
+    /**
+     * Live tasks, followed by archived ones (see {@link TaskArchiver}) when {@code includeArchived} is set.
+     * Archived tasks carry {@code archivedAt} and are read-only until restored.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasks(boolean includeArchived) {
+        User user = getCurrentUser();
+        List<Task> tasks = getAllTasks(user);
+        if (!includeArchived) return tasks;
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        List<Task> all = new ArrayList<>(tasks);
+        archivedTaskRepository.findAccessibleFor(user, admin).forEach(t -> all.add(t.toTask()));
+        return all;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasks(User user) {
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        List<Task> tasks = taskRepository.findAccessibleTasksFor(user, admin);
+        tasks.forEach(taskMoveCoalescer::overlay);
+        return tasks;
+    }
+
+    /**
+     * Live tasks carrying all of {@code tags}, within {@code projectId} if given, via the in-memory tag index
+     * (see {@link TaskTagIndex}) and then the usual visibility rules. Tasks tagged or moved on another node
+     * since this node's last index rebuild are not found yet.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> findTasks(Collection<String> tags, Long projectId) {
+        User user = getCurrentUser();
+        Set<Integer> tagIds = new HashSet<>();
+        Set<String> names = TagDictionary.normalizeAll(tags);
+        if (names != null) {
+            for (String name : names) {
+                Integer tagId = tagDictionary.idOf(name);
+                if (tagId == null) return new ArrayList<>();
+                tagIds.add(tagId);
+            }
+        }
+        if (tagIds.isEmpty() && projectId == null) return getAllTasks(user);
+
+        long[] candidates = taskTagIndex.find(tagIds, projectId);
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        List<Task> tasks = new ArrayList<>();
+        for (int from = 0; from < candidates.length; from += ID_CHUNK) {
+            List<Long> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(candidates.length, from + ID_CHUNK); i++) chunk.add(candidates[i]);
+            tasks.addAll(taskRepository.findAccessibleTasksByIds(user, chunk, admin));
+        }
+        // the index can trail writes made on other nodes; keep only tasks that match as loaded
+        tasks.removeIf(t -> (t.getTagIds() == null || !t.getTagIds().containsAll(tagIds))
+                || (projectId != null && !projectId.equals(projectIdOf(t))));
+        tasks.forEach(taskMoveCoalescer::overlay);
+        tasks.sort(Comparator.comparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return tasks;
+    }
+
+    /**
+     * Tag names starting with {@code prefix}, most used first.
+     */
+    public List<String> suggestTags(String prefix, int limit) {
+        return tagDictionary.suggest(prefix, Math.min(Math.max(limit, 1), 50), taskTagIndex::usage);
     }
 
+    @Transactional(readOnly = true)
     public Task getTaskById(Long id) {
         return taskRepository.findById(id)
+                // tasks of a deleted project stay hidden until the purge removes them
+                .filter(task -> task.getProject() == null || task.getProject().isLive())
+                .map(taskMoveCoalescer::overlay)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
     }
 
@@ -49,7 +148,7 @@ public class TaskService {
         // Set project if provided, and enforce RBAC
         Project project = null;
         if (request.getProjectId() != null) {
-            project = projectRepository.findById(request.getProjectId())
+            project = projectRepository.findLiveById(request.getProjectId())
                     .orElseThrow(() -> new RuntimeException("Project not found"));
             if (!canUseProject(currentUser, project)) {
                 throw new RuntimeException("Access denied for project");
@@ -67,12 +166,18 @@ public class TaskService {
         }
 
         Task task = taskBuilder.build();
+        task.setTagIds(tagDictionary.intern(request.getTags()));
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskTagIndex.update(saved.getId(), null, null, projectIdOf(saved), saved.getTagIds());
+        dependencyGraphs.taskSaved(null, projectIdOf(saved), saved.getId(), saved.getStatus());
+        recordActivity(saved.getId(), currentUser, TaskActivity.Action.CREATED, Map.of(), snapshot(saved));
+        return saved;
     }
 
     @PreAuthorize("!hasRole('GUEST')")
     public Task updateTask(Long id, TaskRequest request) {
+        taskMoveCoalescer.flush(id);
         Task task = getTaskById(id);
         User currentUser = getCurrentUser();
 
@@ -80,6 +185,17 @@ public class TaskService {
             throw new RuntimeException("Access denied");
         }
 
+        Long oldProjectId = projectIdOf(task);
+        Set<Integer> oldTagIds = tagIdsOf(task);
+        Map<String, String> before = snapshot(task);
+
+        if (request.getVersion() != null && !request.getVersion().equals(task.getVersion())) {
+            // A full replace has no base to merge against: reject it if it would overwrite anything
+            List<String> overwritten = overwrittenFields(task, request);
+            if (overwritten.isEmpty()) return task;
+            throw new EditConflictException(task, overwritten);
+        }
+
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         if (request.getStatus() != null) task.setStatus(request.getStatus());
@@ -88,22 +204,70 @@ public class TaskService {
 
         // Update project if provided (RBAC)
         if (request.getProjectId() != null) {
-            Project project = projectRepository.findById(request.getProjectId())
-                    .orElseThrow(() -> new RuntimeException("Project not found"));
-            if (!canUseProject(currentUser, project)) {
-                throw new RuntimeException("Access denied for project");
-            }
-            task.setProject(project);
+            task.setProject(usableProject(currentUser, request.getProjectId()));
         }
 
         // Update assignee if provided
         if (request.getAssigneeId() != null) {
-            User assignee = userRepository.findById(request.getAssigneeId())
-                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
-            task.setAssignee(assignee);
+            task.setAssignee(userRepository.findById(request.getAssigneeId())
+                    .orElseThrow(() -> new RuntimeException("Assignee not found")));
+        }
+
+        if (request.getTags() != null) replaceTags(task, tagDictionary.intern(request.getTags()));
+
+        Task saved = saveAndReindex(task, oldProjectId, oldTagIds);
+        recordActivity(id, currentUser, TaskActivity.Action.UPDATED, before, snapshot(saved));
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of {@code request.changes}. If the task has been updated since
+     * {@code request.version}, the change is merged as long as none of its fields were changed by someone else.
+     */
+    @PreAuthorize("!hasRole('GUEST')")
+    public Task patchTask(Long id, TaskPatchRequest request) {
+        TaskPatchRequest.Fields changes = request.getChanges();
+        boolean move = isMove(changes) && taskMoveCoalescer.isEnabled();
+        if (!move) taskMoveCoalescer.flush(id);
+
+        Task task = getTaskById(id);
+        User currentUser = getCurrentUser();
+
+        if (!canEditTask(currentUser, task)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        Long oldProjectId = projectIdOf(task);
+        Set<Integer> oldTagIds = tagIdsOf(task);
+        Map<String, String> before = snapshot(task);
+
+        if (!request.getVersion().equals(task.getVersion())) {
+            List<String> conflicts = conflictingFields(task, changes, request.getOriginal());
+            if (!conflicts.isEmpty()) throw new EditConflictException(task, conflicts);
+        }
+
+        if (move) {
+            // board moves are coalesced; the returned task shows the pending status and the version its write
+            // will produce, and the dependency graph and history follow once the coalescer has written it
+            return taskMoveCoalescer.submit(task, oldProjectId, changes.getStatus(), currentUser);
+        }
+
+        if (changes.getTitle() != null) task.setTitle(changes.getTitle());
+        if (changes.getDescription() != null) task.setDescription(changes.getDescription());
+        if (changes.getStatus() != null) task.setStatus(changes.getStatus());
+        if (changes.getPriority() != null) task.setPriority(changes.getPriority());
+        if (changes.getDueDate() != null) task.setDueDate(changes.getDueDate());
+        if (changes.getProjectId() != null) task.setProject(usableProject(currentUser, changes.getProjectId()));
+        if (changes.getAssigneeId() != null) {
+            task.setAssignee(userRepository.findById(changes.getAssigneeId())
+                    .orElseThrow(() -> new RuntimeException("Assignee not found")));
         }
+        if (changes.getTags() != null) replaceTags(task, tagDictionary.intern(changes.getTags()));
 
-        return taskRepository.save(task);
+        Task saved = saveAndReindex(task, oldProjectId, oldTagIds);
+        recordActivity(id, currentUser, isMove(changes) ? TaskActivity.Action.MOVED : TaskActivity.Action.UPDATED,
+                before, snapshot(saved));
+        return saved;
     }
 
     @PreAuthorize("!hasRole('GUEST')")
@@ -115,16 +279,274 @@ public class TaskService {
             throw new RuntimeException("Access denied");
         }
 
+        Long oldProjectId = projectIdOf(task);
+        Set<Integer> oldTagIds = tagIdsOf(task);
+        taskMoveCoalescer.discard(id);
         taskRepository.delete(task);
+        taskTagIndex.update(id, oldProjectId, oldTagIds, null, null);
+        dependencyGraphs.taskRemoved(oldProjectId, id);
+        recordActivity(id, currentUser, TaskActivity.Action.DELETED, Map.of(), Map.of());
+    }
+
+    /**
+     * Moves an archived task back into the live table, id and version unchanged, in one transaction.
+     * Archived tasks never had dependency links (linked tasks are not archived), so there are none to restore.
+     */
+    @PreAuthorize("!hasRole('GUEST')")
+    @Transactional
+    public Task restoreTask(Long id) {
+        ArchivedTask archived = archivedTaskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Archived task not found"));
+        User currentUser = getCurrentUser();
+        if (!canEditTask(currentUser, archived.toTask())) {
+            throw new RuntimeException("Access denied");
+        }
+        archivedTaskRepository.copyToTasks(id, LocalDateTime.now());
+        archivedTaskRepository.copyTagsToTasks(id);
+        archivedTaskRepository.removeById(id);
+        Task restored = getTaskById(id);
+        Long projectId = projectIdOf(restored);
+        Set<Integer> tagIds = tagIdsOf(restored);
+        Task.Status status = restored.getStatus();
+        afterCommit(() -> {
+            taskTagIndex.update(id, null, null, projectId, tagIds);
+            dependencyGraphs.taskSaved(null, projectId, id, status);
+        });
+        recordActivity(id, currentUser, TaskActivity.Action.RESTORED, Map.of(), Map.of());
+        return restored;
+    }
+
+    /**
+     * A page of the task's history, newest first (see {@link TaskActivityLog}); live or archived tasks
+     * the caller can see.
+     */
+    @Transactional(readOnly = true)
+    public TaskActivityPage getActivity(Long id, Long before, int limit) {
+        User user = getCurrentUser();
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        boolean visible = !taskRepository.findAccessibleTasksByIds(user, List.of(id), admin).isEmpty()
+                || archivedTaskRepository.findById(id).map(t -> canEditTask(user, t.toTask())).orElse(false);
+        if (!visible) throw new RuntimeException("Task not found");
+        return activityLog.page(id, before, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskDependencies getDependencies(Long id) {
+        Task task = getTaskById(id);
+        Long projectId = projectIdOf(task);
+        if (projectId == null) return new TaskDependencies(id, List.of(), List.of());
+        ProjectGraph graph = dependencyGraphs.graph(projectId);
+        return new TaskDependencies(id, idList(graph.blockersOf(id)), idList(graph.blockedBy(id)));
+    }
+
+    /**
+     * Marks task {@code id} as blocked by {@code blockedById}, another task of the same project.
+     *
+     * @throws DependencyCycleException if {@code id} already blocks {@code blockedById}, directly or through others
+     */
+    @PreAuthorize("!hasRole('GUEST')")
+    public TaskDependency addDependency(Long id, Long blockedById) {
+        if (id.equals(blockedById)) throw new RuntimeException("A task cannot block itself");
+        Task task = getTaskById(id);
+        Task blocker = getTaskById(blockedById);
+        if (!canEditTask(getCurrentUser(), task)) {
+            throw new RuntimeException("Access denied");
+        }
+        Long projectId = projectIdOf(task);
+        if (projectId == null || !projectId.equals(projectIdOf(blocker))) {
+            throw new RuntimeException("Both tasks must belong to the same project");
+        }
+        // locks the project and re-reads the links in a transaction of its own
+        return dependencyGraphs.link(projectId, blockedById, id);
+    }
+
+    @PreAuthorize("!hasRole('GUEST')")
+    @Transactional
+    public void removeDependency(Long id, Long blockedById) {
+        Task task = getTaskById(id);
+        if (!canEditTask(getCurrentUser(), task)) {
+            throw new RuntimeException("Access denied");
+        }
+        Long projectId = projectIdOf(task);
+        TaskDependency removed = dependencyGraphs.unlink(id, blockedById);
+        if (removed != null) afterCommit(() -> dependencyGraphs.unlinked(projectId, removed));
     }
 
+    @Transactional(readOnly = true)
     public Long getTaskCountByStatus(Task.Status status) {
         User currentUser = getCurrentUser();
         boolean admin = currentUser.getRole() == User.Role.ADMIN;
         return taskRepository.countAccessibleTasksByStatus(currentUser, status, admin);
     }
 
+    /**
+     * Accessible task counts for every status (zero when none), from a single grouped query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Task.Status, Long> getTaskCountsByStatus(User user) {
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        Map<Task.Status, Long> counts = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : Task.Status.values()) counts.put(status, 0L);
+        for (Object[] row : taskRepository.countAccessibleTasksGroupedByStatus(user, admin)) {
+            counts.put((Task.Status) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // A status-only change, i.e. a card dropped on another column
+    private static boolean isMove(TaskPatchRequest.Fields changes) {
+        return changes.getStatus() != null
+                && changes.getTitle() == null && changes.getDescription() == null && changes.getPriority() == null
+                && changes.getDueDate() == null && changes.getProjectId() == null && changes.getAssigneeId() == null
+                && changes.getTags() == null;
+    }
+
+    private Project usableProject(User currentUser, Long projectId) {
+        Project project = projectRepository.findLiveById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        if (!canUseProject(currentUser, project)) {
+            throw new RuntimeException("Access denied for project");
+        }
+        return project;
+    }
+
+    private Task saveAndReindex(Task task, Long oldProjectId, Set<Integer> oldTagIds) {
+        Task saved = save(task);
+        Long projectId = projectIdOf(saved);
+        taskTagIndex.update(saved.getId(), oldProjectId, oldTagIds, projectId, saved.getTagIds());
+        // dependencies stay within a project
+        if (oldProjectId != null && !oldProjectId.equals(projectId)) dependencyGraphs.unlinkAll(saved.getId());
+        dependencyGraphs.taskSaved(oldProjectId, projectId, saved.getId(), saved.getStatus());
+        return saved;
+    }
+
+    // Queued once the write commits, so a rolled-back change leaves no history
+    private void recordActivity(Long taskId, User actor, TaskActivity.Action action,
+                                Map<String, String> before, Map<String, String> after) {
+        List<TaskActivityLog.Change> changes = new ArrayList<>();
+        after.forEach((field, value) -> {
+            String old = before.get(field);
+            if (!Objects.equals(old, value)) changes.add(new TaskActivityLog.Change(field, old, value));
+        });
+        if (changes.isEmpty() && !before.isEmpty()) return;
+        afterCommit(() -> activityLog.record(taskId, actor, action, changes));
+    }
+
+    // Field values as they appear in the history; nulls for unset fields
+    private Map<String, String> snapshot(Task task) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("status", Objects.toString(task.getStatus(), null));
+        fields.put("priority", Objects.toString(task.getPriority(), null));
+        fields.put("dueDate", Objects.toString(task.getDueDate(), null));
+        fields.put("projectId", Objects.toString(projectIdOf(task), null));
+        fields.put("assigneeId", Objects.toString(assigneeIdOf(task), null));
+        List<String> tags = task.getTagIds() != null ? tagDictionary.namesOf(task.getTagIds()) : List.of();
+        fields.put("tags", tags.isEmpty() ? null : String.join(",", tags));
+        return fields;
+    }
+
+    // Edits the persistent set in place, so only the added and removed task_tags rows are written
+    private static void replaceTags(Task task, Set<Integer> tagIds) {
+        if (task.getTagIds() == null) {
+            task.setTagIds(tagIds);
+        } else {
+            task.getTagIds().retainAll(tagIds);
+            task.getTagIds().addAll(tagIds);
+        }
+    }
+
+    private static List<Long> idList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) list.add(id);
+        return list;
+    }
+
+    private static Set<Integer> tagIdsOf(Task task) {
+        return task.getTagIds() != null ? Set.copyOf(task.getTagIds()) : Set.of();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // A write racing ours between the read and this save fails the version check at flush
+    private Task save(Task task) {
+        try {
+            return taskRepository.save(task);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // the rollback cleared the persistence context, so this reads the winning state
+            throw new EditConflictException(getTaskById(task.getId()), List.of());
+        }
+    }
+
+    // Fields a stale full update would change on the current task
+    List<String> overwrittenFields(Task current, TaskRequest request) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(current.getTitle(), request.getTitle())) fields.add("title");
+        if (!Objects.equals(current.getDescription(), request.getDescription())) fields.add("description");
+        if (request.getStatus() != null && current.getStatus() != request.getStatus()) fields.add("status");
+        if (request.getPriority() != null && current.getPriority() != request.getPriority()) fields.add("priority");
+        if (!Objects.equals(current.getDueDate(), request.getDueDate())) fields.add("dueDate");
+        if (request.getProjectId() != null && !Objects.equals(projectIdOf(current), request.getProjectId())) fields.add("projectId");
+        if (request.getAssigneeId() != null && !Objects.equals(assigneeIdOf(current), request.getAssigneeId())) fields.add("assigneeId");
+        if (request.getTags() != null && !tagNamesOf(current).equals(TagDictionary.normalizeAll(request.getTags()))) fields.add("tags");
+        return fields;
+    }
+
+    // A changed field merges when its current value is still the caller's original (nobody else touched it)
+    // or already equals the new value; anything else is a concurrent change to the same field.
+    List<String> conflictingFields(Task current, TaskPatchRequest.Fields changes,
+                                   TaskPatchRequest.Fields original) {
+        boolean known = original != null;
+        TaskPatchRequest.Fields base = known ? original : new TaskPatchRequest.Fields();
+        List<String> conflicts = new ArrayList<>();
+        checkMerge("title", current.getTitle(), changes.getTitle(), base.getTitle(), known, conflicts);
+        checkMerge("description", current.getDescription(), changes.getDescription(), base.getDescription(), known, conflicts);
+        checkMerge("status", current.getStatus(), changes.getStatus(), base.getStatus(), known, conflicts);
+        checkMerge("priority", current.getPriority(), changes.getPriority(), base.getPriority(), known, conflicts);
+        checkMerge("dueDate", current.getDueDate(), changes.getDueDate(), base.getDueDate(), known, conflicts);
+        checkMerge("projectId", projectIdOf(current), changes.getProjectId(), base.getProjectId(), known, conflicts);
+        checkMerge("assigneeId", assigneeIdOf(current), changes.getAssigneeId(), base.getAssigneeId(), known, conflicts);
+        checkMerge("tags", tagNamesOf(current), TagDictionary.normalizeAll(changes.getTags()),
+                TagDictionary.normalizeAll(base.getTags()), known, conflicts);
+        return conflicts;
+    }
+
+    private static void checkMerge(String field, Object current, Object changed, Object original, boolean originalKnown,
+                                   List<String> conflicts) {
+        if (changed == null || Objects.equals(current, changed)) return;
+        if (originalKnown && Objects.equals(current, original)) return;
+        conflicts.add(field);
+    }
+
+    private static Long projectIdOf(Task task) {
+        return task.getProject() != null ? task.getProject().getId() : null;
+    }
+
+    private Set<String> tagNamesOf(Task task) {
+        return task.getTagIds() != null ? new HashSet<>(tagDictionary.namesOf(task.getTagIds())) : new HashSet<>();
+    }
+
+    private static Long assigneeIdOf(Task task) {
+        return task.getAssignee() != null ? task.getAssignee().getId() : null;
+    }
+
     private boolean canUseProject(User user, Project project) {
+        return authorizationMetrics.record("canUseProject", () -> evaluateCanUseProject(user, project));
+    }
+
+    private boolean evaluateCanUseProject(User user, Project project) {
         if (user.getRole() == User.Role.ADMIN) return true;
         // Project owner can always use
         if (project.getOwner() != null && project.getOwner().getId().equals(user.getId())) return true;
@@ -140,6 +562,10 @@ public class TaskService {
     }
 
     private boolean canEditTask(User user, Task task) {
+        return authorizationMetrics.record("canEditTask", () -> evaluateCanEditTask(user, task));
+    }
+
+    private boolean evaluateCanEditTask(User user, Task task) {
         if (user.getRole() == User.Role.ADMIN) return true;
         // Assignee can edit
         if (task.getAssignee() != null && task.getAssignee().getId().equals(user.getId())) return true;
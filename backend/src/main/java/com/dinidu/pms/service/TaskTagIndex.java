@@ -0,0 +1,248 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.repo.TagRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over live tasks: tag id to a compressed (Roaring) bitmap of task ids, and the same
+ * per project. "Tags A and B in project X" is the intersection of three bitmaps instead of a multi-way join
+ * over task_tags. Results are candidates: callers load them through the RBAC query and re-check tags, so an
+ * extra entry (a tag removed on another node, a purge) never leaks or mis-filters a task, it just costs a row.
+ * A missing entry is not caught: a task tagged or moved on another node is not found here until the next
+ * rebuild from the database, every {@code tags.index.reload-minutes} (10 by default). Local writes are never
+ * lost; those made while a rebuild reads the tables are replayed onto the rebuilt index before it is swapped in.
+ */
+@Component
+public class TaskTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTagIndex.class);
+
+    // a local write, applicable to the live maps and, if it lands during a rebuild, to the rebuilt ones
+    @FunctionalInterface
+    private interface Change {
+        void applyTo(Map<Integer, Roaring64Bitmap> byTag, Map<Long, Roaring64Bitmap> byProject);
+    }
+
+    private final TagRepository tagRepository;
+    private final TaskRepository taskRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // one rebuild at a time
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ScheduledExecutorService reloader;
+    private final long reloadMinutes;
+
+    private Map<Integer, Roaring64Bitmap> byTag = new HashMap<>();
+    private Map<Long, Roaring64Bitmap> byProject = new HashMap<>();
+    // writes made while a rebuild is reading the tables, replayed before the swap; guarded by the write lock
+    private List<Change> changedDuringReload;
+
+    public TaskTagIndex(TagRepository tagRepository,
+                        TaskRepository taskRepository,
+                        @Value("${tags.index.reload-minutes:10}") long reloadMinutes) {
+        this.tagRepository = tagRepository;
+        this.taskRepository = taskRepository;
+        this.reloadMinutes = reloadMinutes;
+        this.reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-tag-index");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void load() {
+        reload();
+        if (reloadMinutes > 0) {
+            reloader.scheduleWithFixedDelay(this::reloadQuietly, reloadMinutes, reloadMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    /**
+     * Ids of live tasks carrying every one of {@code tagIds}, within {@code projectId} when it is not null.
+     * An empty tag collection with a null project matches nothing.
+     */
+    public long[] find(Collection<Integer> tagIds, Long projectId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            if (projectId != null) {
+                Roaring64Bitmap tasks = byProject.get(projectId);
+                if (tasks == null) return new long[0];
+                result = tasks.clone();
+            }
+            for (Integer tagId : tagIds) {
+                Roaring64Bitmap tasks = byTag.get(tagId);
+                if (tasks == null) return new long[0];
+                if (result == null) {
+                    result = tasks.clone();
+                } else {
+                    result.and(tasks);
+                }
+                if (result.isEmpty()) return new long[0];
+            }
+            return result == null ? new long[0] : result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live tasks with the tag.
+     */
+    public long usage(int tagId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap tasks = byTag.get(tagId);
+            return tasks == null ? 0 : tasks.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a task from its previous project and tags to its current ones; pass nulls for a new task,
+     * or for the current state of a deleted one.
+     */
+    public void update(long taskId, Long oldProjectId, Collection<Integer> oldTagIds,
+                       Long newProjectId, Collection<Integer> newTagIds) {
+        apply((tags, projects) -> {
+            if (oldProjectId != null) remove(projects, oldProjectId, taskId);
+            if (oldTagIds != null) oldTagIds.forEach(tagId -> remove(tags, tagId, taskId));
+            if (newProjectId != null) projects.computeIfAbsent(newProjectId, k -> new Roaring64Bitmap()).addLong(taskId);
+            if (newTagIds != null) {
+                newTagIds.forEach(tagId -> tags.computeIfAbsent(tagId, k -> new Roaring64Bitmap()).addLong(taskId));
+            }
+        });
+    }
+
+    /**
+     * Drops tasks that left the live table in bulk (archived), without knowing their tags.
+     */
+    public void removeTasks(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return;
+        Roaring64Bitmap removed = new Roaring64Bitmap();
+        taskIds.forEach(removed::addLong);
+        apply((tags, projects) -> {
+            removeFromAll(tags, removed);
+            removeFromAll(projects, removed);
+        });
+    }
+
+    /**
+     * Drops every task of purged projects.
+     */
+    public void removeProjects(Collection<Long> projectIds) {
+        apply((tags, projects) -> {
+            Roaring64Bitmap removed = new Roaring64Bitmap();
+            for (Long projectId : projectIds) {
+                Roaring64Bitmap tasks = projects.remove(projectId);
+                if (tasks != null) removed.or(tasks);
+            }
+            if (!removed.isEmpty()) removeFromAll(tags, removed);
+        });
+    }
+
+    void reload() {
+        reloadLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Map<Integer, Roaring64Bitmap> tags = new HashMap<>();
+            Map<Long, Roaring64Bitmap> projects = new HashMap<>();
+            try {
+                for (Object[] row : tagRepository.findAllTaskTagPairs()) {
+                    tags.computeIfAbsent(((Number) row[1]).intValue(), k -> new Roaring64Bitmap())
+                            .addLong(((Number) row[0]).longValue());
+                }
+                for (Object[] row : taskRepository.findAllTaskProjectPairs()) {
+                    projects.computeIfAbsent(((Number) row[1]).longValue(), k -> new Roaring64Bitmap())
+                            .addLong(((Number) row[0]).longValue());
+                }
+                tags.values().forEach(Roaring64Bitmap::runOptimize);
+                projects.values().forEach(Roaring64Bitmap::runOptimize);
+            } catch (RuntimeException ex) {
+                lock.writeLock().lock();
+                try {
+                    changedDuringReload = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw ex;
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                // replaying a change the rows already reflect is a no-op
+                changedDuringReload.forEach(change -> change.applyTo(tags, projects));
+                replayed = changedDuringReload.size();
+                changedDuringReload = null;
+                byTag = tags;
+                byProject = projects;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Task tag index rebuilt: {} tags, {} projects, {} writes replayed", tags.size(), projects.size(), replayed);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Task tag index reload failed; keeping the current index", ex);
+        }
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(byTag, byProject);
+            if (changedDuringReload != null) changedDuringReload.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <K> void remove(Map<K, Roaring64Bitmap> index, K key, long taskId) {
+        Roaring64Bitmap tasks = index.get(key);
+        if (tasks == null) return;
+        tasks.removeLong(taskId);
+        if (tasks.isEmpty()) index.remove(key);
+    }
+
+    private static <K> void removeFromAll(Map<K, Roaring64Bitmap> index, Roaring64Bitmap removed) {
+        index.values().removeIf(tasks -> {
+            tasks.andNot(removed);
+            return tasks.isEmpty();
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Team;
+import com.dinidu.pms.repo.TeamRepository;
+import com.dinidu.pms.utils.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory Bloom filter over normalized team names.
+ * Lets the team-name availability check answer "free" without a database round-trip;
+ * a positive answer is always confirmed against the unique normalized_name index.
+ *
+ * A rebuild must never lose a name that is taken, so it only runs outside transactions (a caller's
+ * transaction defers it until after commit, and a rollback cancels it), and it keeps the names whose
+ * transactions had not committed yet when it read the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamNameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamNameFilter.class);
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final TeamRepository teamRepository;
+
+    // held across the table read; a ReentrantLock so a waiting virtual thread unmounts instead of pinning its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+    private long insertions;
+
+    // names added while a rebuild is reading the table; replayed into the new filter before the swap
+    private Set<String> addedDuringRebuild;
+
+    // names added by transactions that have not completed, with a count per transaction; a rebuild's read can't
+    // see them yet, so it keeps them as well
+    private final Map<String, Integer> uncommitted = new HashMap<>();
+
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return false when the normalized name is definitely not taken; true when it may be.
+     */
+    public boolean mightContain(String normalizedName) {
+        BloomFilter current = filter;
+        // not built yet: be conservative and let the database decide
+        return current == null || current.mightContain(normalizedName);
+    }
+
+    public void add(String normalizedName) {
+        if (normalizedName == null || normalizedName.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            holdUntilCompletion(normalizedName);
+        }
+        boolean grow;
+        synchronized (this) {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(normalizedName);
+            }
+            if (filter == null) return;
+            filter.put(normalizedName);
+            grow = ++insertions > filter.expectedInsertions();
+        }
+        if (grow) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        backfillNormalizedNames();
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filter from the table, e.g. to forget deleted names. Inside a transaction it runs once that
+     * transaction has committed, so the table it reads is the committed one; after a rollback it does not run.
+     */
+    public void rebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuildNow();
+                }
+            });
+        } else {
+            rebuildNow();
+        }
+    }
+
+    private void rebuildNow() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                addedDuringRebuild = new HashSet<>();
+            }
+            try {
+                List<String> names = teamRepository.findAllNormalizedNames();
+                synchronized (this) {
+                    int kept = addedDuringRebuild.size() + uncommitted.size();
+                    long capacity = Math.max(MIN_CAPACITY, (long) (names.size() + kept) * 2);
+                    BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+                    names.forEach(rebuilt::put);
+                    addedDuringRebuild.forEach(rebuilt::put);
+                    uncommitted.keySet().forEach(rebuilt::put);
+                    insertions = names.size() + kept;
+                    filter = rebuilt;
+                }
+                log.info("Team name filter rebuilt with {} names", names.size());
+            } catch (RuntimeException ex) {
+                log.error("Team name filter rebuild failed; falling back to database lookups", ex);
+                synchronized (this) {
+                    filter = null;
+                }
+            } finally {
+                synchronized (this) {
+                    addedDuringRebuild = null;
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void holdUntilCompletion(String normalizedName) {
+        synchronized (this) {
+            uncommitted.merge(normalizedName, 1, Integer::sum);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // committed: a later rebuild reads it from the table; rolled back: it was never taken
+                synchronized (TeamNameFilter.this) {
+                    uncommitted.computeIfPresent(normalizedName, (name, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        });
+    }
+
+    // Rows created before normalized_name existed have it null; fill them in once
+    private void backfillNormalizedNames() {
+        List<Team> missing = teamRepository.findByNormalizedNameIsNull();
+        if (missing.isEmpty()) return;
+        missing.forEach(t -> t.setNormalizedName(normalize(t.getName())));
+        try {
+            teamRepository.saveAll(missing);
+            log.info("Backfilled normalized name for {} teams", missing.size());
+        } catch (org.springframework.dao.DataIntegrityViolationException ex) {
+            log.error("Normalized team name backfill hit duplicate names; resolve them manually", ex);
+        }
+    }
+}
@@ -2,10 +2,11 @@ package com.dinidu.pms.service;
 
 import com.dinidu.pms.dto.TeamMembersRequest;
 import com.dinidu.pms.dto.TeamRequest;
+import com.dinidu.pms.entity.DeletionJob;
 import com.dinidu.pms.entity.Team;
 import com.dinidu.pms.entity.User;
 import com.dinidu.pms.repo.TeamRepository;
-import com.dinidu.pms.repo.UserRepository;
+import com.dinidu.pms.utils.LongHashSet;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +14,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -24,14 +29,22 @@ public class TeamService {
 
     private static final Logger log = LoggerFactory.getLogger(TeamService.class);
 
+    private static final int MEMBERSHIP_CHUNK = 500;
+
     private final TeamRepository teamRepository;
-    private final UserRepository userRepository;
     private final UserService userService;
+    private final TeamNameFilter teamNameFilter;
+    private final CascadeDeleter cascadeDeleter;
 
     @PreAuthorize("isAuthenticated()")
+    @Transactional(readOnly = true)
     public List<Team> getMyTeams() {
-        User current = currentUser();
-        return teamRepository.findTeamsForUser(current);
+        return getMyTeams(currentUser());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Team> getMyTeams(User user) {
+        return teamRepository.findTeamsForUser(user);
     }
 
     @PreAuthorize("isAuthenticated() and !hasRole('GUEST')")
@@ -53,6 +66,7 @@ public class TeamService {
 
         Team team = Team.builder()
                 .name(name)
+                .normalizedName(TeamNameFilter.normalize(name))
                 .description(req.getDescription())
                 .owner(current)
                 .build();
@@ -64,6 +78,7 @@ public class TeamService {
 
         try {
             Team saved = teamRepository.save(team);
+            teamNameFilter.add(saved.getNormalizedName());
             log.info("Team created successfully: {} for user: {}", saved.getName(), current.getUsername());
             return saved;
         } catch (org.springframework.dao.DataIntegrityViolationException ex) {
@@ -72,39 +87,92 @@ public class TeamService {
         }
     }
 
+    /**
+     * Replaces the member set with {@code request.memberIds} (the owner always stays). Only the difference
+     * from the current membership is written; unknown user ids are ignored.
+     */
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEAM_LEAD')")
+    @Transactional
     public Team updateMembers(Long teamId, TeamMembersRequest request) {
-        Team team = teamRepository.findById(teamId)
+        Team team = manageableTeam(teamId);
+        LongHashSet current = LongHashSet.of(teamRepository.findMemberIds(teamId));
+        LongHashSet desired = LongHashSet.of(request != null && request.getMemberIds() != null
+                ? request.getMemberIds() : List.of());
+        desired.add(team.getOwner().getId());
+        writeMembershipDelta(teamId, desired.minus(current), current.minus(desired));
+        return team;
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEAM_LEAD')")
+    @Transactional
+    public Team addMembers(Long teamId, Collection<Long> userIds) {
+        Team team = manageableTeam(teamId);
+        LongHashSet current = LongHashSet.of(teamRepository.findMemberIds(teamId));
+        writeMembershipDelta(teamId, LongHashSet.of(userIds).minus(current), new LongHashSet());
+        return team;
+    }
+
+    /**
+     * Removes the given users; the owner cannot be removed and ids that are not members are ignored.
+     */
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEAM_LEAD')")
+    @Transactional
+    public Team removeMembers(Long teamId, Collection<Long> userIds) {
+        Team team = manageableTeam(teamId);
+        LongHashSet current = LongHashSet.of(teamRepository.findMemberIds(teamId));
+        LongHashSet removed = new LongHashSet();
+        Long ownerId = team.getOwner().getId();
+        LongHashSet.of(userIds).forEach(id -> {
+            if (id != ownerId && current.contains(id)) removed.add(id);
+        });
+        writeMembershipDelta(teamId, new LongHashSet(), removed);
+        return team;
+    }
+
+    // TEAM_LEAD may only manage teams they belong to (owner or member); checked by id, without loading members
+    private Team manageableTeam(Long teamId) {
+        Team team = teamRepository.findLiveById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found"));
 
         User current = currentUser();
-        boolean isAdmin = current.getRole() == User.Role.ADMIN;
-
-        // TEAM_LEAD may only manage teams they belong to (owner or member)
-        if (!isAdmin) {
+        if (current.getRole() != User.Role.ADMIN) {
             boolean inTeam = team.getOwner().getId().equals(current.getId())
-                    || (team.getMembers() != null && team.getMembers().stream().anyMatch(u -> u.getId().equals(current.getId())));
+                    || teamRepository.countMembership(teamId, current.getId()) > 0;
             if (!inTeam) {
                 throw new RuntimeException("Access denied");
             }
         }
+        return team;
+    }
 
-        Set<User> newMembers = new HashSet<>();
-        if (request != null && request.getMemberIds() != null) {
-            List<User> users = userRepository.findAllById(request.getMemberIds());
-            newMembers.addAll(users);
+    // One multi-row statement per chunk of ids instead of one per membership row
+    private void writeMembershipDelta(Long teamId, LongHashSet added, LongHashSet removed) {
+        for (List<Long> chunk : chunks(removed)) {
+            teamRepository.deleteMembers(teamId, chunk);
         }
+        for (List<Long> chunk : chunks(added)) {
+            teamRepository.insertMembers(teamId, chunk);
+        }
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            log.info("Team {} membership: +{} -{}", teamId, added.size(), removed.size());
+        }
+    }
 
-        // Always ensure owner remains effectively part of the team membership set
-        newMembers.add(team.getOwner());
-
-        team.setMembers(newMembers);
-        return teamRepository.save(team);
+    private static List<List<Long>> chunks(LongHashSet ids) {
+        long[] values = ids.toArray();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.length; from += MEMBERSHIP_CHUNK) {
+            int to = Math.min(values.length, from + MEMBERSHIP_CHUNK);
+            List<Long> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) chunk.add(values[i]);
+            chunks.add(chunk);
+        }
+        return chunks;
     }
 
     @PreAuthorize("isAuthenticated() and !hasRole('GUEST')")
     public Team updateTeam(Long teamId, TeamRequest request) {
-        Team team = teamRepository.findById(teamId)
+        Team team = teamRepository.findLiveById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found"));
 
         User current = currentUser();
@@ -118,10 +186,12 @@ public class TeamService {
         String name = request.getName() != null ? request.getName().trim() : null;
         if (name != null && !name.isEmpty()) {
             // Check if new name conflicts with existing teams (excluding current team)
-            if (!name.equalsIgnoreCase(team.getName()) && checkTeamNameExists(name)) {
+            String normalized = TeamNameFilter.normalize(name);
+            if (!normalized.equals(TeamNameFilter.normalize(team.getName())) && checkTeamNameExists(name)) {
                 throw new IllegalArgumentException("A team with this name already exists");
             }
             team.setName(name);
+            team.setNormalizedName(normalized);
         }
 
         if (request.getDescription() != null) {
@@ -130,6 +200,7 @@ public class TeamService {
 
         try {
             Team saved = teamRepository.save(team);
+            teamNameFilter.add(saved.getNormalizedName());
             log.info("Team updated successfully: {} by user: {}", saved.getName(), current.getUsername());
             return saved;
         } catch (org.springframework.dao.DataIntegrityViolationException ex) {
@@ -138,9 +209,14 @@ public class TeamService {
         }
     }
 
+    /**
+     * Hides the team and its projects now; {@link CascadeDeleter} removes them in the background.
+     * The name stays taken until the purge finishes.
+     */
     @PreAuthorize("isAuthenticated() and !hasRole('GUEST')")
-    public void deleteTeam(Long teamId) {
-        Team team = teamRepository.findById(teamId)
+    @Transactional
+    public DeletionJob deleteTeam(Long teamId) {
+        Team team = teamRepository.findLiveById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found"));
 
         User current = currentUser();
@@ -152,15 +228,22 @@ public class TeamService {
         }
 
         log.info("Deleting team: {} by user: {}", team.getName(), current.getUsername());
-        teamRepository.delete(team);
+        team.setDeletedAt(LocalDateTime.now());
+        teamRepository.save(team);
+        return cascadeDeleter.schedule(DeletionJob.Kind.TEAM, team.getId(), current.getUsername());
     }
 
+    @Transactional(readOnly = true)
     public boolean checkTeamNameExists(String name) {
         if (name == null) return false;
         String trimmedName = name.trim();
         if (trimmedName.isEmpty()) return false;
 
-        return teamRepository.existsByNameTrimmedIgnoreCase(trimmedName);
+        String normalized = TeamNameFilter.normalize(trimmedName);
+        if (!teamNameFilter.mightContain(normalized)) {
+            return false;
+        }
+        return teamRepository.existsByNormalizedName(normalized);
     }
 
     private User currentUser() {
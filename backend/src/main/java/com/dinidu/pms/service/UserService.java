@@ -30,26 +30,23 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
 
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
         var user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .role(User.Role.MEMBER)
                 .build();
 
         userRepository.save(user);
-        var jwtToken = jwtService.generateToken(user);
-
-        return AuthResponse.builder()
-                .token(jwtToken)
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .build();
+        return tokensFor(user);
     }
 
     public AuthResponse authenticate(LoginRequest request) {
+        // only the BCrypt calls inside run on the bounded auth pool (see OffloadingPasswordEncoder)
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
@@ -59,10 +56,28 @@ public class UserService {
 
         var user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow();
-        var jwtToken = jwtService.generateToken(user);
+        return tokensFor(user);
+    }
 
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. The presented refresh token is
+     * revoked, so a stolen token that has already been rotated cannot be replayed.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        var claims = jwtService.consumeRefreshToken(refreshToken);
+        var user = findByUsername(claims.getSubject());
+        return tokensFor(user);
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) jwtService.revoke(accessToken);
+        if (refreshToken != null) jwtService.revoke(refreshToken);
+    }
+
+    private AuthResponse tokensFor(User user) {
         return AuthResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .build();
@@ -97,4 +112,8 @@ public class UserService {
                 public String generateTokenFor(User user) {
                         return jwtService.generateToken(user);
                 }
+
+                public String generateRefreshTokenFor(User user) {
+                        return jwtService.generateRefreshToken(user);
+                }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Picks a free username of the form base, base1, base2, ... with a single prefix query,
+ * independent of how many collisions already exist.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAllocator.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+    // longest suffix we parse; keeps Integer.parseInt safe
+    private static final int MAX_SUFFIX_DIGITS = 9;
+
+    private final UserRepository userRepository;
+
+    /**
+     * Allocates a username and saves the user built for it. If another sign-up grabs the same
+     * name between the lookup and the insert, the unique constraint fails and we allocate again.
+     */
+    public User createWithUniqueUsername(String base, Function<String, User> userFactory) {
+        DataIntegrityViolationException last = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            String candidate = allocate(base);
+            try {
+                return userRepository.saveAndFlush(userFactory.apply(candidate));
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Username '{}' taken concurrently (attempt {}/{})", candidate, attempt, MAX_ATTEMPTS);
+                last = ex;
+            }
+        }
+        throw last;
+    }
+
+    public String allocate(String base) {
+        List<String> existing = userRepository.findUsernamesLike(escapeLike(base) + "%");
+
+        // bit 0 = base itself, bit n = base + n. n names cannot fill more than 0..n-1, so a free one is
+        // always at or below existing.size(); larger suffixes (say john999999999) would only inflate the set
+        BitSet taken = new BitSet(existing.size() + 1);
+        for (String username : existing) {
+            int suffix = suffixOf(base, username);
+            if (suffix >= 0 && suffix <= existing.size()) taken.set(suffix);
+        }
+
+        int free = taken.nextClearBit(0);
+        return free == 0 ? base : base + free;
+    }
+
+    private static int suffixOf(String base, String username) {
+        // MySQL's default collation compares case-insensitively, so do the same here
+        if (username.length() < base.length() || !username.regionMatches(true, 0, base, 0, base.length())) {
+            return -1;
+        }
+        int len = username.length() - base.length();
+        if (len == 0) return 0;
+        if (len > MAX_SUFFIX_DIGITS || username.charAt(base.length()) == '0') return -1;
+        for (int i = base.length(); i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (c < '0' || c > '9') return -1;
+        }
+        return Integer.parseInt(username, base.length(), username.length(), 10);
+    }
+
+    private static String escapeLike(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 4);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '!' || c == '%' || c == '_') sb.append('!');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.dinidu.pms.utils;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking fan-out work (provider calls, parallel queries) capped at {@code maxConcurrency}.
+ * Platform mode is a fixed daemon pool with a short queue; when that is full the caller runs the task itself,
+ * which pushes back instead of failing. Virtual mode starts one virtual thread per task (Java 21) and makes
+ * callers beyond the cap wait, unmounted, for a permit.
+ */
+public final class BoundedExecutors {
+
+    private BoundedExecutors() {
+    }
+
+    public static Executor create(String threadNamePrefix, int maxConcurrency, boolean virtualThreads) {
+        return virtualThreads ? virtual(threadNamePrefix, maxConcurrency) : platform(threadNamePrefix, maxConcurrency);
+    }
+
+    public static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+            virtual.close();
+        }
+    }
+
+    private static Executor platform(String threadNamePrefix, int maxConcurrency) {
+        AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConcurrency * 4),
+                r -> {
+                    Thread t = new Thread(r, threadNamePrefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static Executor virtual(String threadNamePrefix, int maxConcurrency) {
+        SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        virtual.setVirtualThreads(true);
+        virtual.setConcurrencyLimit(maxConcurrency);
+        return virtual;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dinidu.pms.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small consecutive-failure circuit breaker.
+ * After {@code failureThreshold} failures in a row the circuit opens and calls fail fast with
+ * {@link OpenException} for {@code openMillis}; then a single trial call is let through (half-open).
+ * Exceptions rejected by {@code recordAsFailure} (e.g. 4xx client errors) pass through without tripping it.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Predicate<RuntimeException> recordAsFailure;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // 0 while closed, otherwise the time the circuit opened
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicInteger trialInFlight = new AtomicInteger();
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this(name, failureThreshold, openMillis, ex -> true);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis, Predicate<RuntimeException> recordAsFailure) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.recordAsFailure = recordAsFailure;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        boolean trial = acquire();
+        try {
+            T result = action.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException ex) {
+            if (recordAsFailure.test(ex)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw ex;
+        } finally {
+            if (trial) trialInFlight.set(0);
+        }
+    }
+
+    public State state() {
+        long opened = openedAt.get();
+        if (opened == 0) return State.CLOSED;
+        return System.currentTimeMillis() - opened >= openMillis ? State.HALF_OPEN : State.OPEN;
+    }
+
+    private boolean acquire() {
+        State s = state();
+        if (s == State.CLOSED) return false;
+        if (s == State.HALF_OPEN && trialInFlight.compareAndSet(0, 1)) return true;
+        throw new OpenException("Circuit '" + name + "' is open");
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+    }
+
+    private void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+        }
+    }
+
+    public static class OpenException extends RuntimeException {
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.dinidu.pms.utils;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of longs (entity IDs), without boxing: a team of thousands of members is one
+ * long[] instead of thousands of Long and HashMap.Node objects. Any long can be stored: 0 marks an empty slot,
+ * so 0 itself is kept in a flag beside the table. Not thread-safe; meant for building and comparing ID sets
+ * within one call.
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(0);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static LongHashSet of(Iterable<? extends Number> values) {
+        LongHashSet set = new LongHashSet();
+        for (Number value : values) {
+            if (value != null) set.add(value.longValue());
+        }
+        return set;
+    }
+
+    /**
+     * @return false if the value was already present
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) * 2 > slots.length) grow();
+        if (!insert(value)) return false;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return false if the value was not present
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int gap = find(value);
+        if (gap < 0) return false;
+        // Shift later entries of the probe run back over the gap, so lookups never stop early at a hole
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            long v = slots[i];
+            if (v == 0) break;
+            int home = slot(v);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                slots[gap] = v;
+                gap = i;
+            }
+        }
+        slots[gap] = 0;
+        size--;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return value == 0 ? hasZero : find(value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (hasZero) action.accept(0);
+        for (long v : slots) {
+            if (v != 0) action.accept(v);
+        }
+    }
+
+    /**
+     * The values of this set that are not in {@code other}.
+     */
+    public LongHashSet minus(LongHashSet other) {
+        LongHashSet result = new LongHashSet();
+        forEach(v -> {
+            if (!other.contains(v)) result.add(v);
+        });
+        return result;
+    }
+
+    public long[] toArray() {
+        long[] out = new long[size];
+        int n = 0;
+        if (hasZero) out[n++] = 0;
+        for (long v : slots) {
+            if (v != 0) out[n++] = v;
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        mask = slots.length - 1;
+        for (long v : old) {
+            if (v != 0) insert(v);
+        }
+    }
+
+    // Puts a non-zero value in its slot, leaving size to the caller; false if it was already there
+    private boolean insert(long value) {
+        int i = slot(value);
+        while (true) {
+            long v = slots[i];
+            if (v == value) return false;
+            if (v == 0) {
+                slots[i] = value;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Slot holding the non-zero value, or -1
+    private int find(long value) {
+        int i = slot(value);
+        while (true) {
+            long v = slots[i];
+            if (v == 0) return -1;
+            if (v == value) return i;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private int slot(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int capacityFor(int entries) {
+        int needed = Math.max(MIN_CAPACITY, entries * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.dinidu.pms.utils;
+
+/**
+ * Open-addressing map from positive longs (entity IDs) to ints, without boxing; the companion of
+ * {@link LongHashSet} for ID-to-index lookups. 0 marks an empty slot, so 0 and negative keys are rejected.
+ * Entries are never removed. Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap() {
+        this(0);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return the value for {@code key}, or -1 if there is none
+     */
+    public int get(long key) {
+        if (key <= 0) return -1;
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == 0) return -1;
+            if (k == key) return values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key <= 0) throw new IllegalArgumentException("Only positive keys are supported: " + key);
+        if ((size + 1) * 2 > keys.length) grow();
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == 0) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int capacityFor(int entries) {
+        int needed = Math.max(MIN_CAPACITY, entries * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
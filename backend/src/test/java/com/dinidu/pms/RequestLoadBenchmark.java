@@ -0,0 +1,113 @@
+package com.dinidu.pms;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread pool with virtual threads:
+ * N concurrent clients each send a request, wait for the answer and immediately send the next.
+ * Reports throughput and the latency distribution (HdrHistogram) after a warm-up period.
+ *
+ * Run it against the same endpoint in both modes, on the same data:
+ * <pre>
+ * mvn spring-boot:run                  # platform threads (server.tomcat.threads.max, default 200)
+ * mvn -Pjava21 spring-boot:run         # virtual threads (Spring profile virtual-threads)
+ *
+ * java RequestLoadBenchmark [url] [clients] [seconds] [warmupSeconds]
+ *      defaults: http://localhost:8080/api/projects 5000 60 10; bearer token from PMS_TOKEN
+ * </pre>
+ * Use an endpoint that blocks on MySQL (or log in through OAuthProviderStub with a latency) — CPU-only
+ * endpoints show no difference. 5000 clients need {@code ulimit -n} above 10000 on both sides.
+ * Being closed-loop, latencies understate queueing under overload; compare the error counts too.
+ */
+public final class RequestLoadBenchmark {
+
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder completed = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    public RequestLoadBenchmark(String url, String bearerToken) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (bearerToken != null && !bearerToken.isBlank()) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        this.request = builder.build();
+    }
+
+    public Histogram run(int clients, int seconds, int warmupSeconds) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            next(done);
+        }
+        Thread.sleep(warmupSeconds * 1_000L);
+        recorder.reset();
+        completed.reset();
+        outcomes.clear();
+        measuring = true;
+        Thread.sleep(seconds * 1_000L);
+        measuring = false;
+        running = false;
+        Histogram histogram = recorder.getIntervalHistogram();
+        done.await();
+        return histogram;
+    }
+
+    private void next(CountDownLatch done) {
+        if (!running) {
+            done.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (measuring) {
+                        recorder.recordValue((System.nanoTime() - start) / 1_000);
+                        completed.increment();
+                        String outcome = error != null ? error.getClass().getSimpleName() : "HTTP " + response.statusCode();
+                        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                    }
+                    next(done);
+                });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/projects";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        RequestLoadBenchmark benchmark = new RequestLoadBenchmark(url, System.getenv("PMS_TOKEN"));
+        System.out.printf("%s: %d clients, %ds warm-up, %ds measured%n", url, clients, warmupSeconds, seconds);
+        Histogram h = benchmark.run(clients, seconds, warmupSeconds);
+
+        System.out.printf("throughput  %.1f req/s (%d requests)%n", benchmark.completed.sum() / (double) seconds,
+                benchmark.completed.sum());
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            System.out.printf("p%-10s %.2f ms%n", p, h.getValueAtPercentile(p) / 1_000.0);
+        }
+        System.out.printf("max         %.2f ms%n", h.getMaxValue() / 1_000.0);
+        new TreeMap<>(benchmark.outcomes).forEach((outcome, count) ->
+                System.out.printf("%-11s %d%n", outcome, count.sum()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.dinidu.pms.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two embedded H2 databases standing in for the primary and the replica;
+ * each holds one row naming itself, so a query shows which side served it.
+ */
+class ReplicaRoutingTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaRouting routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReplicaRouting(200);
+        DataSource dataSource = ReplicaRoutingConfig.routingDataSource(primary, replica, routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.unpin();
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        assertThat(nodeServing(readOnly)).isEqualTo("replica");
+        assertThat(nodeServing(readWrite)).isEqualTo("primary");
+        // no transaction at all: primary
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void writesLandOnThePrimaryOnly() {
+        readWrite.executeWithoutResult(status -> jdbc.update("insert into node(name) values ('written')"));
+
+        assertThat(names(primary)).contains("written");
+        assertThat(names(replica)).doesNotContain("written");
+    }
+
+    @Test
+    void pinnedRequestReadsFromThePrimary() {
+        routing.pinToPrimary();
+        assertThat(nodeServing(readOnly)).isEqualTo("primary");
+
+        routing.unpin();
+        assertThat(nodeServing(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void userReadsTheirOwnWritesUntilTheStickyWindowCloses() throws InterruptedException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+        routing.recordWrite("alice@example.com");
+
+        assertThat(nodeServing(readOnly)).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob@example.com", null, List.of()));
+        assertThat(nodeServing(readOnly)).isEqualTo("replica");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+        Thread.sleep(250);
+        assertThat(nodeServing(readOnly)).isEqualTo("replica");
+    }
+
+    private String nodeServing(TransactionTemplate transaction) {
+        return transaction.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbc.queryForObject("select name from node where id = 1", String.class);
+    }
+
+    private static List<String> names(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("select name from node", String.class);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table node (id int auto_increment primary key, name varchar(20))");
+        jdbc.update("insert into node(name) values (?)", name);
+        return db;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dinidu.pms.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskSpoolTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void eventsLeftAtCloseAreReplayedInOrderByTheNextOpen() throws Exception {
+        Path file = dir.resolve("spool/LOGSTASH.spool");
+        DiskSpool spool = DiskSpool.tryOpen(file, CAPACITY);
+        spool.append(bytes("first"), 1);
+        spool.append(bytes("second"), 2);
+        spool.close();
+        assertThat(file).exists();
+
+        DiskSpool reopened = DiskSpool.tryOpen(file, CAPACITY);
+        assertThat(reopened.oldestTimestamp()).isEqualTo(1);
+        assertThat(text(reopened.peek())).isEqualTo("first");
+        reopened.commit();
+        assertThat(text(reopened.peek())).isEqualTo("second");
+        reopened.commit();
+        assertThat(reopened.isEmpty()).isTrue();
+        reopened.close();
+    }
+
+    @Test
+    void drainedSpoolDeletesItsFileOnClose() throws Exception {
+        Path file = dir.resolve("LOGSTASH.spool");
+        DiskSpool spool = DiskSpool.tryOpen(file, CAPACITY);
+        spool.append(bytes("event"), 1);
+        spool.peek();
+        spool.commit();
+        spool.close();
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void fileHeldByAnotherSpoolCannotBeOpened() throws Exception {
+        Path file = dir.resolve("LOGSTASH.spool");
+        DiskSpool holder = DiskSpool.tryOpen(file, CAPACITY);
+        holder.append(bytes("kept"), 1);
+
+        assertThat(DiskSpool.tryOpen(file, CAPACITY)).isNull();
+        // the failed attempt left the holder's data alone
+        assertThat(text(holder.peek())).isEqualTo("kept");
+
+        holder.close();
+        DiskSpool next = DiskSpool.tryOpen(file, CAPACITY);
+        assertThat(next).isNotNull();
+        assertThat(text(next.peek())).isEqualTo("kept");
+        next.close();
+        assertThat(Files.exists(file)).isTrue();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.dinidu.pms.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonMasker} with the previous regex-based masking on payloads shaped like our traffic:
+ * a login request, a capped (2000 byte) task-list response, and an uncapped 256 KB task list.
+ *
+ * Run: {@code mvn test-compile} then run {@link #main} from the IDE (test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMaskerBenchmark {
+
+    @Param({"login", "taskListCapped", "taskList256k"})
+    public String payload;
+
+    private String body;
+
+    @Setup
+    public void setup() {
+        body = switch (payload) {
+            case "login" -> "{\"username\":\"dinidu\",\"password\":\"s3cr3t-P@ss\"}";
+            case "taskListCapped" -> taskList(2000);
+            case "taskList256k" -> taskList(256 * 1024);
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return JsonMasker.mask(body);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return LegacyMasking.maskSensitiveJson(body);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonMaskerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String taskList(int targetLength) {
+        StringBuilder sb = new StringBuilder(targetLength + 512).append('[');
+        int id = 1;
+        while (sb.length() < targetLength) {
+            if (id > 1) sb.append(',');
+            sb.append("{\"id\":").append(id)
+                    .append(",\"title\":\"Implement feature ").append(id).append("\"")
+                    .append(",\"description\":\"Drag the card to REVIEW once the PR is open; see notes in the ticket.\"")
+                    .append(",\"status\":\"IN_PROGRESS\",\"priority\":\"HIGH\",\"dueDate\":\"2025-10-01\"")
+                    .append(",\"project\":{\"id\":7,\"name\":\"Kanban\",\"status\":\"ACTIVE\"}")
+                    .append(",\"assignee\":{\"id\":3,\"username\":\"member").append(id % 17)
+                    .append("\",\"email\":\"member@example.com\",\"role\":\"MEMBER\"}")
+                    .append(",\"createdAt\":\"2025-09-01T10:15:30\",\"updatedAt\":\"2025-09-02T08:00:00\"}");
+            if (id % 50 == 0) {
+                sb.append(",{\"token\":\"eyJhbGciOiJIUzI1NiJ9.payload.sig\",\"note\":\"Authorization: Bearer abc.def-ghi\"}");
+            }
+            id++;
+        }
+        return sb.append(']').toString();
+    }
+
+    // The regex masking HttpLoggingFilter used before JsonMasker, kept for comparison
+    static final class LegacyMasking {
+        private static final Set<String> SENSITIVE_KEYS = Set.of(
+                "password", "pwd", "secret", "token", "accessToken", "refreshToken", "authorization"
+        );
+
+        static String maskSensitiveJson(String body) {
+            String masked = body.trim();
+            for (String key : SENSITIVE_KEYS) {
+                masked = masked.replaceAll("(?i)(\\\"" + key + "\\\"\\s*:\\s*\\\")(.*?)(\\\")", "$1***$3");
+                masked = masked.replaceAll("(?i)(\\'" + key + "\\'\\s*:\\s*\\')(.*?)(\\')", "$1***$3");
+            }
+            return masked.replaceAll("(?i)Bearer\\s+[A-Za-z0-9\\-_.=]+", "Bearer ***");
+        }
+    }
+}
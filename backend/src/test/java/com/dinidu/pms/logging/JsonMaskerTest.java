@@ -0,0 +1,92 @@
+package com.dinidu.pms.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonMaskerTest {
+
+    @Test
+    void masksSensitiveStringValuesAndLeavesTheRestAlone() {
+        assertThat(JsonMasker.mask("{\"username\":\"dinidu\",\"password\":\"s3cr3t\"}"))
+                .isEqualTo("{\"username\":\"dinidu\",\"password\":\"***\"}");
+        assertThat(JsonMasker.mask("{ 'Password' : 'x', \"AccessToken\" :\t\"y\" }"))
+                .isEqualTo("{ 'Password' : '***', \"AccessToken\" :\t\"***\" }");
+    }
+
+    @Test
+    void returnsTheSameInstanceWhenNothingIsMasked() {
+        String json = "{\"title\":\"Ship it\",\"tags\":[\"a\",\"b\"],\"count\":3}";
+
+        assertThat(JsonMasker.mask(json)).isSameAs(json);
+        assertThat(JsonMasker.mask(null)).isNull();
+        assertThat(JsonMasker.mask("")).isEmpty();
+    }
+
+    @Test
+    void masksInsideNestedObjectsAndArrays() {
+        String json = "{\"user\":{\"name\":\"a\",\"auth\":{\"refreshToken\":\"r1\"}},"
+                + "\"sessions\":[{\"token\":\"t1\"},{\"token\":\"t2\",\"id\":7}]}";
+
+        assertThat(JsonMasker.mask(json)).isEqualTo("{\"user\":{\"name\":\"a\",\"auth\":{\"refreshToken\":\"***\"}},"
+                + "\"sessions\":[{\"token\":\"***\"},{\"token\":\"***\",\"id\":7}]}");
+    }
+
+    @Test
+    void escapedQuotesDoNotEndAStringEarly() {
+        // in a value: the whole value is masked and parsing resumes after it
+        assertThat(JsonMasker.mask("{\"password\":\"a\\\"b\\\\\",\"name\":\"n\"}"))
+                .isEqualTo("{\"password\":\"***\",\"name\":\"n\"}");
+        // in a key: the escaped quote is part of the key, which is not a sensitive one
+        assertThat(JsonMasker.mask("{\"pass\\\"word\":\"x\",\"secret\":\"y\"}"))
+                .isEqualTo("{\"pass\\\"word\":\"x\",\"secret\":\"***\"}");
+        // a value that looks like a key is just a value
+        assertThat(JsonMasker.mask("{\"note\":\"\\\"password\\\":\\\"x\\\"\"}"))
+                .isEqualTo("{\"note\":\"\\\"password\\\":\\\"x\\\"\"}");
+    }
+
+    @Test
+    void unicodeEscapesInKeysAreDecodedBeforeMatching() {
+        assertThat(JsonMasker.mask("{\"pass\\u0077ord\":\"x\"}")).isEqualTo("{\"pass\\u0077ord\":\"***\"}");
+        assertThat(JsonMasker.mask("{\"\\u0054OKEN\":\"x\"}")).isEqualTo("{\"\\u0054OKEN\":\"***\"}");
+        // non-ASCII text around is untouched
+        assertThat(JsonMasker.mask("{\"name\":\"\\u00e9t\\u00e9 ☀\",\"pwd\":\"\\u0041b\"}"))
+                .isEqualTo("{\"name\":\"\\u00e9t\\u00e9 ☀\",\"pwd\":\"***\"}");
+        // broken escapes never match
+        assertThat(JsonMasker.mask("{\"pass\\u00\":\"x\"}")).isEqualTo("{\"pass\\u00\":\"x\"}");
+    }
+
+    @Test
+    void sensitiveKeysWithNonStringValuesAreMaskedToo() {
+        assertThat(JsonMasker.mask("{\"pwd\":123456,\"id\":1}")).isEqualTo("{\"pwd\":\"***\",\"id\":1}");
+        assertThat(JsonMasker.mask("{\"secret\":true}")).isEqualTo("{\"secret\":\"***\"}");
+        assertThat(JsonMasker.mask("{\"secret\":{\"value\":\"x\",\"nested\":[1,\"}\"]},\"id\":1}"))
+                .isEqualTo("{\"secret\":\"***\",\"id\":1}");
+        assertThat(JsonMasker.mask("{\"token\":[\"a\",\"b\"]}")).isEqualTo("{\"token\":\"***\"}");
+        // nothing to hide
+        assertThat(JsonMasker.mask("{\"token\":null}")).isEqualTo("{\"token\":null}");
+    }
+
+    @Test
+    void masksBearerCredentialsAnywhere() {
+        assertThat(JsonMasker.mask("{\"header\":\"Bearer eyJhbGciOi.x_y-z=\"}"))
+                .isEqualTo("{\"header\":\"Bearer ***\"}");
+        assertThat(JsonMasker.mask("Authorization: bearer abc.def"))
+                .isEqualTo("Authorization: bearer ***");
+        assertThat(JsonMasker.mask("{\"word\":\"unbearer abc\"}")).isEqualTo("{\"word\":\"unbearer abc\"}");
+    }
+
+    @Test
+    void malformedOrTruncatedInputNeverLeaksAndNeverThrows() {
+        // cut off inside the value, as capped body capture does
+        assertThat(JsonMasker.mask("{\"password\":\"s3cr")).isEqualTo("{\"password\":\"***");
+        assertThat(JsonMasker.mask("{\"secret\":{\"value\":\"x\"")).isEqualTo("{\"secret\":\"***\"");
+        assertThat(JsonMasker.mask("{\"password\":12")).isEqualTo("{\"password\":\"***\"");
+        // cut off anywhere else
+        for (String input : new String[]{"{\"password\"", "{\"password\":", "{\"password\": ", "{\"pass", "\"",
+                "{\"a\":\"\\", "Bearer", "Bearer ", "{'token':'x", "}}]]\"\"::", "{\"password\":\"x\\"}) {
+            String masked = JsonMasker.mask(input);
+            assertThat(masked).as(input).doesNotContain("s3cr").doesNotContain(":\"x");
+        }
+    }
+}
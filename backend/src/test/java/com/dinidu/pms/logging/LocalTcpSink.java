@@ -0,0 +1,126 @@
+package com.dinidu.pms.logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Logstash TCP input (json_lines codec). Collects every received line so tests
+ * can check delivery, and can be stopped and restarted on the same port to simulate an outage.
+ * {@code readDelayMs} slows each line down to simulate a congested Logstash.
+ *
+ * Run: {@code java LocalTcpSink [port] [readDelayMs]} (defaults 5000, 0) to print events instead of
+ * running Logstash; with a different port set {@code logging.logstash.destination=localhost:<port>}.
+ */
+public final class LocalTcpSink {
+
+    private final int port;
+    private final long readDelayMs;
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+    private final boolean echo;
+
+    private ServerSocket server;
+    private ExecutorService executor;
+
+    public LocalTcpSink(int port, long readDelayMs, boolean echo) {
+        this.port = port;
+        this.readDelayMs = readDelayMs;
+        this.echo = echo;
+    }
+
+    public synchronized void start() throws IOException {
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 50);
+        executor = Executors.newCachedThreadPool();
+        ServerSocket s = server;
+        executor.execute(() -> acceptLoop(s));
+    }
+
+    /**
+     * Closes the listener and all client connections; received lines are kept.
+     */
+    public synchronized void stop() throws IOException {
+        if (server == null) return;
+        server.close();
+        for (Socket c : clients) c.close();
+        clients.clear();
+        executor.shutdownNow();
+        server = null;
+    }
+
+    public int port() {
+        return server != null ? server.getLocalPort() : port;
+    }
+
+    public List<String> lines() {
+        return new ArrayList<>(lines);
+    }
+
+    public void clear() {
+        lines.clear();
+    }
+
+    /**
+     * Blocks until at least {@code count} lines have arrived or the timeout passes.
+     */
+    public boolean awaitLines(int count, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (lines.size() < count) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long delay = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        LocalTcpSink sink = new LocalTcpSink(port, delay, true);
+        sink.start();
+        System.out.println("Log sink listening on tcp://127.0.0.1:" + sink.port() + " (read delay " + delay + "ms)");
+    }
+
+    private void acceptLoop(ServerSocket s) {
+        while (!s.isClosed()) {
+            try {
+                Socket client = s.accept();
+                clients.add(client);
+                executor.execute(() -> read(client));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void read(Socket client) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (readDelayMs > 0) Thread.sleep(readDelayMs);
+                lines.add(line);
+                if (echo) System.out.println(line);
+            }
+        } catch (SocketException e) {
+            // closed by stop()
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.remove(client);
+        }
+    }
+}
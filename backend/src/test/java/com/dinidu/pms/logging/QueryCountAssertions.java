@@ -0,0 +1,63 @@
+package com.dinidu.pms.logging;
+
+import java.util.Map;
+
+/**
+ * Test helper that fails when an action runs more SQL than allowed, so N+1 regressions break the build.
+ * Statements are counted on the calling thread, which is where MockMvc executes the request:
+ * <pre>
+ * QueryCountAssertions.assertMaxQueries(3, () -> mockMvc.perform(get("/api/tasks")).andExpect(status().isOk()));
+ * QueryCountAssertions.assertNoRepeatedQueries(2, () -> taskService.getAllTasks());
+ * </pre>
+ * Needs the application context (Hibernate configured by SqlInstrumentationConfig).
+ */
+public final class QueryCountAssertions {
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+
+    private QueryCountAssertions() {
+    }
+
+    public static SqlRequestStats capture(Action<?> action) throws Exception {
+        try (SqlRequestStats stats = SqlRequestStats.begin()) {
+            action.run();
+            return stats;
+        }
+    }
+
+    public static <T> T assertMaxQueries(int max, Action<T> action) throws Exception {
+        T result;
+        SqlRequestStats stats;
+        try (SqlRequestStats s = SqlRequestStats.begin()) {
+            result = action.run();
+            stats = s;
+        }
+        if (stats.getStatementCount() > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + stats.getStatementCount()
+                    + " were executed:\n  " + String.join("\n  ", stats.getStatements()));
+        }
+        return result;
+    }
+
+    /**
+     * Fails if any identical statement runs {@code threshold} times or more.
+     */
+    public static <T> T assertNoRepeatedQueries(int threshold, Action<T> action) throws Exception {
+        T result;
+        SqlRequestStats stats;
+        try (SqlRequestStats s = SqlRequestStats.begin()) {
+            result = action.run();
+            stats = s;
+        }
+        Map<String, Integer> repeated = stats.repeatedStatements(threshold);
+        if (!repeated.isEmpty()) {
+            StringBuilder sb = new StringBuilder("Repeated SQL statements (possible N+1):");
+            repeated.forEach((sql, n) -> sb.append("\n  ").append(n).append("x ").append(sql));
+            throw new AssertionError(sb.toString());
+        }
+        return result;
+    }
+}
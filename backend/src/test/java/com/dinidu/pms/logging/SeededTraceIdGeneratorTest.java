@@ -0,0 +1,62 @@
+package com.dinidu.pms.logging;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeededTraceIdGeneratorTest {
+
+    private static final String SEED = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private final SdkTracerProvider provider = SdkTracerProvider.builder()
+            .setIdGenerator(new SeededTraceIdGenerator())
+            .build();
+    private final Tracer tracer = provider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        SeededTraceIdGenerator.clear();
+        provider.close();
+    }
+
+    @Test
+    void firstRootSpanTakesTheSeedAndIsARealRoot() {
+        SeededTraceIdGenerator.seed(TraceParent.traceIdFromCorrelationId("4bf92f35-77b3-4da6-a3ce-929d0e0e4736"));
+
+        Span span = tracer.spanBuilder("request").setNoParent().startSpan();
+        Span next = tracer.spanBuilder("later").setNoParent().startSpan();
+
+        assertThat(span.getSpanContext().getTraceId()).isEqualTo(SEED);
+        assertThat(span.getSpanContext().getSpanId()).isNotEqualTo("0000000000000000");
+        assertThat(next.getSpanContext().getTraceId()).isNotEqualTo(SEED);
+    }
+
+    @Test
+    void spanContinuingACallersTraceKeepsItAndLeavesTheSeed() {
+        SeededTraceIdGenerator.seed(SEED);
+        String callerTrace = "0af7651916cd43dd8448eb211c80319c";
+        SpanContext remote = SpanContext.createFromRemoteParent(
+                callerTrace, "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+
+        Span child = tracer.spanBuilder("request").setParent(Context.root().with(Span.wrap(remote))).startSpan();
+
+        assertThat(child.getSpanContext().getTraceId()).isEqualTo(callerTrace);
+        assertThat(tracer.spanBuilder("root").setNoParent().startSpan().getSpanContext().getTraceId()).isEqualTo(SEED);
+    }
+
+    @Test
+    void withoutASeedIdsAreRandom() {
+        String first = tracer.spanBuilder("a").setNoParent().startSpan().getSpanContext().getTraceId();
+        String second = tracer.spanBuilder("b").setNoParent().startSpan().getSpanContext().getTraceId();
+
+        assertThat(first).hasSize(32).isNotEqualTo(second);
+    }
+}
@@ -0,0 +1,120 @@
+package com.dinidu.pms.oauth;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Google and GitHub OAuth endpoints, for load tests and offline runs.
+ * The access token echoes the authorization code, and the user identity is derived from it,
+ * so callers can fan out across many distinct users by varying {@code code}.
+ *
+ * Run: {@code java OAuthProviderStub [port] [latencyMs]} (defaults 8089, 0), then start the app with
+ * <pre>
+ * oauth.google.token-base-url=http://localhost:8089
+ * oauth.google.userinfo-base-url=http://localhost:8089
+ * oauth.github.base-url=http://localhost:8089
+ * oauth.github.api-base-url=http://localhost:8089
+ * </pre>
+ */
+public final class OAuthProviderStub {
+
+    private final HttpServer server;
+    private final long latencyMs;
+
+    public OAuthProviderStub(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        server.setExecutor(Executors.newCachedThreadPool());
+
+        // Google
+        server.createContext("/token", ex -> respond(ex, tokenJson(codeFromForm(ex))));
+        server.createContext("/v1/userinfo", ex -> {
+            String id = userFromBearer(ex);
+            respond(ex, "{\"email\":\"" + id + "@example.com\",\"name\":\"Stub " + id + "\"}");
+        });
+
+        // GitHub
+        server.createContext("/login/oauth/access_token", ex -> respond(ex, tokenJson(codeFromForm(ex))));
+        server.createContext("/user/emails", ex -> {
+            String id = userFromBearer(ex);
+            respond(ex, "[{\"email\":\"" + id + "@example.com\",\"primary\":true,\"verified\":true}]");
+        });
+        server.createContext("/user", ex -> {
+            String id = userFromBearer(ex);
+            respond(ex, "{\"login\":\"" + id + "\",\"name\":\"Stub " + id + "\"}");
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        OAuthProviderStub stub = new OAuthProviderStub(port, latency);
+        stub.start();
+        System.out.println("OAuth provider stub listening on http://127.0.0.1:" + stub.port() + " (latency " + latency + "ms)");
+    }
+
+    private void respond(HttpExchange ex, String json) throws IOException {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static String tokenJson(String code) {
+        return "{\"access_token\":\"stub-" + code + "\",\"token_type\":\"bearer\",\"scope\":\"user:email\"}";
+    }
+
+    private static String codeFromForm(HttpExchange ex) throws IOException {
+        String body;
+        try (InputStream in = ex.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && "code".equals(pair.substring(0, eq))) {
+                return sanitize(URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return "anonymous";
+    }
+
+    private static String userFromBearer(HttpExchange ex) {
+        String auth = ex.getRequestHeaders().getFirst("Authorization");
+        if (auth == null || !auth.startsWith("Bearer stub-")) return "anonymous";
+        return sanitize(auth.substring("Bearer stub-".length()));
+    }
+
+    // keep derived identities safe to embed in JSON and usernames
+    private static String sanitize(String s) {
+        return s.replaceAll("[^A-Za-z0-9_.-]", "");
+    }
+}
@@ -0,0 +1,82 @@
+package com.dinidu.pms.repo;
+
+import com.dinidu.pms.config.SqlInstrumentationConfig;
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.logging.QueryCountAssertions;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL budget of the task list (GET /api/tasks): the RBAC query fetches everything the JSON view renders, so
+ * reading the list and walking its associations must stay a single statement however many tasks there are.
+ */
+@DataJpaTest
+@Import(SqlInstrumentationConfig.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TaskListQueryCountTest {
+
+    private static final int PROJECTS = 3;
+    private static final int TASKS = 60;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("owner").email("owner@example.com").password("x").role(User.Role.MEMBER).build());
+        for (int p = 0; p < PROJECTS; p++) {
+            Project project = projectRepository.save(Project.builder()
+                    .name("Project " + p).status(Project.Status.ACTIVE).owner(user).build());
+            for (int t = 0; t < TASKS / PROJECTS; t++) {
+                taskRepository.save(Task.builder()
+                        .title("Task " + p + "." + t)
+                        .status(Task.Status.TODO)
+                        .priority(Task.Priority.MEDIUM)
+                        .project(project)
+                        .assignee(user)
+                        .tagIds(Set.of(t % 4, 10 + p))
+                        .build());
+            }
+        }
+        // start from an empty persistence context, as a request does
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listAndEverythingItRendersIsOneStatement() throws Exception {
+        List<Task> tasks = QueryCountAssertions.assertMaxQueries(1, () -> {
+            List<Task> list = taskRepository.findAccessibleTasksFor(user, false);
+            for (Task task : list) {
+                task.getTagIds().size();
+                task.getProject().getName();
+                task.getProject().getOwner().getUsername();
+                task.getAssignee().getUsername();
+            }
+            return list;
+        });
+        assertThat(tasks).hasSize(TASKS);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getTagIds()).hasSize(2));
+    }
+}
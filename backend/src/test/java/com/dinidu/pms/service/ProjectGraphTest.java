@@ -0,0 +1,283 @@
+package com.dinidu.pms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the incremental graph against a plain adjacency-map model: after every random edit the topological
+ * order, the cycle checks and every head and tail must match what a brute-force recursion computes.
+ */
+class ProjectGraphTest {
+
+    @Test
+    void chainHeadsAndTailsCountOpenTasksOnly() {
+        // 1 -> 2 -> 3, with 2 already done
+        ProjectGraph graph = ProjectGraph.build(
+                new long[]{1, 2, 3}, new boolean[]{true, false, true},
+                new long[]{1, 2}, new long[]{2, 3});
+
+        Map<Long, int[]> nodes = visit(graph);
+        assertThat(nodes.keySet()).containsExactly(1L, 2L, 3L);
+        assertThat(nodes.get(1L)).containsExactly(1, 1, 2);
+        assertThat(nodes.get(2L)).containsExactly(0, 1, 1);
+        assertThat(nodes.get(3L)).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    void linkClosingACycleIsReportedWithItsPath() {
+        ProjectGraph graph = ProjectGraph.build(
+                new long[]{1, 2, 3}, new boolean[]{true, true, true},
+                new long[]{1, 2}, new long[]{2, 3});
+
+        assertThat(graph.cycleThrough(3, 1)).containsExactly(3L, 1L, 2L);
+        assertThatThrownBy(() -> graph.addEdge(3, 1)).isInstanceOf(IllegalStateException.class);
+        assertThat(graph.cycleThrough(1, 3)).isNull();
+        assertThat(graph.addEdge(1, 3)).isTrue();
+        assertThat(graph.addEdge(1, 3)).isFalse();
+    }
+
+    @Test
+    void buildSkipsLinksThatCloseACycle() {
+        ProjectGraph graph = ProjectGraph.build(
+                new long[]{1, 2, 3}, new boolean[]{true, true, true},
+                new long[]{1, 2, 3}, new long[]{2, 3, 1});
+
+        assertThat(graph.skippedEdges()).isPositive();
+        assertThat(visit(graph)).hasSize(3);
+    }
+
+    @Test
+    void removedTaskLosesItsLinksAndCanBeRestored() {
+        ProjectGraph graph = ProjectGraph.build(
+                new long[]{1, 2, 3}, new boolean[]{true, true, true},
+                new long[]{1, 2}, new long[]{2, 3});
+
+        assertThat(graph.removeTask(2)).isEqualTo(2);
+        assertThat(graph.contains(2)).isFalse();
+        assertThat(graph.blockedBy(1)).isEmpty();
+        assertThat(visit(graph).get(3L)).containsExactly(1, 1, 1);
+
+        graph.addTask(2, true);
+        assertThat(graph.contains(2)).isTrue();
+        assertThat(graph.blockersOf(2)).isEmpty();
+    }
+
+    @Test
+    void randomEditsMatchBruteForce() {
+        Random random = new Random(20250101L);
+        for (int round = 0; round < 300; round++) {
+            Model model = new Model();
+            int tasks = 2 + random.nextInt(39);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                long id = 100 + 3L * i;
+                ids.add(id);
+                model.open.put(id, random.nextInt(4) != 0);
+            }
+            // a random DAG: edges only from earlier to later in a shuffled order
+            List<Long> order = new ArrayList<>(ids);
+            Collections.shuffle(order, random);
+            List<long[]> edges = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                for (int j = i + 1; j < tasks; j++) {
+                    if (random.nextInt(tasks) < 2) {
+                        edges.add(new long[]{order.get(i), order.get(j)});
+                        model.link(order.get(i), order.get(j));
+                    }
+                }
+            }
+            ProjectGraph graph = build(ids, model, edges);
+            assertThat(graph.skippedEdges()).isZero();
+            model.check(graph);
+
+            long nextId = 100 + 3L * tasks;
+            for (int step = 0; step < 200; step++) {
+                List<Long> live = new ArrayList<>(model.open.keySet());
+                int op = random.nextInt(10);
+                if (op < 4 && live.size() >= 2) {
+                    long blocker = live.get(random.nextInt(live.size()));
+                    long blocked = live.get(random.nextInt(live.size()));
+                    if (blocker == blocked) continue;
+                    List<Long> cycle = graph.cycleThrough(blocker, blocked);
+                    if (model.reaches(blocked, blocker)) {
+                        assertThat(cycle).as("cycle for %d -> %d", blocker, blocked).isNotNull();
+                        model.checkCycle(cycle, blocker, blocked);
+                    } else {
+                        assertThat(cycle).as("cycle for %d -> %d", blocker, blocked).isNull();
+                        assertThat(graph.addEdge(blocker, blocked)).isEqualTo(model.link(blocker, blocked));
+                    }
+                } else if (op < 6 && !live.isEmpty()) {
+                    long blocker = live.get(random.nextInt(live.size()));
+                    Set<Long> blocked = model.successors.getOrDefault(blocker, Set.of());
+                    long target = !blocked.isEmpty() && random.nextBoolean()
+                            ? new ArrayList<>(blocked).get(random.nextInt(blocked.size()))
+                            : live.get(random.nextInt(live.size()));
+                    assertThat(graph.removeEdge(blocker, target)).isEqualTo(model.unlink(blocker, target));
+                } else if (op < 7 && !live.isEmpty()) {
+                    long task = live.get(random.nextInt(live.size()));
+                    boolean open = random.nextBoolean();
+                    assertThat(graph.setOpen(task, open)).isTrue();
+                    model.open.put(task, open);
+                } else if (op < 8 && !live.isEmpty()) {
+                    long task = live.get(random.nextInt(live.size()));
+                    assertThat(graph.removeTask(task)).isEqualTo(model.remove(task));
+                } else {
+                    // a new task, or one coming back (restored)
+                    long task = !model.removed.isEmpty() && random.nextBoolean()
+                            ? model.removed.iterator().next()
+                            : (nextId += 3);
+                    boolean open = random.nextBoolean();
+                    graph.addTask(task, open);
+                    model.removed.remove(task);
+                    model.open.put(task, open);
+                }
+                model.check(graph);
+            }
+        }
+    }
+
+    private static ProjectGraph build(List<Long> ids, Model model, List<long[]> edges) {
+        long[] taskIds = new long[ids.size()];
+        boolean[] open = new boolean[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            taskIds[i] = ids.get(i);
+            open[i] = model.open.get(ids.get(i));
+        }
+        long[] blockers = new long[edges.size()];
+        long[] blocked = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            blockers[i] = edges.get(i)[0];
+            blocked[i] = edges.get(i)[1];
+        }
+        return ProjectGraph.build(taskIds, open, blockers, blocked);
+    }
+
+    // task id -> {duration, head, tail}, in visiting order
+    private static Map<Long, int[]> visit(ProjectGraph graph) {
+        Map<Long, int[]> nodes = new LinkedHashMap<>();
+        graph.forEachInOrder((taskId, duration, head, tail) -> nodes.put(taskId, new int[]{duration, head, tail}));
+        return nodes;
+    }
+
+    private static final class Model {
+        final Map<Long, Boolean> open = new HashMap<>();
+        final Set<Long> removed = new TreeSet<>();
+        final Map<Long, Set<Long>> successors = new HashMap<>();
+        final Map<Long, Set<Long>> predecessors = new HashMap<>();
+
+        boolean link(long blocker, long blocked) {
+            predecessors.computeIfAbsent(blocked, k -> new HashSet<>()).add(blocker);
+            return successors.computeIfAbsent(blocker, k -> new HashSet<>()).add(blocked);
+        }
+
+        boolean unlink(long blocker, long blocked) {
+            predecessors.getOrDefault(blocked, new HashSet<>()).remove(blocker);
+            return successors.getOrDefault(blocker, new HashSet<>()).remove(blocked);
+        }
+
+        int remove(long task) {
+            int edges = 0;
+            for (long s : new ArrayList<>(successors.getOrDefault(task, Set.of()))) {
+                unlink(task, s);
+                edges++;
+            }
+            for (long p : new ArrayList<>(predecessors.getOrDefault(task, Set.of()))) {
+                unlink(p, task);
+                edges++;
+            }
+            open.remove(task);
+            removed.add(task);
+            return edges;
+        }
+
+        boolean reaches(long from, long to) {
+            Deque<Long> queue = new ArrayDeque<>(List.of(from));
+            Set<Long> seen = new HashSet<>(queue);
+            while (!queue.isEmpty()) {
+                long v = queue.poll();
+                if (v == to) return true;
+                for (long s : successors.getOrDefault(v, Set.of())) {
+                    if (seen.add(s)) queue.add(s);
+                }
+            }
+            return false;
+        }
+
+        // [blocker, blocked, ..., last]: existing links from blocked around to blocker
+        void checkCycle(List<Long> cycle, long blocker, long blocked) {
+            assertThat(cycle.get(0)).isEqualTo(blocker);
+            assertThat(cycle.get(1)).isEqualTo(blocked);
+            for (int i = 1; i < cycle.size(); i++) {
+                long from = cycle.get(i);
+                long to = i + 1 < cycle.size() ? cycle.get(i + 1) : blocker;
+                assertThat(successors.getOrDefault(from, Set.of())).as("link %d -> %d", from, to).contains(to);
+            }
+        }
+
+        void check(ProjectGraph graph) {
+            Map<Long, int[]> nodes = visit(graph);
+            assertThat(nodes.keySet()).containsExactlyInAnyOrderElementsOf(open.keySet());
+
+            Map<Long, Integer> position = new HashMap<>();
+            for (long id : nodes.keySet()) position.put(id, position.size());
+            Map<Long, Integer> heads = new HashMap<>();
+            Map<Long, Integer> tails = new HashMap<>();
+            for (Map.Entry<Long, int[]> node : nodes.entrySet()) {
+                long id = node.getKey();
+                for (long s : successors.getOrDefault(id, Set.of())) {
+                    assertThat(position.get(id)).as("%d before %d", id, s).isLessThan(position.get(s));
+                }
+                assertThat(new TreeSet<>(toList(graph.blockersOf(id))))
+                        .isEqualTo(new TreeSet<>(predecessors.getOrDefault(id, Set.of())));
+                assertThat(new TreeSet<>(toList(graph.blockedBy(id))))
+                        .isEqualTo(new TreeSet<>(successors.getOrDefault(id, Set.of())));
+
+                int duration = open.get(id) ? 1 : 0;
+                assertThat(node.getValue()[0]).as("duration of %d", id).isEqualTo(duration);
+                assertThat(node.getValue()[1]).as("head of %d", id).isEqualTo(head(id, heads));
+                assertThat(node.getValue()[2]).as("tail of %d", id).isEqualTo(tail(id, tails));
+            }
+        }
+
+        private int head(long id, Map<Long, Integer> memo) {
+            Integer known = memo.get(id);
+            if (known != null) return known;
+            int longest = 0;
+            for (long p : predecessors.getOrDefault(id, Set.of())) longest = Math.max(longest, head(p, memo));
+            int head = longest + (open.get(id) ? 1 : 0);
+            memo.put(id, head);
+            return head;
+        }
+
+        private int tail(long id, Map<Long, Integer> memo) {
+            Integer known = memo.get(id);
+            if (known != null) return known;
+            int longest = 0;
+            for (long s : successors.getOrDefault(id, Set.of())) longest = Math.max(longest, tail(s, memo));
+            int tail = longest + (open.get(id) ? 1 : 0);
+            memo.put(id, tail);
+            return tail;
+        }
+
+        private static List<Long> toList(long[] ids) {
+            List<Long> list = new ArrayList<>(ids.length);
+            for (long id : ids) list.add(id);
+            return list;
+        }
+    }
+}
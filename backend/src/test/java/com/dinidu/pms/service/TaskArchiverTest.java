@@ -0,0 +1,230 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.TaskDependency;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.ProjectRepository;
+import com.dinidu.pms.repo.TaskDependencyRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import com.dinidu.pms.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batches of three, no pause between them; pending moves are held far longer than any test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskArchiver.class, TaskMoveCoalescer.class, TaskTagIndex.class, TaskDependencyGraphs.class,
+        TaskActivityLog.class, TaskArchiverTest.Cfg.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archiver;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "tasks.archive.after-days=30",
+        "tasks.archive.batch-size=3",
+        "tasks.archive.batch-pause-ms=0",
+        "tasks.move-coalescing.window-ms=600000"
+})
+class TaskArchiverTest {
+
+    @TestConfiguration
+    static class Cfg {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @Autowired
+    private TaskArchiver archiver;
+    @Autowired
+    private TaskMoveCoalescer coalescer;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskDependencyRepository dependencyRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        // every test starts from an empty board: leftovers would be archived along with its own tasks
+        jdbc.update("delete from task_dependencies");
+        jdbc.update("delete from tasks_archive_tags");
+        jdbc.update("delete from tasks_archive");
+        jdbc.update("delete from tasks");
+        user = userRepository.findByUsername("archivist").orElseGet(() -> userRepository.save(User.builder()
+                .username("archivist").email("archivist@example.com").password("x").role(User.Role.MEMBER).build()));
+        project = projectRepository.save(Project.builder()
+                .name("Old work").status(Project.Status.ACTIVE).owner(user).build());
+    }
+
+    @Test
+    void archivesEverythingEligibleAcrossBatchesAndLeavesTheRest() {
+        List<Long> old = new ArrayList<>();
+        for (int i = 0; i < 7; i++) old.add(doneDaysAgo(40));
+        Long recent = doneDaysAgo(5);
+        Long open = task(Task.Status.IN_PROGRESS, 40);
+
+        // batches of 3, 3 and 1: the short third one ends the run
+        assertThat(archiver.archiveNow()).isEqualTo(7);
+
+        assertThat(archivedIds()).containsExactlyInAnyOrderElementsOf(old);
+        assertThat(liveIds()).containsExactlyInAnyOrder(recent, open);
+        // a second run finds nothing
+        assertThat(archiver.archiveNow()).isZero();
+    }
+
+    @Test
+    void exactlyFullLastBatchEndsOnTheEmptyOneAfterIt() {
+        List<Long> old = new ArrayList<>();
+        for (int i = 0; i < 6; i++) old.add(doneDaysAgo(40));
+
+        assertThat(archiver.archiveNow()).isEqualTo(6);
+        assertThat(archivedIds()).containsExactlyInAnyOrderElementsOf(old);
+        assertThat(liveIds()).isEmpty();
+    }
+
+    @Test
+    void tasksWithAPendingMoveStayLive() {
+        Long pending = doneDaysAgo(40);
+        Long other = doneDaysAgo(40);
+        coalescer.submit(taskRepository.findById(pending).orElseThrow(), project.getId(), Task.Status.REVIEW, user);
+
+        assertThat(archiver.archiveNow()).isEqualTo(1);
+
+        assertThat(archivedIds()).containsExactly(other);
+        assertThat(liveIds()).containsExactly(pending);
+        assertThat(coalescer.isPending(pending)).isTrue();
+    }
+
+    @Test
+    void fullBatchOfPendingMovesEndsTheRunInsteadOfSpinning() {
+        List<Long> pending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long id = doneDaysAgo(40);
+            coalescer.submit(taskRepository.findById(id).orElseThrow(), project.getId(), Task.Status.REVIEW, user);
+            pending.add(id);
+        }
+
+        CompletableFuture<Integer> run = CompletableFuture.supplyAsync(archiver::archiveNow);
+
+        assertThat(run).succeedsWithin(10, TimeUnit.SECONDS).isEqualTo(0);
+        assertThat(liveIds()).containsExactlyInAnyOrderElementsOf(pending);
+    }
+
+    @Test
+    void linkedTasksStayLiveOnBothEndsOfTheLink() {
+        Long blocked = doneDaysAgo(40);
+        Long blocker = doneDaysAgo(40);
+        Long loose = doneDaysAgo(40);
+        dependencyRepository.save(TaskDependency.builder()
+                .task(taskRepository.getReferenceById(blocked))
+                .blockedBy(taskRepository.getReferenceById(blocker))
+                .projectId(project.getId())
+                .build());
+
+        assertThat(archiver.archiveNow()).isEqualTo(1);
+
+        assertThat(archivedIds()).containsExactly(loose);
+        assertThat(liveIds()).containsExactlyInAnyOrder(blocked, blocker);
+    }
+
+    @Test
+    void rowsLockedByAnotherTransactionAreSkippedWithoutWaiting() throws Exception {
+        Long held = doneDaysAgo(40);
+        List<Long> free = List.of(doneDaysAgo(40), doneDaysAgo(40), doneDaysAgo(40), doneDaysAgo(40));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // another node's request, holding the row until told to let go
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbc.queryForObject("select id from tasks where id = ? for update", Long.class, held);
+                    locked.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // well under LOCK_TIMEOUT: a blocking lock would still be waiting
+            CompletableFuture<Integer> run = CompletableFuture.supplyAsync(archiver::archiveNow);
+            assertThat(run).succeedsWithin(5, TimeUnit.SECONDS).isEqualTo(4);
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(archivedIds()).containsExactlyInAnyOrderElementsOf(free);
+        assertThat(liveIds()).containsExactly(held);
+        // picked up by the next run once the lock is gone
+        assertThat(archiver.archiveNow()).isEqualTo(1);
+    }
+
+    private Long doneDaysAgo(int days) {
+        return task(Task.Status.DONE, days);
+    }
+
+    private Long task(Task.Status status, int daysAgo) {
+        Long id = taskRepository.save(Task.builder()
+                .title("Card")
+                .status(status)
+                .priority(Task.Priority.MEDIUM)
+                .project(project)
+                .build()).getId();
+        jdbc.update("update tasks set updated_at = ? where id = ?", LocalDateTime.now().minusDays(daysAgo), id);
+        return id;
+    }
+
+    private List<Long> liveIds() {
+        return jdbc.queryForList("select id from tasks", Long.class);
+    }
+
+    private List<Long> archivedIds() {
+        return jdbc.queryForList("select id from tasks_archive", Long.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.repo.ProjectRepository;
+import com.dinidu.pms.repo.TaskDependencyRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Link inserts against H2 running at REPEATABLE READ, MySQL's default, so a transaction that read anything
+ * before taking the project lock would check cycles against links as they were before it waited.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskDependencyGraphs.class, TaskDependencyGraphsTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dependencies;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TaskDependencyGraphsTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TaskDependencyGraphs graphs;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskDependencyRepository dependencyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void opposingLinksRacingForTheLockNeverBothCommit() throws Exception {
+        Long projectId = projectRepository.save(Project.builder().name("Race").build()).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Long a = task(projectId, "a" + round);
+                Long b = task(projectId, "b" + round);
+                // cached, so the loser also exercises the path where the winner already updated the graph
+                transaction.executeWithoutResult(status -> graphs.graph(projectId));
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (Long[] pair : new Long[][]{{a, b}, {b, a}}) {
+                    results.add(pool.submit(() -> transaction.execute(status -> {
+                        // fixes this transaction's snapshot before either link exists
+                        taskRepository.count();
+                        await(barrier);
+                        try {
+                            graphs.link(projectId, pair[0], pair[1]);
+                            return true;
+                        } catch (DependencyCycleException ex) {
+                            assertThat(ex.getCycle()).containsExactlyInAnyOrder(a, b);
+                            return false;
+                        }
+                    })));
+                }
+
+                int linked = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) linked++;
+                }
+                assertThat(linked).as("round %d", round).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(dependencyRepository.count()).isEqualTo(10);
+    }
+
+    private Long task(Long projectId, String title) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .status(Task.Status.TODO)
+                .project(projectRepository.getReferenceById(projectId))
+                .build()).getId();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import com.dinidu.pms.entity.User;
+import com.dinidu.pms.repo.ProjectRepository;
+import com.dinidu.pms.repo.TaskRepository;
+import com.dinidu.pms.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Moves are held for a window far longer than any test, so nothing is written until a test flushes.
+ */
+@DataJpaTest
+@Import({TaskMoveCoalescer.class, TaskDependencyGraphs.class, TaskActivityLog.class, TaskMoveCoalescerTest.Cfg.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "tasks.move-coalescing.window-ms=600000"
+})
+class TaskMoveCoalescerTest {
+
+    @TestConfiguration
+    static class Cfg {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @Autowired
+    private TaskMoveCoalescer coalescer;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("mover").orElseGet(() -> userRepository.save(User.builder()
+                .username("mover").email("mover@example.com").password("x").role(User.Role.MEMBER).build()));
+        project = projectRepository.save(Project.builder()
+                .name("Board").status(Project.Status.ACTIVE).owner(user).build());
+    }
+
+    @Test
+    void movesWithinTheWindowAreWrittenOnceWithTheirFinalStatus() {
+        Task task = task();
+        long version = task.getVersion();
+        double coalescedBefore = counter("pms.task.moves.coalesced");
+
+        coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+        coalescer.submit(load(task), project.getId(), Task.Status.REVIEW, user);
+        coalescer.submit(load(task), project.getId(), Task.Status.DONE, user);
+
+        // nothing written yet
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(Task.Status.TODO);
+        assertThat(counter("pms.task.moves.coalesced") - coalescedBefore).isEqualTo(2);
+
+        coalescer.flush(task.getId());
+        Task written = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(written.getStatus()).isEqualTo(Task.Status.DONE);
+        assertThat(written.getVersion()).isEqualTo(version + 1);
+        assertThat(coalescer.isPending(task.getId())).isFalse();
+    }
+
+    @Test
+    void overlayShowsThePendingStatusAndTheVersionItsWriteWillProduce() {
+        Task task = task();
+        long version = task.getVersion();
+
+        Task moved = coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+        assertThat(moved.getStatus()).isEqualTo(Task.Status.IN_PROGRESS);
+        assertThat(moved.getVersion()).isEqualTo(version + 1);
+
+        // a later move in the same window does not bump it again, and overlaying twice is harmless
+        Task again = coalescer.submit(coalescer.overlay(load(task)), project.getId(), Task.Status.DONE, user);
+        assertThat(again.getStatus()).isEqualTo(Task.Status.DONE);
+        assertThat(coalescer.overlay(again).getVersion()).isEqualTo(version + 1);
+
+        coalescer.flush(task.getId());
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getVersion()).isEqualTo(version + 1);
+        // once written, the overlay leaves the task alone
+        assertThat(coalescer.overlay(load(task)).getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void editBasedOnTheMoveResponseIsNotAConflict() {
+        Task task = task();
+        Task moved = coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+
+        // what updateTask does: flush, then save an entity carrying the version the client was given
+        coalescer.flush(task.getId());
+        Task edit = load(task);
+        edit.setTitle("Renamed");
+        edit.setVersion(moved.getVersion());
+        Task saved = taskRepository.save(edit);
+
+        assertThat(saved.getStatus()).isEqualTo(Task.Status.IN_PROGRESS);
+        assertThat(saved.getVersion()).isEqualTo(moved.getVersion() + 1);
+
+        // the same edit carrying the version from before the move would have been a conflict
+        Task stale = load(task);
+        stale.setTitle("Stale");
+        stale.setVersion(moved.getVersion() - 1);
+        assertThatThrownBy(() -> taskRepository.save(stale)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void editFromAnotherNodeThatKeepsTheStatusStillGetsTheMove() {
+        Task task = task();
+        long version = task.getVersion();
+        coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+
+        // another node has no pending move to flush and writes straight through
+        update(task, t -> t.setTitle("Renamed elsewhere"));
+        coalescer.flush(task.getId());
+
+        Task written = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(written.getTitle()).isEqualTo("Renamed elsewhere");
+        assertThat(written.getStatus()).isEqualTo(Task.Status.IN_PROGRESS);
+        assertThat(written.getVersion()).isEqualTo(version + 2);
+    }
+
+    @Test
+    void statusChangedOnAnotherNodeIsNotOverwritten() {
+        Task task = task();
+        double supersededBefore = counter("pms.task.moves.superseded");
+        double writtenBefore = counter("pms.task.moves.written");
+        coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+
+        update(task, t -> t.setStatus(Task.Status.DONE));
+        coalescer.flush(task.getId());
+
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(Task.Status.DONE);
+        assertThat(counter("pms.task.moves.superseded") - supersededBefore).isEqualTo(1);
+        assertThat(counter("pms.task.moves.written") - writtenBefore).isZero();
+    }
+
+    @Test
+    void moveOfADeletedTaskCountsAsNotWritten() {
+        Task task = task();
+        double writtenBefore = counter("pms.task.moves.written");
+        coalescer.submit(load(task), project.getId(), Task.Status.IN_PROGRESS, user);
+
+        taskRepository.deleteById(task.getId());
+        coalescer.flush(task.getId());
+
+        assertThat(counter("pms.task.moves.written") - writtenBefore).isZero();
+    }
+
+    private Task task() {
+        return taskRepository.save(Task.builder()
+                .title("Card")
+                .status(Task.Status.TODO)
+                .priority(Task.Priority.MEDIUM)
+                .project(project)
+                .build());
+    }
+
+    // a detached copy, as a request loads it
+    private Task load(Task task) {
+        return taskRepository.findById(task.getId()).orElseThrow();
+    }
+
+    private void update(Task task, Consumer<Task> change) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                change.accept(taskRepository.findById(task.getId()).orElseThrow()));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
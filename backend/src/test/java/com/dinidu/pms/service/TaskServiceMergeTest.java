@@ -0,0 +1,138 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.dto.TaskPatchRequest;
+import com.dinidu.pms.dto.TaskRequest;
+import com.dinidu.pms.entity.Project;
+import com.dinidu.pms.entity.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * The field-level rules deciding whether a stale edit merges or conflicts.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskServiceMergeTest {
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    @Test
+    void patchWithoutOriginalConflictsOnlyWhereTheValueDiffers() {
+        Task current = task();
+        TaskPatchRequest.Fields changes = new TaskPatchRequest.Fields();
+        changes.setTitle("Ship it");
+        changes.setStatus(Task.Status.DONE);
+
+        assertThat(taskService.conflictingFields(current, changes, null)).containsExactly("status");
+    }
+
+    @Test
+    void fieldNobodyElseTouchedMerges() {
+        Task current = task();
+        TaskPatchRequest.Fields changes = new TaskPatchRequest.Fields();
+        changes.setStatus(Task.Status.DONE);
+        changes.setPriority(Task.Priority.URGENT);
+        TaskPatchRequest.Fields original = new TaskPatchRequest.Fields();
+        original.setStatus(Task.Status.IN_PROGRESS);
+        original.setPriority(Task.Priority.LOW);
+
+        // status is still what the caller saw; priority was changed by someone else in the meantime
+        assertThat(taskService.conflictingFields(current, changes, original)).containsExactly("priority");
+    }
+
+    @Test
+    void fieldsLeftOutOfThePatchNeverConflict() {
+        Task current = task();
+        TaskPatchRequest.Fields changes = new TaskPatchRequest.Fields();
+        changes.setDueDate(LocalDate.of(2026, 1, 31));
+        TaskPatchRequest.Fields original = new TaskPatchRequest.Fields();
+        original.setDueDate(current.getDueDate());
+        original.setTitle("Something else entirely");
+
+        assertThat(taskService.conflictingFields(current, changes, original)).isEmpty();
+    }
+
+    @Test
+    void patchMovingToAnotherProjectConflictsIfTheTaskMovedMeanwhile() {
+        Task current = task();
+        TaskPatchRequest.Fields changes = new TaskPatchRequest.Fields();
+        changes.setProjectId(9L);
+        TaskPatchRequest.Fields original = new TaskPatchRequest.Fields();
+        original.setProjectId(3L);
+
+        assertThat(taskService.conflictingFields(current, changes, original)).containsExactly("projectId");
+        original.setProjectId(5L);
+        assertThat(taskService.conflictingFields(current, changes, original)).isEmpty();
+    }
+
+    @Test
+    void tagsCompareAsNormalizedSets() {
+        Task current = task();
+        current.setTagIds(Set.of(1, 2));
+        when(tagDictionary.namesOf(current.getTagIds())).thenReturn(List.of("backend", "urgent fix"));
+        TaskPatchRequest.Fields changes = new TaskPatchRequest.Fields();
+        changes.setTags(Set.of(" Backend", "urgent   FIX "));
+        TaskPatchRequest.Fields original = new TaskPatchRequest.Fields();
+        original.setTags(Set.of("backend"));
+
+        // already the requested value
+        assertThat(taskService.conflictingFields(current, changes, original)).isEmpty();
+
+        changes.setTags(Set.of("backend", "frontend"));
+        assertThat(taskService.conflictingFields(current, changes, original)).containsExactly("tags");
+    }
+
+    @Test
+    void fullUpdateReportsEveryFieldItWouldOverwrite() {
+        Task current = task();
+        TaskRequest request = new TaskRequest();
+        request.setTitle(current.getTitle());
+        request.setDescription("Rewritten");
+        request.setPriority(current.getPriority());
+        // no due date clears the current one
+        request.setDueDate(null);
+
+        assertThat(taskService.overwrittenFields(current, request)).containsExactly("description", "dueDate");
+    }
+
+    @Test
+    void fullUpdateLeavesOptionalFieldsAloneWhenOmitted() {
+        Task current = task();
+        TaskRequest request = new TaskRequest();
+        request.setTitle(current.getTitle());
+        request.setDescription(current.getDescription());
+        request.setDueDate(current.getDueDate());
+
+        // status, priority, project, assignee and tags are only set when present
+        assertThat(taskService.overwrittenFields(current, request)).isEmpty();
+
+        request.setStatus(Task.Status.TODO);
+        request.setProjectId(5L);
+        assertThat(taskService.overwrittenFields(current, request)).containsExactly("status");
+    }
+
+    private static Task task() {
+        return Task.builder()
+                .id(11L)
+                .title("Ship it")
+                .description("Release notes")
+                .status(Task.Status.IN_PROGRESS)
+                .priority(Task.Priority.HIGH)
+                .dueDate(LocalDate.of(2025, 12, 1))
+                .project(Project.builder().id(5L).name("Launch").build())
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.dinidu.pms.service;
+
+import com.dinidu.pms.repo.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transactions are simulated with a bare synchronization scope on the test thread, completed by hand.
+ */
+@ExtendWith(MockitoExtension.class)
+class TeamNameFilterTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @InjectMocks
+    private TeamNameFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void unbuiltFilterLetsTheDatabaseDecide() {
+        assertThat(filter.mightContain("anything")).isTrue();
+    }
+
+    @Test
+    void rebuildHasEveryNameInTheTableAndForgetsRemovedOnes() {
+        when(teamRepository.findAllNormalizedNames()).thenReturn(List.of("alpha", "beta"));
+        filter.rebuild();
+        assertThat(filter.mightContain("alpha")).isTrue();
+        assertThat(filter.mightContain("beta")).isTrue();
+        assertThat(filter.mightContain("gamma")).isFalse();
+
+        when(teamRepository.findAllNormalizedNames()).thenReturn(List.of("alpha"));
+        filter.rebuild();
+        assertThat(filter.mightContain("beta")).isFalse();
+    }
+
+    @Test
+    void addsPastCapacityTriggerARebuildThatKeepsThem() {
+        when(teamRepository.findAllNormalizedNames()).thenReturn(List.of());
+        filter.rebuild();
+        List<String> names = IntStream.range(0, 1100).mapToObj(i -> "team " + i).toList();
+        // each name is committed before it is added, as createTeam does
+        List<String> table = new ArrayList<>();
+        when(teamRepository.findAllNormalizedNames()).thenAnswer(invocation -> List.copyOf(table));
+
+        for (String name : names) {
+            table.add(name);
+            filter.add(name);
+        }
+
+        verify(teamRepository, times(2)).findAllNormalizedNames();
+        assertThat(names).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void rebuildInsideATransactionWaitsForTheCommit() {
+        when(teamRepository.findAllNormalizedNames()).thenReturn(List.of("alpha"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        filter.rebuild();
+        verify(teamRepository, never()).findAllNormalizedNames();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(teamRepository).findAllNormalizedNames();
+        assertThat(filter.mightContain("alpha")).isTrue();
+    }
+
+    @Test
+    void rebuildInsideARolledBackTransactionNeverRuns() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        filter.rebuild();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(teamRepository, never()).findAllNormalizedNames();
+    }
+
+    @Test
+    void concurrentRebuildKeepsANameWhoseTransactionHasNotCommitted() {
+        when(teamRepository.findAllNormalizedNames()).thenReturn(List.of("alpha"));
+        filter.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        filter.add("fresh");
+
+        // another thread rebuilds while "fresh" is not in the committed table yet
+        CompletableFuture.runAsync(filter::rebuild).join();
+        assertThat(filter.mightContain("fresh")).isTrue();
+
+        // rolled back: the next rebuild may forget it
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        filter.rebuild();
+        assertThat(filter.mightContain("fresh")).isFalse();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations =
+                new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+            synchronization.afterCompletion(status);
+        }
+    }
+}
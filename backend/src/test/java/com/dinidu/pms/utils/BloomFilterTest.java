@@ -0,0 +1,56 @@
+package com.dinidu.pms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void everyInsertedKeyIsFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("team " + i);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("team " + i)).as("team %d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("team " + i);
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other " + i)) falsePositives++;
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(16, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("anything")).isFalse();
+        filter.put("");
+        assertThat(filter.mightContain("")).isTrue();
+        // keys longer than one 16-byte murmur block, with every tail length
+        String longKey = "a name long enough to span several blocks";
+        for (int length = 15; length <= longKey.length(); length++) {
+            filter.put(longKey.substring(0, length));
+            assertThat(filter.mightContain(longKey.substring(0, length))).isTrue();
+        }
+        assertThat(filter.expectedInsertions()).isEqualTo(16);
+    }
+
+    @Test
+    void rejectsImpossibleSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
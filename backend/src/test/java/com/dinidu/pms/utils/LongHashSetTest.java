@@ -0,0 +1,93 @@
+package com.dinidu.pms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void addContainsAndRemove() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(7)).isTrue();
+        assertThat(set.add(7)).isFalse();
+        assertThat(set.contains(7)).isTrue();
+        assertThat(set.contains(8)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+
+        assertThat(set.remove(8)).isFalse();
+        assertThat(set.remove(7)).isTrue();
+        assertThat(set.remove(7)).isFalse();
+        assertThat(set.contains(7)).isFalse();
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    void zeroAndNegativeValuesAreOrdinaryMembers() {
+        LongHashSet set = LongHashSet.of(List.of(0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 5L));
+
+        assertThat(set.size()).isEqualTo(5);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(-1)).isTrue();
+        assertThat(set.contains(-5)).isFalse();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.toArray()).containsExactly(Long.MIN_VALUE, -1, 0, 5, Long.MAX_VALUE);
+
+        List<Long> seen = new ArrayList<>();
+        set.forEach(seen::add);
+        assertThat(seen).containsExactlyInAnyOrder(Long.MIN_VALUE, -1L, 0L, 5L, Long.MAX_VALUE);
+
+        assertThat(set.remove(0)).isTrue();
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.remove(0)).isFalse();
+        assertThat(set.size()).isEqualTo(4);
+        // growth rehashes the table and keeps the flag
+        LongHashSet grown = new LongHashSet(1);
+        grown.add(0);
+        for (long v = 1; v <= 100; v++) grown.add(-v);
+        assertThat(grown.size()).isEqualTo(101);
+        assertThat(grown.contains(0)).isTrue();
+        assertThat(grown.contains(-100)).isTrue();
+    }
+
+    @Test
+    void minusKeepsOnlyValuesMissingFromTheOther() {
+        LongHashSet a = LongHashSet.of(List.of(0L, 1L, 2L, 3L, -4L));
+        LongHashSet b = LongHashSet.of(List.of(0L, 2L, 9L));
+
+        assertThat(a.minus(b).toArray()).containsExactly(-4, 1, 3);
+        assertThat(b.minus(a).toArray()).containsExactly(9);
+    }
+
+    @Test
+    void matchesHashSetThroughGrowthAndRemovals() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            // a narrow range for collisions and long probe runs, a wide one for arbitrary longs
+            long value = random.nextBoolean() ? random.nextInt(20_000) - 10_000 : random.nextLong();
+            // removals a third of the time, so deletes keep breaking up probe runs as the table grows
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value : expected) assertThat(set.contains(value)).isTrue();
+        for (int i = 0; i < 20_000; i++) {
+            long value = random.nextInt(40_000) - 20_000;
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+        assertThat(set.toArray()).containsExactly(expected.stream().sorted().mapToLong(Long::longValue).toArray());
+    }
+}
@@ -0,0 +1,53 @@
+package com.dinidu.pms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntHashMapTest {
+
+    @Test
+    void missingKeysReadAsMinusOne() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(7, 0);
+
+        assertThat(map.get(7)).isZero();
+        assertThat(map.get(8)).isEqualTo(-1);
+        assertThat(map.get(0)).isEqualTo(-1);
+        assertThat(map.get(-7)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsKeysThatAreNotPositive() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThatThrownBy(() -> map.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.put(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesHashMapThroughGrowthAndOverwrites() {
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // a narrow range for collisions and overwrites, a wide one for clustering-prone large ids
+            long key = random.nextBoolean() ? 1 + random.nextInt(20_000) : 1 + (random.nextLong() & Long.MAX_VALUE - 1);
+            int value = random.nextInt(Integer.MAX_VALUE);
+            map.put(key, value);
+            expected.put(key, value);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+        for (int i = 0; i < 10_000; i++) {
+            long key = 1 + random.nextInt(40_000);
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, -1));
+        }
+    }
+}
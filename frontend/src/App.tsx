@@ -10,7 +10,7 @@ import ProjectsView from '@/pages/ProjectsView';
 import TasksView from '@/pages/TasksView';
 import Header from '@/components/Header';
 import AuthForm from '@/components/AuthForm';
-import { useCurrentUser } from '@/hooks/useApi';
+import { useBootstrap, useCurrentUser } from '@/hooks/useApi';
 import TeamsView from '@/pages/TeamsView';
 
 const queryClient = new QueryClient({
@@ -27,9 +27,11 @@ const AppContent: React.FC = () => {
   const [isLogin, setIsLogin] = useState(true);
   const [initialUsername, setInitialUsername] = useState('');
 
-  const { data: user, isLoading } = useCurrentUser();
+  // the bootstrap call seeds the user and everything the dashboard shows; /users/me is only asked for if it fails
+  const bootstrap = useBootstrap();
+  const { data: user, isLoading } = useCurrentUser(!bootstrap.isFetching);
 
-  if (isLoading) return <div className="min-h-screen flex items-center justify-center bg-background">Loading...</div>;
+  if (bootstrap.isFetching || isLoading) return <div className="min-h-screen flex items-center justify-center bg-background">Loading...</div>;
 
   if (!user) return (
     <AuthForm
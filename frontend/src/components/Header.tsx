@@ -11,8 +11,9 @@ import { useTheme } from 'next-themes';
 const Header: React.FC<{ onNavigate: (view: string) => void; currentView: string }> = ({ onNavigate, currentView }) => {
     const { data: user } = useCurrentUser();
 
-    const handleLogout = () => {
-        apiService.logout();
+    const handleLogout = async () => {
+        // reloading cancels a pending request, so wait for the revocation first
+        await apiService.logout();
         window.location.reload();
     };
 
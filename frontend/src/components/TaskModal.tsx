@@ -57,7 +57,8 @@ const TaskModal: React.FC<{ isOpen: boolean; onClose: () => void; task?: Task |
                 priority: formData.priority,
                 dueDate: formData.dueDate.toISOString(),
                 projectId: Number(formData.projectId),
-                assigneeId: Number(user?.id)
+                assigneeId: Number(user?.id),
+                version: task?.version
             };
 
             if (task) {
@@ -1,5 +1,5 @@
 // src/hooks/useApi.ts
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useQuery, useMutation, useQueryClient, QueryClient } from '@tanstack/react-query';
 import { toast } from '@/hooks/use-toast';
 import apiService, {
     LoginRequest,
@@ -12,6 +12,8 @@ import apiService, {
     CurrentUser,
     Team,
     TeamRequest,
+    BootstrapResponse,
+    TaskStatus,
 } from '@/services/api';
 
 // Query Keys
@@ -24,9 +26,52 @@ export const queryKeys = {
     user: ['user'] as const,
     teams: ['teams'] as const,
     team: (id: number) => ['teams', id] as const,
+    bootstrap: ['bootstrap'] as const,
+};
+
+// Queries seeded by the bootstrap call stay fresh this long, so the views mounting right after it
+// read the seeded data instead of fetching it again; mutations still invalidate them as usual
+const SEEDED_STALE_TIME = 30_000;
+
+// -------- BOOTSTRAP --------
+// One request for the initial load; its parts are copied into the caches the per-resource hooks read
+export const loadBootstrap = async (queryClient: QueryClient): Promise<BootstrapResponse> => {
+    const data = await apiService.getBootstrap();
+    queryClient.setQueryData<CurrentUser>(queryKeys.user, data.user);
+    queryClient.setQueryData<Project[]>(queryKeys.projects, data.projects);
+    queryClient.setQueryData<Task[]>(queryKeys.tasks, data.tasks);
+    queryClient.setQueryData<Team[]>(queryKeys.teams, data.teams);
+    for (const [status, count] of Object.entries(data.taskStats) as [TaskStatus, number][]) {
+        queryClient.setQueryData<number>(queryKeys.taskStats(status), count);
+    }
+    return data;
+};
+
+export const useBootstrap = () => {
+    const queryClient = useQueryClient();
+
+    return useQuery({
+        queryKey: queryKeys.bootstrap,
+        queryFn: () => loadBootstrap(queryClient),
+        enabled: apiService.isAuthenticated(),
+        // once per page load; afterwards each seeded query refreshes on its own
+        staleTime: Infinity,
+        retry: false,
+    });
 };
 
 // -------- AUTH HOOKS --------
+// Seeds the caches from the bootstrap call; the current user alone is enough to render the app if that fails
+const signedIn = async (queryClient: QueryClient) => {
+    try {
+        await queryClient.fetchQuery({ queryKey: queryKeys.bootstrap, queryFn: () => loadBootstrap(queryClient) });
+    } catch (error) {
+        console.warn('[useApi] bootstrap failed - fetching current user only', error);
+        const user = await apiService.getCurrentUser();
+        queryClient.setQueryData<CurrentUser>(queryKeys.user, user);
+    }
+};
+
 export const useLogin = () => {
     const queryClient = useQueryClient();
 
@@ -34,10 +79,8 @@ export const useLogin = () => {
         mutationFn: (data: LoginRequest) => apiService.login(data),
         onSuccess: async () => {
             // fetch current user after login
-            console.debug('[useApi] login onSuccess - fetching current user');
-            const user = await apiService.getCurrentUser();
-            console.debug('[useApi] current user', user);
-            queryClient.setQueryData<CurrentUser>(queryKeys.user, user);
+            console.debug('[useApi] login onSuccess - loading initial data');
+            await signedIn(queryClient);
             toast({
                 title: 'Success',
                 description: 'Logged in successfully',
@@ -60,10 +103,8 @@ export const useRegister = () => {
     return useMutation({
         mutationFn: (data: RegisterRequest) => apiService.register(data),
         onSuccess: async (response, variables) => {
-            console.debug('[useApi] register onSuccess - fetching current user');
-            const user = await apiService.getCurrentUser();
-            console.debug('[useApi] current user', user);
-            queryClient.setQueryData<CurrentUser>(queryKeys.user, user);
+            console.debug('[useApi] register onSuccess - loading initial data');
+            await signedIn(queryClient);
             toast({
                 title: 'Success',
                 description: 'Account created successfully',
@@ -81,11 +122,12 @@ export const useRegister = () => {
     });
 };
 
-export const useCurrentUser = () => {
+export const useCurrentUser = (enabled = true) => {
     return useQuery({
         queryKey: queryKeys.user,
         queryFn: () => apiService.getCurrentUser(),
-        enabled: apiService.isAuthenticated(),
+        enabled: enabled && apiService.isAuthenticated(),
+        staleTime: SEEDED_STALE_TIME,
         retry: false,
     });
 };
@@ -96,6 +138,7 @@ export const useProjects = () => {
         queryKey: queryKeys.projects,
         queryFn: () => apiService.getProjects(),
         enabled: apiService.isAuthenticated(),
+        staleTime: SEEDED_STALE_TIME,
     });
 };
 
@@ -182,6 +225,7 @@ export const useTasks = () => {
         queryKey: queryKeys.tasks,
         queryFn: () => apiService.getTasks(),
         enabled: apiService.isAuthenticated(),
+        staleTime: SEEDED_STALE_TIME,
     });
 };
 
@@ -266,6 +310,7 @@ export const useTaskCountByStatus = (status: Task['status']) => {
         queryKey: queryKeys.taskStats(status),
         queryFn: () => apiService.getTaskCountByStatus(status),
         enabled: !!status && apiService.isAuthenticated(),
+        staleTime: SEEDED_STALE_TIME,
     });
 };
 
@@ -291,6 +336,7 @@ export const useTeams = () => {
         queryKey: queryKeys.teams,
         queryFn: () => apiService.getTeams(),
         enabled: apiService.isAuthenticated(),
+        staleTime: SEEDED_STALE_TIME,
     });
 };
 
@@ -1,6 +1,6 @@
 // src/pages/TasksView.tsx
 import React, { useState, useEffect } from 'react';
-import { useTasks, useProjects, useUpdateTask, useTeams } from '@/hooks/useApi';
+import { useTasks, useProjects, useTeams } from '@/hooks/useApi';
 import { Card, CardContent } from '@/components/ui/card';
 import { Input } from '@/components/ui/input';
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '@/components/ui/select';
@@ -9,13 +9,12 @@ import TaskCard from '@/components/TaskCard';
 import TaskModal from '@/components/TaskModal';
 import { Button } from '@/components/ui/button';
 import { useQueryClient } from '@tanstack/react-query';
-import apiService from '@/services/api';
+import apiService, { TaskStatus } from '@/services/api';
 
 const TasksView: React.FC = () => {
     const { data: tasks = [], isLoading, error } = useTasks();
     const { data: projects = [] } = useProjects();
     const { data: teams = [] } = useTeams();
-    const updateTask = useUpdateTask();
     const queryClient = useQueryClient();
 
     const handleDrop = async (e: React.DragEvent, newStatus: string) => {
@@ -29,22 +28,14 @@ const TasksView: React.FC = () => {
             queryClient.setQueryData(['tasks'], previous.map(t => t.id === taskId ? { ...t, status: newStatus } : t));
         }
 
+        const moved = previous?.find(t => t.id === taskId);
         try {
-            // fetch full task from server to guarantee required fields are present
-            const full = await apiService.getTask(taskId);
-
-            const payload: any = {
-                title: full.title,
-                description: full.description || '',
-                status: newStatus,
-                priority: full.priority,
-                dueDate: full.dueDate ?? null,
-                projectId: Number(full.project?.id),
-                assigneeId: full.assignee?.id ?? null,
-                tags: full.tags || [],
-            };
-
-            await updateTask.mutateAsync({ id: taskId, data: payload });
+            // only the status changed: the server merges it even if someone else edited other fields meanwhile
+            await apiService.patchTask(taskId, {
+                version: moved?.version ?? (await apiService.getTask(taskId)).version,
+                changes: { status: newStatus as TaskStatus },
+                original: moved ? { status: moved.status } : undefined,
+            });
             queryClient.invalidateQueries({ queryKey: ['tasks'] });
         } catch (err) {
             if (previous) queryClient.setQueryData(['tasks'], previous);
@@ -0,0 +1,51 @@
+import { beforeEach, describe, expect, it } from "vitest";
+import type { InternalAxiosRequestConfig } from "axios";
+
+// the node test environment has no localStorage
+const storage = new Map<string, string>();
+globalThis.localStorage = {
+    getItem: (key: string) => storage.get(key) ?? null,
+    setItem: (key: string, value: string) => void storage.set(key, value),
+    removeItem: (key: string) => void storage.delete(key),
+    clear: () => storage.clear(),
+    key: (index: number) => [...storage.keys()][index] ?? null,
+    get length() {
+        return storage.size;
+    },
+} as Storage;
+
+const { apiService } = await import("./api");
+
+// records requests as they would go on the wire, after every interceptor ran
+const sent: InternalAxiosRequestConfig[] = [];
+(apiService as any).client.defaults.adapter = async (config: InternalAxiosRequestConfig) => {
+    sent.push(config);
+    return { data: {}, status: 200, statusText: "OK", headers: {}, config };
+};
+
+describe("logout", () => {
+    beforeEach(() => {
+        storage.clear();
+        sent.length = 0;
+    });
+
+    it("sends the access token to be revoked although storage is already cleared", async () => {
+        localStorage.setItem("auth_token", "access-1");
+        localStorage.setItem("refresh_token", "refresh-1");
+
+        await apiService.logout();
+
+        expect(sent).toHaveLength(1);
+        expect(sent[0].url).toBe("/auth/logout");
+        expect(sent[0].headers.Authorization).toBe("Bearer access-1");
+        expect(JSON.parse(sent[0].data)).toEqual({ refreshToken: "refresh-1" });
+        expect(localStorage.getItem("auth_token")).toBeNull();
+        expect(localStorage.getItem("refresh_token")).toBeNull();
+    });
+
+    it("skips the request when there is nothing to revoke", async () => {
+        await apiService.logout();
+
+        expect(sent).toHaveLength(0);
+    });
+});
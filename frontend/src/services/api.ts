@@ -17,6 +17,7 @@ export interface RegisterRequest {
 
 export interface AuthResponse {
     token: string;
+    refreshToken?: string;  // rotating; exchanged at /auth/refresh when the access token expires
     type: string;       // Java returns "Bearer"
     username: string;
     email: string;
@@ -61,6 +62,7 @@ export interface ProjectRequest {
     startDate?: string;  // Java LocalDate serialized as ISO string
     endDate?: string;
     teamId?: number | null;
+    version?: number;    // when set, a stale edit is rejected with 409 instead of overwriting
 }
 
 export interface Project {
@@ -72,6 +74,7 @@ export interface Project {
     endDate?: string;
     owner: User;
     team?: Pick<Team, "id" | "name"> | null;
+    version: number;     // optimistic lock; send back as ProjectRequest.version
     createdAt: string;
     updatedAt: string;
 }
@@ -88,7 +91,18 @@ export interface TaskRequest {
     dueDate?: string;
     projectId: number;
     assigneeId?: number;
-    tags?: string[];  // exists in Java DTO (ignored on backend entity)
+    tags?: string[];  // replaces the task's tags when set; names are trimmed and lower-cased
+    version?: number; // when set, a stale edit is rejected with 409 instead of overwriting
+}
+
+// Partial update merged server-side with concurrent edits to other fields.
+// `original` holds this client's values of the changed fields as of `version`.
+export type TaskFields = Partial<Pick<TaskRequest, "title" | "description" | "status" | "priority" | "dueDate" | "projectId" | "assigneeId" | "tags">>;
+
+export interface TaskPatchRequest {
+    version: number;
+    changes: TaskFields;
+    original?: TaskFields;
 }
 
 export interface Task {
@@ -101,8 +115,66 @@ export interface Task {
     project: Project;
     assignee?: User;
     tags?: string[];
+    version: number;
     createdAt: string;
     updatedAt: string;
+    // set on archived tasks, returned only with includeArchived
+    archivedAt?: string | null;
+}
+
+// One history entry; `field` with old/new values for changes, absent for created/deleted/restored
+export interface TaskActivity {
+    id: number;
+    taskId: number;
+    actorId?: number | null;
+    actor?: string | null;
+    action: "CREATED" | "UPDATED" | "MOVED" | "DELETED" | "RESTORED";
+    field?: string | null;
+    oldValue?: string | null;
+    newValue?: string | null;
+    occurredAt: string;
+}
+
+// Newest first; pass nextCursor as `before` for the next page (null on the last one)
+export interface TaskActivityPage {
+    items: TaskActivity[];
+    nextCursor: number | null;
+}
+
+// "blocked by" links of one task; both tasks are always in the same project
+export interface TaskDependencies {
+    taskId: number;
+    blockedBy: number[];
+    blocks: number[];
+}
+
+export interface TaskDependency {
+    id: number;
+    taskId: number;
+    blockedById: number;
+    projectId: number;
+    createdAt: string;
+}
+
+// One day per open task; negative slack means the project's end date cannot be met
+export interface TaskSchedule {
+    taskId: number;
+    earliestStart: string;
+    earliestFinish: string;
+    latestStart: string;
+    latestFinish: string;
+    slackDays: number;
+    critical: boolean;
+}
+
+export interface CriticalPathResponse {
+    projectId: number;
+    planStart: string;
+    endDate?: string | null;
+    projectedFinish?: string | null;
+    behindSchedule: boolean;
+    criticalPath: number[];
+    tasks: TaskSchedule[];
 }
 
 export interface CurrentUser {
@@ -114,6 +186,16 @@ export interface CurrentUser {
     role: string;
 }
 
+// -------- BOOTSTRAP --------
+// Initial load in one request: the same data as /users/me, /projects, /tasks, /teams and /tasks/stats/{status}
+export interface BootstrapResponse {
+    user: CurrentUser;
+    projects: Project[];
+    tasks: Task[];
+    teams: Team[];
+    taskStats: Record<TaskStatus, number>;
+}
+
 // -------- API SERVICE --------
 class ApiService {
     private client: AxiosInstance;
@@ -141,12 +223,21 @@ class ApiService {
                 console.debug('[api] response', { url: response.config.url, status: response.status });
                 return response;
             },
-            (error) => {
+            async (error) => {
                 // More robust logging when the response is missing (network error / server down)
                 console.error('[api] response error', error?.response?.status, error?.response?.data || error?.message);
+                const original = error.config;
+                if (error.response?.status === 401 && original && !original._retried && !String(original.url).startsWith("/auth/")) {
+                    original._retried = true;
+                    const refreshed = await this.refreshTokens();
+                    if (refreshed) {
+                        return this.client(original);
+                    }
+                }
                 if (error.response?.status === 401) {
                     console.warn('[api] 401 - clearing token and redirecting to /login');
                     localStorage.removeItem("auth_token");
+                    localStorage.removeItem("refresh_token");
                     window.location.href = "/login";
                 }
                 return Promise.reject(error);
@@ -155,12 +246,42 @@ class ApiService {
     }
 
     // -------- AUTH --------
+    private refreshInFlight: Promise<boolean> | null = null;
+
+    // Single-flight: concurrent 401s share one refresh, since each refresh token is usable only once
+    private refreshTokens(): Promise<boolean> {
+        const refreshToken = localStorage.getItem("refresh_token");
+        if (!refreshToken) return Promise.resolve(false);
+        if (!this.refreshInFlight) {
+            this.refreshInFlight = this.client
+                .post<AuthResponse>("/auth/refresh", { refreshToken })
+                .then((response) => {
+                    this.storeTokens(response.data);
+                    return true;
+                })
+                .catch(() => false)
+                .finally(() => {
+                    this.refreshInFlight = null;
+                });
+        }
+        return this.refreshInFlight;
+    }
+
+    private storeTokens(data: { token?: string; refreshToken?: string }): void {
+        if (data.token) {
+            localStorage.setItem("auth_token", data.token);
+        }
+        if (data.refreshToken) {
+            localStorage.setItem("refresh_token", data.refreshToken);
+        }
+    }
+
     async login(data: LoginRequest): Promise<AuthResponse> {
         console.debug('[api] login attempt', { username: data.username });
         const response: AxiosResponse<AuthResponse> = await this.client.post("/auth/login", data);
         console.debug('[api] login response', response.data);
         if (response.data.token) {
-            localStorage.setItem("auth_token", response.data.token);
+            this.storeTokens(response.data);
             console.debug('[api] token stored');
         }
         return response.data;
@@ -171,7 +292,7 @@ class ApiService {
         const response: AxiosResponse<AuthResponse> = await this.client.post("/auth/register", data);
         console.debug('[api] register response', response.data);
         if (response.data.token) {
-            localStorage.setItem("auth_token", response.data.token);
+            this.storeTokens(response.data);
             console.debug('[api] token stored');
         }
         return response.data;
@@ -183,8 +304,19 @@ class ApiService {
         return (response.data as any).url;
     }
 
-    logout(): void {
+    // Best effort: revoke both tokens server-side. The storage is cleared right away, so the access token is
+    // passed explicitly rather than left to the request interceptor, which runs after this returns.
+    async logout(): Promise<void> {
+        const token = localStorage.getItem("auth_token");
+        const refreshToken = localStorage.getItem("refresh_token");
         localStorage.removeItem("auth_token");
+        localStorage.removeItem("refresh_token");
+        if (!token && !refreshToken) return;
+        await this.client
+            .post("/auth/logout", refreshToken ? { refreshToken } : undefined, {
+                headers: token ? { Authorization: `Bearer ${token}` } : undefined,
+            })
+            .catch(() => undefined);
     }
 
     // -------- PROJECTS --------
@@ -212,9 +344,29 @@ class ApiService {
         await this.client.delete(`/projects/${id}`);
     }
 
+    async getCriticalPath(projectId: number): Promise<CriticalPathResponse> {
+        const response: AxiosResponse<CriticalPathResponse> = await this.client.get(`/projects/${projectId}/critical-path`);
+        return response.data;
+    }
+
     // -------- TASKS --------
-    async getTasks(): Promise<Task[]> {
-        const response: AxiosResponse<Task[]> = await this.client.get("/tasks");
+    async getTasks(includeArchived = false): Promise<Task[]> {
+        const response: AxiosResponse<Task[]> = await this.client.get("/tasks", {
+            params: includeArchived ? { includeArchived: true } : undefined,
+        });
+        return response.data;
+    }
+
+    // Tasks carrying every one of `tags`, optionally within one project
+    async findTasksByTags(tags: string[], projectId?: number): Promise<Task[]> {
+        const response: AxiosResponse<Task[]> = await this.client.get("/tasks", {
+            params: { tags: tags.join(","), projectId },
+        });
+        return response.data;
+    }
+
+    async suggestTags(prefix: string, limit = 10): Promise<string[]> {
+        const response: AxiosResponse<string[]> = await this.client.get("/tasks/tags", { params: { prefix, limit } });
         return response.data;
     }
 
@@ -233,6 +385,38 @@ class ApiService {
         return response.data;
     }
 
+    async patchTask(id: number, data: TaskPatchRequest): Promise<Task> {
+        const response: AxiosResponse<Task> = await this.client.patch(`/tasks/${id}`, data);
+        return response.data;
+    }
+
+    async restoreTask(id: number): Promise<Task> {
+        const response: AxiosResponse<Task> = await this.client.post(`/tasks/${id}/restore`);
+        return response.data;
+    }
+
+    async getTaskActivity(id: number, before?: number | null, limit = 50): Promise<TaskActivityPage> {
+        const response: AxiosResponse<TaskActivityPage> = await this.client.get(`/tasks/${id}/activity`, {
+            params: { before: before ?? undefined, limit },
+        });
+        return response.data;
+    }
+
+    async getTaskDependencies(id: number): Promise<TaskDependencies> {
+        const response: AxiosResponse<TaskDependencies> = await this.client.get(`/tasks/${id}/dependencies`);
+        return response.data;
+    }
+
+    // 409 with { cycle: number[] } if `blockedById` already depends on this task
+    async addTaskDependency(id: number, blockedById: number): Promise<TaskDependency> {
+        const response: AxiosResponse<TaskDependency> = await this.client.post(`/tasks/${id}/dependencies`, { blockedById });
+        return response.data;
+    }
+
+    async removeTaskDependency(id: number, blockedById: number): Promise<void> {
+        await this.client.delete(`/tasks/${id}/dependencies/${blockedById}`);
+    }
+
     async deleteTask(id: number): Promise<void> {
         await this.client.delete(`/tasks/${id}`);
     }
@@ -242,6 +426,12 @@ class ApiService {
         return response.data;
     }
 
+    // -------- BOOTSTRAP --------
+    async getBootstrap(): Promise<BootstrapResponse> {
+        const response: AxiosResponse<BootstrapResponse> = await this.client.get("/bootstrap");
+        return response.data;
+    }
+
     // -------- TEAMS --------
     async getTeams(): Promise<Team[]> {
         const response: AxiosResponse<Team[]> = await this.client.get("/teams");
@@ -267,6 +457,18 @@ class ApiService {
         return response.data;
     }
 
+    async addTeamMembers(id: number, memberIds: number[]): Promise<Team> {
+        const response: AxiosResponse<Team> = await this.client.post(`/teams/${id}/members`, { memberIds });
+        return response.data;
+    }
+
+    async removeTeamMembers(id: number, userIds: number[]): Promise<Team> {
+        const response: AxiosResponse<Team> = await this.client.delete(`/teams/${id}/members`, {
+            params: { userIds: userIds.join(",") },
+        });
+        return response.data;
+    }
+
     async checkTeamNameExists(name: string): Promise<boolean> {
         const response: AxiosResponse<boolean> = await this.client.get(`/teams/check-name/${encodeURIComponent(name)}`);
         return response.data;
@@ -286,8 +488,7 @@ class ApiService {
         const response: AxiosResponse<any> = await this.client.put(`/users/${id}`, data);
         // backend may return { user, token } when username changed
         if (response.data?.token) {
-            const token = response.data.token;
-            localStorage.setItem("auth_token", token);
+            this.storeTokens(response.data);
             console.debug('[api] updateUser - new token stored due to username change');
             return response.data.user;
         }